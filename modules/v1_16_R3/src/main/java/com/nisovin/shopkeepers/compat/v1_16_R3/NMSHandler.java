@@ -4,7 +4,9 @@ import java.lang.reflect.Field;
 import java.util.Map;
 import java.util.Set;
 
+import org.bukkit.Location;
 import org.bukkit.Material;
+import org.bukkit.craftbukkit.v1_16_R3.CraftWorld;
 import org.bukkit.craftbukkit.v1_16_R3.entity.CraftAbstractVillager;
 import org.bukkit.craftbukkit.v1_16_R3.entity.CraftEntity;
 import org.bukkit.craftbukkit.v1_16_R3.entity.CraftLivingEntity;
@@ -14,6 +16,7 @@ import org.bukkit.craftbukkit.v1_16_R3.inventory.CraftItemStack;
 import org.bukkit.craftbukkit.v1_16_R3.inventory.CraftMerchant;
 import org.bukkit.craftbukkit.v1_16_R3.util.CraftMagicNumbers;
 import org.bukkit.entity.AbstractVillager;
+import org.bukkit.entity.EntityType;
 import org.bukkit.entity.LivingEntity;
 import org.bukkit.entity.PiglinAbstract;
 import org.bukkit.entity.Player;
@@ -26,27 +29,50 @@ import org.bukkit.inventory.Merchant;
 import org.bukkit.inventory.MerchantInventory;
 
 import com.nisovin.shopkeepers.compat.api.NMSCallProvider;
+import com.nisovin.shopkeepers.compat.api.PacketEntityProvider;
 import com.nisovin.shopkeepers.util.ItemUtils;
+import com.nisovin.shopkeepers.util.Log;
 
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelPipeline;
 import net.minecraft.server.v1_16_R3.Entity;
 import net.minecraft.server.v1_16_R3.EntityHuman;
 import net.minecraft.server.v1_16_R3.EntityInsentient;
 import net.minecraft.server.v1_16_R3.EntityLiving;
 import net.minecraft.server.v1_16_R3.EntityPlayer;
+import net.minecraft.server.v1_16_R3.EnumHand;
 import net.minecraft.server.v1_16_R3.GameProfileSerializer;
 import net.minecraft.server.v1_16_R3.IMerchant;
 import net.minecraft.server.v1_16_R3.MerchantRecipeList;
 import net.minecraft.server.v1_16_R3.NBTTagCompound;
+import net.minecraft.server.v1_16_R3.PacketPlayInUseEntity;
+import net.minecraft.server.v1_16_R3.PacketPlayOutEntityDestroy;
+import net.minecraft.server.v1_16_R3.PacketPlayOutEntityHeadRotation;
+import net.minecraft.server.v1_16_R3.PacketPlayOutEntityMetadata;
+import net.minecraft.server.v1_16_R3.PacketPlayOutSpawnEntityLiving;
 import net.minecraft.server.v1_16_R3.PathfinderGoalLookAtPlayer;
 import net.minecraft.server.v1_16_R3.PathfinderGoalSelector;
+import net.minecraft.server.v1_16_R3.PlayerConnection;
 
-public final class NMSHandler implements NMSCallProvider {
+public final class NMSHandler implements NMSCallProvider, PacketEntityProvider {
 
 	private Field craftItemStackHandleField;
+	// Null if the interactions with packet entities cannot be detected:
+	private Field useEntityIdField;
 
 	public NMSHandler() throws Exception {
 		craftItemStackHandleField = CraftItemStack.class.getDeclaredField("handle");
 		craftItemStackHandleField.setAccessible(true);
+
+		try {
+			useEntityIdField = PacketPlayInUseEntity.class.getDeclaredField("a"); // Entity id
+			useEntityIdField.setAccessible(true);
+		} catch (Exception e) {
+			Log.warning("Could not setup the detection of entity interactions. Packet shops are not supported.", e);
+			useEntityIdField = null;
+		}
 	}
 
 	@Override
@@ -229,4 +255,108 @@ public final class NMSHandler implements NMSCallProvider {
 		if (nmsItem == null) return null;
 		return nmsItem.getName();
 	}
+
+	// PACKET ENTITIES
+
+	@Override
+	public PacketEntityProvider getPacketEntityProvider() {
+		return (useEntityIdField != null) ? this : null;
+	}
+
+	@Override
+	public org.bukkit.entity.Entity createPacketEntity(Location location, EntityType entityType) {
+		// Creates the entity without adding it to the world:
+		Entity mcEntity = ((CraftWorld) location.getWorld()).createEntity(location, entityType.getEntityClass());
+		return mcEntity.getBukkitEntity();
+	}
+
+	@Override
+	public void sendPacketEntitySpawn(Player player, org.bukkit.entity.Entity entity, float headYaw) {
+		EntityLiving mcEntity = ((CraftLivingEntity) entity).getHandle();
+		PlayerConnection connection = ((CraftPlayer) player).getHandle().playerConnection;
+		connection.sendPacket(new PacketPlayOutSpawnEntityLiving(mcEntity));
+		connection.sendPacket(new PacketPlayOutEntityMetadata(mcEntity.getId(), mcEntity.getDataWatcher(), true));
+		connection.sendPacket(new PacketPlayOutEntityHeadRotation(mcEntity, toPacketAngle(headYaw)));
+	}
+
+	@Override
+	public void sendPacketEntityMetadata(Player player, org.bukkit.entity.Entity entity) {
+		Entity mcEntity = ((CraftEntity) entity).getHandle();
+		PlayerConnection connection = ((CraftPlayer) player).getHandle().playerConnection;
+		connection.sendPacket(new PacketPlayOutEntityMetadata(mcEntity.getId(), mcEntity.getDataWatcher(), true));
+	}
+
+	@Override
+	public void sendPacketEntityHeadRotation(Player player, org.bukkit.entity.Entity entity, float headYaw) {
+		Entity mcEntity = ((CraftEntity) entity).getHandle();
+		PlayerConnection connection = ((CraftPlayer) player).getHandle().playerConnection;
+		connection.sendPacket(new PacketPlayOutEntityHeadRotation(mcEntity, toPacketAngle(headYaw)));
+	}
+
+	@Override
+	public void sendPacketEntityDestroy(Player player, int entityId) {
+		PlayerConnection connection = ((CraftPlayer) player).getHandle().playerConnection;
+		connection.sendPacket(new PacketPlayOutEntityDestroy(entityId));
+	}
+
+	// The name of our handler inside the players' channel pipelines:
+	private static final String INTERACTION_HANDLER_NAME = "shopkeepers_entity_interactions";
+
+	@Override
+	public void registerInteractionListener(Player player, InteractionListener listener) {
+		Channel channel = ((CraftPlayer) player).getHandle().playerConnection.networkManager.channel;
+		channel.eventLoop().execute(() -> {
+			ChannelPipeline pipeline = channel.pipeline();
+			if (pipeline.get(INTERACTION_HANDLER_NAME) != null) {
+				pipeline.remove(INTERACTION_HANDLER_NAME);
+			}
+			if (pipeline.get("packet_handler") == null) return; // Player has already disconnected
+			pipeline.addBefore("packet_handler", INTERACTION_HANDLER_NAME, new InteractionHandler(player, listener));
+		});
+	}
+
+	@Override
+	public void unregisterInteractionListener(Player player) {
+		Channel channel = ((CraftPlayer) player).getHandle().playerConnection.networkManager.channel;
+		channel.eventLoop().execute(() -> {
+			ChannelPipeline pipeline = channel.pipeline();
+			if (pipeline.get(INTERACTION_HANDLER_NAME) != null) {
+				pipeline.remove(INTERACTION_HANDLER_NAME);
+			}
+		});
+	}
+
+	private class InteractionHandler extends ChannelInboundHandlerAdapter {
+
+		private final Player player;
+		private final InteractionListener listener;
+
+		InteractionHandler(Player player, InteractionListener listener) {
+			this.player = player;
+			this.listener = listener;
+		}
+
+		@Override
+		public void channelRead(ChannelHandlerContext context, Object message) throws Exception {
+			if (message instanceof PacketPlayInUseEntity) {
+				PacketPlayInUseEntity packet = (PacketPlayInUseEntity) message;
+				// The client sends both an INTERACT_AT and an INTERACT packet. We only forward the latter:
+				if (packet.b() == PacketPlayInUseEntity.EnumEntityUseAction.INTERACT && packet.c() == EnumHand.MAIN_HAND) {
+					try {
+						listener.onInteract(player, useEntityIdField.getInt(packet));
+					} catch (Exception e) {
+						// Not passed on, since this would disconnect the player:
+						Log.warning("Could not handle an entity interaction packet!", e);
+					}
+				}
+			}
+			// The server still handles the packet, and ignores it if the entity is unknown:
+			super.channelRead(context, message);
+		}
+	}
+
+	// Rotations are sent as steps of 1/256 of a full turn.
+	private static byte toPacketAngle(float degrees) {
+		return (byte) (int) Math.floor(degrees * 256.0F / 360.0F);
+	}
 }
@@ -1,10 +1,13 @@
 package com.nisovin.shopkeepers.compat.v1_17_R1;
 
+import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.util.Map;
 
+import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.block.Sign;
+import org.bukkit.craftbukkit.v1_17_R1.CraftWorld;
 import org.bukkit.craftbukkit.v1_17_R1.entity.CraftAbstractVillager;
 import org.bukkit.craftbukkit.v1_17_R1.entity.CraftEntity;
 import org.bukkit.craftbukkit.v1_17_R1.entity.CraftLivingEntity;
@@ -17,6 +20,7 @@ import org.bukkit.craftbukkit.v1_17_R1.util.CraftMagicNumbers;
 import org.bukkit.entity.AbstractVillager;
 import org.bukkit.entity.Axolotl;
 import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
 import org.bukkit.entity.GlowSquid;
 import org.bukkit.entity.Goat;
 import org.bukkit.entity.LivingEntity;
@@ -30,23 +34,61 @@ import org.bukkit.inventory.Merchant;
 import org.bukkit.inventory.MerchantInventory;
 
 import com.nisovin.shopkeepers.compat.api.NMSCallProvider;
+import com.nisovin.shopkeepers.compat.api.PacketEntityProvider;
 import com.nisovin.shopkeepers.util.EnumUtils;
 import com.nisovin.shopkeepers.util.ItemUtils;
+import com.nisovin.shopkeepers.util.Log;
 
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelPipeline;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.NbtUtils; // GameProfileSerializer
+import net.minecraft.network.protocol.Packet;
+import net.minecraft.network.protocol.game.ClientboundAddMobPacket;
+import net.minecraft.network.protocol.game.ClientboundRotateHeadPacket;
+import net.minecraft.network.protocol.game.ClientboundSetEntityDataPacket;
+import net.minecraft.network.protocol.game.ServerboundInteractPacket;
 import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.InteractionHand;
 import net.minecraft.world.entity.ai.goal.GoalSelector;
 import net.minecraft.world.entity.ai.goal.LookAtPlayerGoal;
 import net.minecraft.world.item.trading.MerchantOffers;
+import net.minecraft.world.phys.Vec3;
 
-public final class NMSHandler implements NMSCallProvider {
+public final class NMSHandler implements NMSCallProvider, PacketEntityProvider {
 
 	private Field craftItemStackHandleField;
+	// Null if the packet entities are not supported:
+	private Constructor<?> removeEntitiesPacketConstructor;
+	private boolean removeEntitiesPacketVarArgs;
+	// Null if the interactions with packet entities cannot be detected:
+	private Field interactEntityIdField;
 
 	public NMSHandler() throws Exception {
 		craftItemStackHandleField = CraftItemStack.class.getDeclaredField("handle");
 		craftItemStackHandleField.setAccessible(true);
+
+		// MC 1.17.1 replaced the packet that removes a single entity with a packet that removes multiple entities. Both
+		// use the same class name at runtime:
+		try {
+			Class<?> removeEntitiesPacketClass = Class.forName("net.minecraft.network.protocol.game.PacketPlayOutEntityDestroy");
+			try {
+				removeEntitiesPacketConstructor = removeEntitiesPacketClass.getConstructor(int[].class);
+				removeEntitiesPacketVarArgs = true;
+			} catch (NoSuchMethodException e) {
+				removeEntitiesPacketConstructor = removeEntitiesPacketClass.getConstructor(int.class);
+				removeEntitiesPacketVarArgs = false;
+			}
+
+			interactEntityIdField = ServerboundInteractPacket.class.getDeclaredField("a"); // entityId
+			interactEntityIdField.setAccessible(true);
+		} catch (Exception e) {
+			Log.warning("Could not setup the entity packets. Packet shops are not supported.", e);
+			removeEntitiesPacketConstructor = null;
+			interactEntityIdField = null;
+		}
 	}
 
 	@Override
@@ -217,6 +259,136 @@ public final class NMSHandler implements NMSCallProvider {
 		return nmsItem.getDescriptionId();
 	}
 
+	// PACKET ENTITIES
+
+	@Override
+	public PacketEntityProvider getPacketEntityProvider() {
+		return (removeEntitiesPacketConstructor != null && interactEntityIdField != null) ? this : null;
+	}
+
+	@Override
+	public Entity createPacketEntity(Location location, EntityType entityType) {
+		// Creates the entity without adding it to the world:
+		net.minecraft.world.entity.Entity mcEntity = ((CraftWorld) location.getWorld()).createEntity(location, entityType.getEntityClass());
+		return mcEntity.getBukkitEntity();
+	}
+
+	@Override
+	public void sendPacketEntitySpawn(Player player, Entity entity, float headYaw) {
+		net.minecraft.world.entity.LivingEntity mcEntity = ((CraftLivingEntity) entity).getHandle();
+		ServerPlayer nmsPlayer = ((CraftPlayer) player).getHandle();
+		nmsPlayer.connection.send(new ClientboundAddMobPacket(mcEntity));
+		nmsPlayer.connection.send(new ClientboundSetEntityDataPacket(mcEntity.getId(), mcEntity.getEntityData(), true));
+		nmsPlayer.connection.send(new ClientboundRotateHeadPacket(mcEntity, toPacketAngle(headYaw)));
+	}
+
+	@Override
+	public void sendPacketEntityMetadata(Player player, Entity entity) {
+		net.minecraft.world.entity.Entity mcEntity = ((CraftEntity) entity).getHandle();
+		ServerPlayer nmsPlayer = ((CraftPlayer) player).getHandle();
+		nmsPlayer.connection.send(new ClientboundSetEntityDataPacket(mcEntity.getId(), mcEntity.getEntityData(), true));
+	}
+
+	@Override
+	public void sendPacketEntityHeadRotation(Player player, Entity entity, float headYaw) {
+		net.minecraft.world.entity.Entity mcEntity = ((CraftEntity) entity).getHandle();
+		ServerPlayer nmsPlayer = ((CraftPlayer) player).getHandle();
+		nmsPlayer.connection.send(new ClientboundRotateHeadPacket(mcEntity, toPacketAngle(headYaw)));
+	}
+
+	@Override
+	public void sendPacketEntityDestroy(Player player, int entityId) {
+		Packet<?> packet;
+		try {
+			if (removeEntitiesPacketVarArgs) {
+				packet = (Packet<?>) removeEntitiesPacketConstructor.newInstance(new int[] { entityId });
+			} else {
+				packet = (Packet<?>) removeEntitiesPacketConstructor.newInstance(entityId);
+			}
+		} catch (Exception e) {
+			throw new RuntimeException("Could not create the entity removal packet!", e);
+		}
+		ServerPlayer nmsPlayer = ((CraftPlayer) player).getHandle();
+		nmsPlayer.connection.send(packet);
+	}
+
+	// The name of our handler inside the players' channel pipelines:
+	private static final String INTERACTION_HANDLER_NAME = "shopkeepers_entity_interactions";
+
+	@Override
+	public void registerInteractionListener(Player player, InteractionListener listener) {
+		Channel channel = ((CraftPlayer) player).getHandle().connection.connection.channel;
+		channel.eventLoop().execute(() -> {
+			ChannelPipeline pipeline = channel.pipeline();
+			if (pipeline.get(INTERACTION_HANDLER_NAME) != null) {
+				pipeline.remove(INTERACTION_HANDLER_NAME);
+			}
+			if (pipeline.get("packet_handler") == null) return; // Player has already disconnected
+			pipeline.addBefore("packet_handler", INTERACTION_HANDLER_NAME, new InteractionHandler(player, listener));
+		});
+	}
+
+	@Override
+	public void unregisterInteractionListener(Player player) {
+		Channel channel = ((CraftPlayer) player).getHandle().connection.connection.channel;
+		channel.eventLoop().execute(() -> {
+			ChannelPipeline pipeline = channel.pipeline();
+			if (pipeline.get(INTERACTION_HANDLER_NAME) != null) {
+				pipeline.remove(INTERACTION_HANDLER_NAME);
+			}
+		});
+	}
+
+	private class InteractionHandler extends ChannelInboundHandlerAdapter implements ServerboundInteractPacket.Handler {
+
+		private final Player player;
+		private final InteractionListener listener;
+		private int entityId; // The entity id of the currently dispatched packet
+
+		InteractionHandler(Player player, InteractionListener listener) {
+			this.player = player;
+			this.listener = listener;
+		}
+
+		@Override
+		public void channelRead(ChannelHandlerContext context, Object message) throws Exception {
+			if (message instanceof ServerboundInteractPacket) {
+				ServerboundInteractPacket packet = (ServerboundInteractPacket) message;
+				try {
+					entityId = interactEntityIdField.getInt(packet);
+					packet.dispatch(this);
+				} catch (Exception e) {
+					// Not passed on, since this would disconnect the player:
+					Log.warning("Could not handle an entity interaction packet!", e);
+				}
+			}
+			// The server still handles the packet, and ignores it if the entity is unknown:
+			super.channelRead(context, message);
+		}
+
+		@Override
+		public void onInteraction(InteractionHand hand) {
+			if (hand == InteractionHand.MAIN_HAND) {
+				listener.onInteract(player, entityId);
+			}
+		}
+
+		@Override
+		public void onInteraction(InteractionHand hand, Vec3 position) {
+			// The client sends both an INTERACT_AT and an INTERACT packet. We only forward the latter.
+		}
+
+		@Override
+		public void onAttack() {
+			// Attacks are not forwarded.
+		}
+	}
+
+	// Rotations are sent as steps of 1/256 of a full turn.
+	private static byte toPacketAngle(float degrees) {
+		return (byte) (int) Math.floor(degrees * 256.0F / 360.0F);
+	}
+
 	// MC 1.17 specific features
 
 	@Override
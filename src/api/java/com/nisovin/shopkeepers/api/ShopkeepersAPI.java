@@ -1,5 +1,7 @@
 package com.nisovin.shopkeepers.api;
 
+import java.util.Map;
+
 import org.apache.commons.lang.Validate;
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
@@ -18,6 +20,7 @@ import com.nisovin.shopkeepers.api.shopobjects.ShopObjectTypesRegistry;
 import com.nisovin.shopkeepers.api.storage.ShopkeeperStorage;
 import com.nisovin.shopkeepers.api.ui.DefaultUITypes;
 import com.nisovin.shopkeepers.api.ui.UIRegistry;
+import com.nisovin.shopkeepers.api.util.TimingStatistics;
 import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
 
 public final class ShopkeepersAPI {
@@ -121,6 +124,18 @@ public final class ShopkeepersAPI {
 		return getPlugin().getShopkeeperStorage();
 	}
 
+	// TIMINGS
+
+	/**
+	 * Gets the {@link TimingStatistics} of the various tasks that are monitored by the plugin, mapped by their names.
+	 * 
+	 * @return the timing statistics, mapped by their names
+	 * @see ShopkeepersPlugin#getTimings()
+	 */
+	public static Map<String, ? extends TimingStatistics> getTimings() {
+		return getPlugin().getTimings();
+	}
+
 	//
 
 	/**
@@ -1,5 +1,7 @@
 package com.nisovin.shopkeepers.api;
 
+import java.util.Map;
+
 import org.bukkit.entity.Player;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.Plugin;
@@ -17,6 +19,7 @@ import com.nisovin.shopkeepers.api.shopobjects.ShopObjectTypesRegistry;
 import com.nisovin.shopkeepers.api.storage.ShopkeeperStorage;
 import com.nisovin.shopkeepers.api.ui.DefaultUITypes;
 import com.nisovin.shopkeepers.api.ui.UIRegistry;
+import com.nisovin.shopkeepers.api.util.TimingStatistics;
 import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
 
 public interface ShopkeepersPlugin extends Plugin {
@@ -51,6 +54,7 @@ public interface ShopkeepersPlugin extends Plugin {
 	public static final String GIVE_CURRENCY_PERMISSION = "shopkeeper.givecurrency";
 	public static final String CONVERT_ITEMS_OWN_PERMISSION = "shopkeeper.convertitems.own";
 	public static final String CONVERT_ITEMS_OTHERS_PERMISSION = "shopkeeper.convertitems.others";
+	public static final String CONVERT_ITEMS_SHOPS_PERMISSION = "shopkeeper.convertitems.shops";
 	public static final String REMOTE_PERMISSION = "shopkeeper.remote";
 	public static final String REMOTE_OTHER_PLAYERS_PERMISSION = "shopkeeper.remote.otherplayers";
 	public static final String REMOTE_EDIT_PERMISSION = "shopkeeper.remoteedit";
@@ -112,6 +116,19 @@ public interface ShopkeepersPlugin extends Plugin {
 	 */
 	public ShopkeeperStorage getShopkeeperStorage();
 
+	// TIMINGS
+
+	/**
+	 * Gets the {@link TimingStatistics} of the various tasks that are monitored by the plugin, such as saves, trades,
+	 * and UI openings, mapped by their names.
+	 * <p>
+	 * The returned Map is newly created on every invocation and reflects the currently monitored tasks. The timings are
+	 * reset when the plugin is reloaded.
+	 * 
+	 * @return the timing statistics, mapped by their names
+	 */
+	public Map<String, ? extends TimingStatistics> getTimings();
+
 	//
 
 	/**
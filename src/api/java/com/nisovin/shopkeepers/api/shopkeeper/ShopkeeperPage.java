@@ -0,0 +1,63 @@
+package com.nisovin.shopkeepers.api.shopkeeper;
+
+import java.util.List;
+
+import org.apache.commons.lang.Validate;
+
+/**
+ * A page of the shopkeepers matched by a {@link ShopkeeperQuery}.
+ * 
+ * @see ShopkeeperRegistry#getShopkeepersPage(ShopkeeperQuery, int, int)
+ */
+public final class ShopkeeperPage {
+
+	private final List<? extends Shopkeeper> shopkeepers;
+	private final int offset;
+	private final int totalCount;
+
+	/**
+	 * Creates a new {@link ShopkeeperPage}.
+	 * 
+	 * @param shopkeepers
+	 *            the shopkeepers of this page, not <code>null</code>, expected to be unmodifiable
+	 * @param offset
+	 *            the index of the first shopkeeper of this page among all matching shopkeepers
+	 * @param totalCount
+	 *            the total number of matching shopkeepers
+	 */
+	public ShopkeeperPage(List<? extends Shopkeeper> shopkeepers, int offset, int totalCount) {
+		Validate.notNull(shopkeepers, "Shopkeepers is null!");
+		Validate.isTrue(offset >= 0, "Offset cannot be negative!");
+		Validate.isTrue(totalCount >= 0, "Total count cannot be negative!");
+		this.shopkeepers = shopkeepers;
+		this.offset = offset;
+		this.totalCount = totalCount;
+	}
+
+	/**
+	 * Gets the shopkeepers of this page.
+	 * 
+	 * @return an unmodifiable view on the shopkeepers of this page
+	 */
+	public List<? extends Shopkeeper> getShopkeepers() {
+		return shopkeepers;
+	}
+
+	/**
+	 * Gets the index of the first shopkeeper of this page among all matching shopkeepers.
+	 * 
+	 * @return the offset
+	 */
+	public int getOffset() {
+		return offset;
+	}
+
+	/**
+	 * Gets the total number of shopkeepers that match the query.
+	 * 
+	 * @return the total number of matching shopkeepers
+	 */
+	public int getTotalCount() {
+		return totalCount;
+	}
+}
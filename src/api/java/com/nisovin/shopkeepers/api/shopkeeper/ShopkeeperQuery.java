@@ -0,0 +1,137 @@
+package com.nisovin.shopkeepers.api.shopkeeper;
+
+import java.util.UUID;
+
+import org.apache.commons.lang.Validate;
+
+import com.nisovin.shopkeepers.api.shopkeeper.admin.AdminShopkeeper;
+import com.nisovin.shopkeepers.api.shopkeeper.player.PlayerShopkeeper;
+
+/**
+ * Specifies which shopkeepers to include when {@link ShopkeeperRegistry#getShopkeepersPage(ShopkeeperQuery, int, int)
+ * querying a page of shopkeepers}.
+ */
+public final class ShopkeeperQuery {
+
+	/**
+	 * The different kinds of queries.
+	 */
+	public enum Type {
+		/**
+		 * All shopkeepers.
+		 */
+		ALL,
+		/**
+		 * All shopkeepers that are not {@link PlayerShopkeeper player shopkeepers}, i.e. usually
+		 * {@link AdminShopkeeper admin shopkeepers}.
+		 */
+		ADMIN,
+		/**
+		 * The {@link PlayerShopkeeper player shopkeepers} of a specific owner.
+		 */
+		OWNER,
+		/**
+		 * The shopkeepers in a specific world.
+		 */
+		WORLD;
+	}
+
+	private static final ShopkeeperQuery ALL = new ShopkeeperQuery(Type.ALL, null, null);
+	private static final ShopkeeperQuery ADMIN = new ShopkeeperQuery(Type.ADMIN, null, null);
+
+	/**
+	 * Gets a query for all shopkeepers.
+	 * 
+	 * @return the query
+	 */
+	public static ShopkeeperQuery all() {
+		return ALL;
+	}
+
+	/**
+	 * Gets a query for all shopkeepers that are not {@link PlayerShopkeeper player shopkeepers}.
+	 * 
+	 * @return the query
+	 */
+	public static ShopkeeperQuery admin() {
+		return ADMIN;
+	}
+
+	/**
+	 * Gets a query for the player shopkeepers of the specified owner.
+	 * 
+	 * @param ownerUUID
+	 *            the owner uuid, not <code>null</code>
+	 * @return the query
+	 */
+	public static ShopkeeperQuery owner(UUID ownerUUID) {
+		Validate.notNull(ownerUUID, "Owner UUID is null!");
+		return new ShopkeeperQuery(Type.OWNER, ownerUUID, null);
+	}
+
+	/**
+	 * Gets a query for the shopkeepers in the specified world.
+	 * 
+	 * @param worldName
+	 *            the world name, not <code>null</code>
+	 * @return the query
+	 */
+	public static ShopkeeperQuery world(String worldName) {
+		Validate.notNull(worldName, "World name is null!");
+		return new ShopkeeperQuery(Type.WORLD, null, worldName);
+	}
+
+	private final Type type; // Not null
+	private final UUID ownerUUID; // Only not null for owner queries
+	private final String worldName; // Only not null for world queries
+
+	private ShopkeeperQuery(Type type, UUID ownerUUID, String worldName) {
+		this.type = type;
+		this.ownerUUID = ownerUUID;
+		this.worldName = worldName;
+	}
+
+	/**
+	 * Gets the {@link Type} of this query.
+	 * 
+	 * @return the type of query
+	 */
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * Gets the owner uuid of an {@link Type#OWNER owner} query.
+	 * 
+	 * @return the owner uuid, or <code>null</code> if this is not an owner query
+	 */
+	public UUID getOwnerUUID() {
+		return ownerUUID;
+	}
+
+	/**
+	 * Gets the world name of a {@link Type#WORLD world} query.
+	 * 
+	 * @return the world name, or <code>null</code> if this is not a world query
+	 */
+	public String getWorldName() {
+		return worldName;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder builder = new StringBuilder();
+		builder.append("ShopkeeperQuery [type=");
+		builder.append(type);
+		if (ownerUUID != null) {
+			builder.append(", ownerUUID=");
+			builder.append(ownerUUID);
+		}
+		if (worldName != null) {
+			builder.append(", worldName=");
+			builder.append(worldName);
+		}
+		builder.append("]");
+		return builder.toString();
+	}
+}
@@ -86,6 +86,24 @@ public interface ShopkeeperRegistry {
 	 */
 	public Collection<? extends PlayerShopkeeper> getPlayerShopkeepersByOwner(UUID ownerUUID);
 
+	// PAGING
+
+	/**
+	 * Gets a page of the shopkeepers that match the given query.
+	 * <p>
+	 * This only copies the shopkeepers of the requested page. The order of the shopkeepers is consistent across
+	 * successive invocations, as long as no shopkeepers are added or removed in the meantime.
+	 * 
+	 * @param query
+	 *            the query, not <code>null</code>
+	 * @param offset
+	 *            the index of the first shopkeeper of the page, not negative
+	 * @param limit
+	 *            the maximum number of shopkeepers of the page, not negative
+	 * @return the page, not <code>null</code>
+	 */
+	public ShopkeeperPage getShopkeepersPage(ShopkeeperQuery query, int offset, int limit);
+
 	// BY NAME
 
 	/**
@@ -0,0 +1,81 @@
+package com.nisovin.shopkeepers.api.util;
+
+/**
+ * Provides information about the processing times of a specific task that is monitored by the Shopkeepers plugin, and
+ * the number of times it was executed.
+ * <p>
+ * The processing times are tracked via histograms with logarithmic buckets. Percentiles are therefore only accurate up
+ * to about 12.5%.
+ */
+public interface TimingStatistics {
+
+	/**
+	 * The maximum time window in minutes for which the processing times are tracked separately.
+	 */
+	public static final int MAX_WINDOW_MINUTES = 15;
+
+	/**
+	 * Gets the number of times the task was executed.
+	 * 
+	 * @return the number of times the task was executed
+	 */
+	public long getCounter();
+
+	/**
+	 * Gets the task's average processing time in milliseconds.
+	 * 
+	 * @return the average processing time in milliseconds
+	 */
+	public double getAverageTimeMillis();
+
+	/**
+	 * Gets the task's maximum processing time in milliseconds.
+	 * 
+	 * @return the maximum processing time in milliseconds
+	 */
+	public double getMaxTimeMillis();
+
+	/**
+	 * Gets the task's processing time at the given percentile, in milliseconds.
+	 * 
+	 * @param percentile
+	 *            the percentile, in the range [0, 100]
+	 * @return the processing time at the given percentile in milliseconds
+	 */
+	public double getPercentileMillis(double percentile);
+
+	/**
+	 * Gets the number of times the task was executed within the given time window.
+	 * 
+	 * @param windowMinutes
+	 *            the time window in minutes, in the range [1, {@link #MAX_WINDOW_MINUTES}]
+	 * @return the number of times the task was executed within the time window
+	 */
+	public long getCounter(int windowMinutes);
+
+	/**
+	 * Gets the task's processing time at the given percentile within the given time window, in milliseconds.
+	 * 
+	 * @param percentile
+	 *            the percentile, in the range [0, 100]
+	 * @param windowMinutes
+	 *            the time window in minutes, in the range [1, {@link #MAX_WINDOW_MINUTES}]
+	 * @return the processing time at the given percentile in milliseconds
+	 * @see #getPercentileMillis(double)
+	 */
+	public double getPercentileMillis(double percentile, int windowMinutes);
+
+	/**
+	 * Gets the task's processing times at the given percentiles within the given time window, in milliseconds.
+	 * <p>
+	 * This is more efficient than querying the percentiles individually.
+	 * 
+	 * @param windowMinutes
+	 *            the time window in minutes, in the range [1, {@link #MAX_WINDOW_MINUTES}]
+	 * @param percentiles
+	 *            the percentiles, each in the range [0, 100]
+	 * @return the processing times at the given percentiles in milliseconds
+	 * @see #getPercentileMillis(double)
+	 */
+	public double[] getPercentilesMillis(int windowMinutes, double... percentiles);
+}
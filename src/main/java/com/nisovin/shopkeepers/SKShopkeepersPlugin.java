@@ -1,6 +1,8 @@
 package com.nisovin.shopkeepers;
 
 import java.io.File;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
@@ -27,6 +29,7 @@ import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.config.lib.ConfigLoadException;
 import com.nisovin.shopkeepers.container.protection.ProtectedContainers;
 import com.nisovin.shopkeepers.container.protection.RemoveShopOnContainerBreak;
+import com.nisovin.shopkeepers.debug.FlightRecorder;
 import com.nisovin.shopkeepers.debug.events.EventDebugger;
 import com.nisovin.shopkeepers.debug.trades.TradingCountListener;
 import com.nisovin.shopkeepers.itemconversion.ItemConversions;
@@ -47,7 +50,9 @@ import com.nisovin.shopkeepers.shopkeeper.offers.SKTradeOffer;
 import com.nisovin.shopkeepers.shopobjects.SKDefaultShopObjectTypes;
 import com.nisovin.shopkeepers.shopobjects.SKShopObjectTypesRegistry;
 import com.nisovin.shopkeepers.shopobjects.citizens.CitizensShops;
+import com.nisovin.shopkeepers.shopobjects.living.LivingEntityAI;
 import com.nisovin.shopkeepers.shopobjects.living.LivingShops;
+import com.nisovin.shopkeepers.shopobjects.packet.PacketShops;
 import com.nisovin.shopkeepers.shopobjects.sign.SignShops;
 import com.nisovin.shopkeepers.spigot.SpigotFeatures;
 import com.nisovin.shopkeepers.storage.SKShopkeeperStorage;
@@ -55,11 +60,15 @@ import com.nisovin.shopkeepers.tradelog.TradeLoggers;
 import com.nisovin.shopkeepers.tradenotifications.TradeNotifications;
 import com.nisovin.shopkeepers.ui.SKUIRegistry;
 import com.nisovin.shopkeepers.ui.defaults.SKDefaultUITypes;
+import com.nisovin.shopkeepers.ui.defaults.TradingHandler;
 import com.nisovin.shopkeepers.util.ClassUtils;
+import com.nisovin.shopkeepers.util.InteractionChecks;
+import com.nisovin.shopkeepers.util.InteractionChecks.CheckType;
 import com.nisovin.shopkeepers.util.Log;
 import com.nisovin.shopkeepers.util.SKUnmodifiableItemStack;
 import com.nisovin.shopkeepers.util.SchedulerUtils;
 import com.nisovin.shopkeepers.util.Validate;
+import com.nisovin.shopkeepers.util.timer.Timings;
 import com.nisovin.shopkeepers.villagers.RegularVillagers;
 
 public class SKShopkeepersPlugin extends JavaPlugin implements ShopkeepersPlugin {
@@ -98,6 +107,7 @@ public class SKShopkeepersPlugin extends JavaPlugin implements ShopkeepersPlugin
 	private final TradeLoggers tradeLoggers = new TradeLoggers(this);
 	private final TradeNotifications tradeNotifications = new TradeNotifications(this);
 	private final EventDebugger eventDebugger = new EventDebugger(this);
+	private final FlightRecorder flightRecorder = new FlightRecorder(this);
 
 	private final PlayerShops playerShops = new PlayerShops(this);
 
@@ -106,6 +116,7 @@ public class SKShopkeepersPlugin extends JavaPlugin implements ShopkeepersPlugin
 	private final LivingShops livingShops = new LivingShops(this);
 	private final SignShops signShops = new SignShops(this);
 	private final CitizensShops citizensShops = new CitizensShops(this);
+	private final PacketShops packetShops = new PacketShops(this);
 
 	private final RegularVillagers regularVillagers = new RegularVillagers(this);
 
@@ -305,6 +316,9 @@ public class SKShopkeepersPlugin extends JavaPlugin implements ShopkeepersPlugin
 		// Enable citizens shops:
 		citizensShops.onEnable();
 
+		// Enable packet shops:
+		packetShops.onEnable();
+
 		// -----
 
 		// Features related to regular villagers:
@@ -369,6 +383,11 @@ public class SKShopkeepersPlugin extends JavaPlugin implements ShopkeepersPlugin
 		// Wait for async tasks to complete:
 		SchedulerUtils.awaitAsyncTasksCompletion(this, ASYNC_TASKS_TIMEOUT_SECONDS, this.getLogger());
 
+		// Cancel running bulk operations (before the shopkeepers get unloaded):
+		commands.getBulkOperations().onDisable();
+		// Stop the shop items conversion (saves the shopkeepers and writes the conversion checkpoint):
+		itemConversions.getShopItemsConversion().stop();
+
 		// Inform UI registry about disable:
 		uiRegistry.onDisable();
 
@@ -384,6 +403,9 @@ public class SKShopkeepersPlugin extends JavaPlugin implements ShopkeepersPlugin
 		// Disable citizens shops:
 		citizensShops.onDisable();
 
+		// Disable packet shops:
+		packetShops.onDisable();
+
 		// Disable protected containers:
 		protectedContainers.disable();
 		removeShopOnContainerBreak.onDisable();
@@ -421,6 +443,12 @@ public class SKShopkeepersPlugin extends JavaPlugin implements ShopkeepersPlugin
 		// Trade notifications:
 		tradeNotifications.onDisable();
 
+		// Cached interaction check results:
+		InteractionChecks.invalidateAll();
+
+		// Reset the timings (some of them are shared statically and would otherwise persist across reloads):
+		this.getTimings().values().forEach(Timings::reset);
+
 		// Clear all types of registers:
 		shopTypesRegistry.clearAll();
 		shopObjectTypesRegistry.clearAll();
@@ -432,6 +460,9 @@ public class SKShopkeepersPlugin extends JavaPlugin implements ShopkeepersPlugin
 		// Event debugger:
 		eventDebugger.onDisable();
 
+		// Flight recorder:
+		flightRecorder.onDisable();
+
 		HandlerList.unregisterAll(this);
 		Bukkit.getScheduler().cancelTasks(this);
 
@@ -460,6 +491,7 @@ public class SKShopkeepersPlugin extends JavaPlugin implements ShopkeepersPlugin
 
 		shopkeeperCreation.onPlayerQuit(player);
 		commands.onPlayerQuit(player);
+		InteractionChecks.invalidate(player);
 	}
 
 	// SHOPKEEPER REGISTRY
@@ -530,6 +562,12 @@ public class SKShopkeepersPlugin extends JavaPlugin implements ShopkeepersPlugin
 		return citizensShops;
 	}
 
+	// PACKET SHOPS
+
+	public PacketShops getPacketShops() {
+		return packetShops;
+	}
+
 	// SHOP TYPES
 
 	@Override
@@ -595,12 +633,63 @@ public class SKShopkeepersPlugin extends JavaPlugin implements ShopkeepersPlugin
 		return playerShops;
 	}
 
+	// ITEM CONVERSIONS
+
+	public ItemConversions getItemConversions() {
+		return itemConversions;
+	}
+
 	// TRADE NOTIFICATIONS
 
 	public TradeNotifications getTradeNotifications() {
 		return tradeNotifications;
 	}
 
+	// TRADE LOGGING
+
+	public TradeLoggers getTradeLoggers() {
+		return tradeLoggers;
+	}
+
+	// FLIGHT RECORDER
+
+	public FlightRecorder getFlightRecorder() {
+		return flightRecorder;
+	}
+
+	// TIMINGS
+
+	/**
+	 * Gets the {@link Timings} of the various tracked tasks, mapped by their names.
+	 * <p>
+	 * The returned Map is newly created on every invocation and reflects the currently tracked tasks (e.g. the
+	 * currently configured number of shopkeeper ticking groups). The timings are reset when the plugin is disabled.
+	 * 
+	 * @return the timings, mapped by their names
+	 */
+	@Override
+	public Map<String, Timings> getTimings() {
+		Map<String, Timings> timings = new LinkedHashMap<>();
+		timings.put("chunk-activation", shopkeeperRegistry.getChunkActivationTimings());
+		int tickingGroups = shopkeeperRegistry.getTickingGroupCount();
+		for (int tickingGroup = 0; tickingGroup < tickingGroups; ++tickingGroup) {
+			timings.put("ticking-group-" + tickingGroup, shopkeeperRegistry.getTickingGroupTimings(tickingGroup));
+		}
+		LivingEntityAI livingEntityAI = livingShops.getLivingEntityAI();
+		timings.put("ai-total", livingEntityAI.getTotalTimings());
+		timings.put("ai-activation", livingEntityAI.getActivationTimings());
+		timings.put("ai-gravity", livingEntityAI.getGravityTimings());
+		timings.put("ai", livingEntityAI.getAITimings());
+		timings.put("save-preparation", shopkeeperStorage.getSavePreparationTimings());
+		timings.put("save", shopkeeperStorage.getSaveTimings());
+		timings.put("trade", TradingHandler.getTradeTimings());
+		timings.put("ui-open", uiRegistry.getUIOpenTimings());
+		timings.put("interaction-check-block", InteractionChecks.getTimings(CheckType.BLOCK_INTERACT));
+		timings.put("interaction-check-entity", InteractionChecks.getTimings(CheckType.ENTITY_INTERACT));
+		timings.put("interaction-check-damage", InteractionChecks.getTimings(CheckType.ENTITY_DAMAGE));
+		return timings;
+	}
+
 	// FACTORIES
 
 	@Deprecated
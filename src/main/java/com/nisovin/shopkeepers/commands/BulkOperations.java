@@ -0,0 +1,178 @@
+package com.nisovin.shopkeepers.commands;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import org.bukkit.command.CommandSender;
+import org.bukkit.entity.Player;
+
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
+import com.nisovin.shopkeepers.lang.Messages;
+import com.nisovin.shopkeepers.util.TextUtils;
+import com.nisovin.shopkeepers.util.Validate;
+import com.nisovin.shopkeepers.util.taskqueue.BulkOperation;
+
+/**
+ * Runs the bulk operations of commands, such as the removal of many shopkeepers, spread across several ticks.
+ * <p>
+ * Each command sender can only run one bulk operation at a time. The sender is periodically informed about the
+ * progress of the operation, and can cancel it via {@link #cancel(CommandSender)}. Once an operation completes, a
+ * single delayed save is triggered for all the shopkeepers that got modified by the operation.
+ */
+public class BulkOperations {
+
+	public static final int WORK_UNITS_PER_TICK = 100;
+	public static final double BUDGET_MILLIS = 10.0D;
+	private static final long PROGRESS_MESSAGE_INTERVAL_MILLIS = 5000L;
+
+	private class SenderBulkOperation<T> extends BulkOperation<T> {
+
+		private final CommandSender sender;
+		private final Consumer<? super T> processor;
+		private final Runnable completionAction;
+		private long lastProgressMessageMillis;
+
+		SenderBulkOperation(CommandSender sender, List<? extends T> workUnits, Consumer<? super T> processor, Runnable completionAction) {
+			super(plugin, workUnits, WORK_UNITS_PER_TICK, BUDGET_MILLIS);
+			this.sender = sender;
+			this.processor = processor;
+			this.completionAction = completionAction;
+			this.lastProgressMessageMillis = System.currentTimeMillis();
+		}
+
+		@Override
+		protected void process(T workUnit) {
+			processor.accept(workUnit);
+		}
+
+		@Override
+		protected void onProgress() {
+			long now = System.currentTimeMillis();
+			if (now - lastProgressMessageMillis < PROGRESS_MESSAGE_INTERVAL_MILLIS) return;
+			lastProgressMessageMillis = now;
+			TextUtils.sendMessage(sender, Messages.bulkOperationProgress,
+					"processed", this.getProcessedCount(),
+					"total", this.getTotalCount()
+			);
+		}
+
+		@Override
+		protected void onCompleted() {
+			running.remove(getSenderKey(sender), this);
+			if (this.isCancelled()) {
+				TextUtils.sendMessage(sender, Messages.bulkOperationCancelled,
+						"processed", this.getProcessedCount(),
+						"total", this.getTotalCount()
+				);
+			}
+
+			// A single save for all modified shopkeepers:
+			plugin.getShopkeeperStorage().saveDelayed();
+
+			completionAction.run();
+		}
+	}
+
+	private final SKShopkeepersPlugin plugin;
+	// Player name -> running operation
+	// Null name is used for console operations.
+	private final Map<String, BulkOperation<?>> running = new HashMap<>();
+
+	public BulkOperations(SKShopkeepersPlugin plugin) {
+		this.plugin = plugin;
+	}
+
+	public void onEnable() {
+	}
+
+	public void onDisable() {
+		this.cancelAll();
+	}
+
+	private static String getSenderKey(CommandSender sender) {
+		if (sender instanceof Player) {
+			return sender.getName(); // Player's name
+		} else {
+			// Any other command sender, such as console:
+			return null;
+		}
+	}
+
+	/**
+	 * Checks if the given command sender is currently running a bulk operation.
+	 *
+	 * @param sender
+	 *            the command sender, not <code>null</code>
+	 * @return <code>true</code> if there is a running operation
+	 */
+	public boolean isRunning(CommandSender sender) {
+		Validate.notNull(sender, "Sender is null!");
+		return running.containsKey(getSenderKey(sender));
+	}
+
+	/**
+	 * Starts a new bulk operation for the given command sender.
+	 * <p>
+	 * The first work units are processed immediately. If the sender is already running another bulk operation, the
+	 * sender is informed and the new operation is not started.
+	 *
+	 * @param <T>
+	 *            the type of work units
+	 * @param sender
+	 *            the command sender, not <code>null</code>
+	 * @param workUnits
+	 *            the work units, not <code>null</code>, not modified during processing
+	 * @param processor
+	 *            processes the individual work units, not <code>null</code>
+	 * @param completionAction
+	 *            invoked once the operation has completed or got cancelled, not <code>null</code>
+	 * @return <code>true</code> if the operation has been started
+	 */
+	public <T> boolean start(CommandSender sender, List<? extends T> workUnits, Consumer<? super T> processor, Runnable completionAction) {
+		Validate.notNull(sender, "Sender is null!");
+		Validate.notNull(workUnits, "Work units is null!");
+		Validate.notNull(processor, "Processor is null!");
+		Validate.notNull(completionAction, "Completion action is null!");
+		String senderKey = getSenderKey(sender);
+		if (running.containsKey(senderKey)) {
+			TextUtils.sendMessage(sender, Messages.bulkOperationAlreadyRunning);
+			return false;
+		}
+
+		SenderBulkOperation<T> operation = new SenderBulkOperation<>(sender, workUnits, processor, completionAction);
+		running.put(senderKey, operation);
+		// Note: This may already complete the operation.
+		operation.start();
+		return true;
+	}
+
+	/**
+	 * Cancels the currently running bulk operation of the given command sender.
+	 *
+	 * @param sender
+	 *            the command sender, not <code>null</code>
+	 */
+	public void cancel(CommandSender sender) {
+		Validate.notNull(sender, "Sender is null!");
+		BulkOperation<?> operation = running.get(getSenderKey(sender));
+		if (operation != null) {
+			operation.cancel();
+		} else {
+			TextUtils.sendMessage(sender, Messages.nothingToCancel);
+		}
+	}
+
+	/**
+	 * Cancels all running bulk operations.
+	 */
+	public void cancelAll() {
+		// Copied, since completed operations remove themselves:
+		for (BulkOperation<?> operation : new ArrayList<>(running.values())) {
+			operation.cancel();
+		}
+		running.clear();
+	}
+}
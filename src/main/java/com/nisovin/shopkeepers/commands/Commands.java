@@ -9,21 +9,25 @@ public class Commands {
 
 	private final SKShopkeepersPlugin plugin;
 	private final Confirmations confirmations;
+	private final BulkOperations bulkOperations;
 	private ShopkeepersCommand shopkeepersCommand;
 
 	public Commands(SKShopkeepersPlugin plugin) {
 		this.plugin = plugin;
 		this.confirmations = new Confirmations(plugin);
+		this.bulkOperations = new BulkOperations(plugin);
 	}
 
 	public void onEnable() {
 		confirmations.onEnable();
+		bulkOperations.onEnable();
 		// Register command executor:
-		shopkeepersCommand = new ShopkeepersCommand(plugin, plugin.getCommand("shopkeeper"), confirmations);
+		shopkeepersCommand = new ShopkeepersCommand(plugin, plugin.getCommand("shopkeeper"), confirmations, bulkOperations);
 	}
 
 	public void onDisable() {
 		confirmations.onDisable();
+		// Note: The bulk operations are already disabled earlier by the plugin, before the shopkeepers get unloaded.
 	}
 
 	public void onPlayerQuit(Player player) {
@@ -31,6 +35,10 @@ public class Commands {
 		confirmations.onPlayerQuit(player);
 	}
 
+	public BulkOperations getBulkOperations() {
+		return bulkOperations;
+	}
+
 	public ShopkeepersCommand getShopkeepersCommand() {
 		return shopkeepersCommand;
 	}
@@ -0,0 +1,60 @@
+package com.nisovin.shopkeepers.commands.arguments;
+
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
+import com.nisovin.shopkeepers.commands.lib.ArgumentFilter;
+import com.nisovin.shopkeepers.commands.lib.arguments.PlayerNameArgument;
+
+/**
+ * Provides suggestions for the names of online players and known shop owners.
+ * <p>
+ * By default this accepts any name regardless of whether it corresponds to an online player or shop owner.
+ */
+public class ShopOwnerNameArgument extends PlayerNameArgument {
+
+	public ShopOwnerNameArgument(String name) {
+		this(name, ArgumentFilter.acceptAny());
+	}
+
+	public ShopOwnerNameArgument(String name, ArgumentFilter<String> filter) {
+		this(name, filter, DEFAULT_MINIMAL_COMPLETION_INPUT);
+	}
+
+	public ShopOwnerNameArgument(String name, ArgumentFilter<String> filter, int minimalCompletionInput) {
+		super(name, filter, minimalCompletionInput);
+	}
+
+	/**
+	 * Gets the default name completion suggestions.
+	 * <p>
+	 * This includes the suggestions for online players, followed by the names of known shop owners that are not
+	 * online currently.
+	 *
+	 * @param namePrefix
+	 *            the name prefix, may be empty, not <code>null</code>
+	 * @param playerFilter
+	 *            only suggestions for online players accepted by this predicate get included
+	 * @param includeDisplayNames
+	 *            <code>true</code> to include display name suggestions for online players
+	 * @return the name completion suggestions
+	 */
+	public static Iterable<String> getDefaultCompletionSuggestions(String namePrefix, Predicate<Player> playerFilter, boolean includeDisplayNames) {
+		Iterable<String> onlinePlayerSuggestions = PlayerNameArgument.getDefaultCompletionSuggestions(namePrefix, playerFilter, includeDisplayNames);
+		// Uses the owner name index of the shopkeeper registry:
+		Stream<String> shopOwnerSuggestions = SKShopkeepersPlugin.getInstance().getShopkeeperRegistry()
+				.getShopOwnerNamesByPrefix(namePrefix)
+				.filter(ownerName -> Bukkit.getPlayerExact(ownerName) == null); // Already suggested if online
+		return Stream.concat(StreamSupport.stream(onlinePlayerSuggestions.spliterator(), false), shopOwnerSuggestions)::iterator;
+	}
+
+	@Override
+	protected Iterable<String> getCompletionSuggestions(String idPrefix) {
+		return getDefaultCompletionSuggestions(idPrefix, (player) -> true, true);
+	}
+}
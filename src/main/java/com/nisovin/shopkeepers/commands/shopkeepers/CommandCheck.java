@@ -28,6 +28,7 @@ import com.nisovin.shopkeepers.commands.lib.arguments.FirstOfArgument;
 import com.nisovin.shopkeepers.commands.lib.arguments.LiteralArgument;
 import com.nisovin.shopkeepers.commands.lib.arguments.OptionalArgument;
 import com.nisovin.shopkeepers.config.Settings;
+import com.nisovin.shopkeepers.container.protection.ProtectedContainers;
 import com.nisovin.shopkeepers.shopkeeper.SKShopkeeperRegistry;
 import com.nisovin.shopkeepers.shopobjects.living.LivingEntityAI;
 import com.nisovin.shopkeepers.text.Text;
@@ -39,6 +40,10 @@ class CommandCheck extends Command {
 
 	private static final String ARGUMENT_CHUNKS = "chunks";
 	private static final String ARGUMENT_ACTIVE = "active";
+	private static final String ARGUMENT_TIMINGS = "timings";
+
+	private static final double[] PERCENTILES = { 50.0D, 95.0D, 99.0D, 99.9D };
+	private static final int[] TIME_WINDOWS_MINUTES = { 1, 5, 15 };
 
 	private final SKShopkeepersPlugin plugin;
 	private final SKShopkeeperRegistry shopkeeperRegistry;
@@ -60,7 +65,8 @@ class CommandCheck extends Command {
 		// Arguments:
 		this.addArgument(new OptionalArgument<>(new FirstOfArgument("context", Arrays.asList(
 				new LiteralArgument(ARGUMENT_CHUNKS),
-				new LiteralArgument(ARGUMENT_ACTIVE)
+				new LiteralArgument(ARGUMENT_ACTIVE),
+				new LiteralArgument(ARGUMENT_TIMINGS)
 		), true))); // Join formats
 	}
 
@@ -71,6 +77,7 @@ class CommandCheck extends Command {
 
 		boolean listChunks = context.has(ARGUMENT_CHUNKS);
 		boolean listActive = context.has(ARGUMENT_ACTIVE);
+		boolean listTimings = context.has(ARGUMENT_TIMINGS);
 
 		LivingEntityAI livingEntityAI = plugin.getLivingShops().getLivingEntityAI();
 
@@ -106,6 +113,23 @@ class CommandCheck extends Command {
 				+ TextUtils.DECIMAL_FORMAT.format(maxChunkActivationTimings) + " ms" + " | "
 				+ chunkActivationTimings.getCounter());
 
+		int tickingGroups = shopkeeperRegistry.getTickingGroupCount();
+		sender.sendMessage("  Shopkeeper ticking groups: " + tickingGroups
+				+ "    (Budget: " + TextUtils.DECIMAL_FORMAT.format(Settings.shopkeeperTickingBudgetMillis) + " ms)");
+		for (int tickingGroup = 0; tickingGroup < tickingGroups; ++tickingGroup) {
+			Timings tickingGroupTimings = shopkeeperRegistry.getTickingGroupTimings(tickingGroup);
+			sender.sendMessage("    Group " + tickingGroup + " (size | avg | max | cnt): "
+					+ shopkeeperRegistry.getTickingGroupSize(tickingGroup) + " | "
+					+ TextUtils.DECIMAL_FORMAT.format(tickingGroupTimings.getAverageTimeMillis()) + " ms" + " | "
+					+ TextUtils.DECIMAL_FORMAT.format(tickingGroupTimings.getMaxTimeMillis()) + " ms" + " | "
+					+ tickingGroupTimings.getCounter());
+		}
+
+		ProtectedContainers protectedContainers = plugin.getProtectedContainers();
+		sender.sendMessage("  Item movement protection cache (hits | misses): "
+				+ protectedContainers.getItemMovementProtectionCacheHits() + " | "
+				+ protectedContainers.getItemMovementProtectionCacheMisses());
+
 		double avgTotalAITimings = livingEntityAI.getTotalTimings().getAverageTimeMillis();
 		double maxTotalAITiming = livingEntityAI.getTotalTimings().getMaxTimeMillis();
 		sender.sendMessage("  Total AI timings (per " + Settings.mobBehaviorTickPeriod + " ticks) (avg | max): "
@@ -215,8 +239,36 @@ class CommandCheck extends Command {
 			}
 		}
 
+		// List the latency percentiles of all timings:
+		if (listTimings) {
+			sender.sendMessage(ChatColor.YELLOW + "Timings (cnt | p50 | p95 | p99 | p99.9):");
+			for (Entry<String, Timings> timingsEntry : plugin.getTimings().entrySet()) {
+				Timings timings = timingsEntry.getValue();
+				sender.sendMessage("  " + timingsEntry.getKey() + ":");
+				double[] percentiles = new double[PERCENTILES.length];
+				for (int i = 0; i < PERCENTILES.length; i++) {
+					percentiles[i] = timings.getPercentileMillis(PERCENTILES[i]);
+				}
+				sender.sendMessage("    All: " + this.formatPercentiles(timings.getCounter(), percentiles));
+				for (int windowMinutes : TIME_WINDOWS_MINUTES) {
+					percentiles = timings.getPercentilesMillis(windowMinutes, PERCENTILES);
+					sender.sendMessage("    " + windowMinutes + "m: "
+							+ this.formatPercentiles(timings.getCounter(windowMinutes), percentiles));
+				}
+			}
+		}
+
 		if (!isConsole && (listChunks || listActive)) {
 			sender.sendMessage("There might be more information getting printed if the command is run from the console.");
 		}
 	}
+
+	private String formatPercentiles(long counter, double[] percentiles) {
+		StringBuilder sb = new StringBuilder();
+		sb.append(counter);
+		for (double percentile : percentiles) {
+			sb.append(" | ").append(TextUtils.DECIMAL_FORMAT.format(percentile)).append(" ms");
+		}
+		return sb.toString();
+	}
 }
@@ -0,0 +1,67 @@
+package com.nisovin.shopkeepers.commands.shopkeepers;
+
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
+import com.nisovin.shopkeepers.commands.lib.Command;
+import com.nisovin.shopkeepers.commands.lib.CommandContextView;
+import com.nisovin.shopkeepers.commands.lib.CommandException;
+import com.nisovin.shopkeepers.commands.lib.CommandInput;
+import com.nisovin.shopkeepers.commands.lib.arguments.LiteralArgument;
+import com.nisovin.shopkeepers.commands.lib.arguments.OptionalArgument;
+import com.nisovin.shopkeepers.itemconversion.ItemConversions;
+import com.nisovin.shopkeepers.itemconversion.ShopItemsConversion;
+import com.nisovin.shopkeepers.text.Text;
+
+class CommandConvertShopItems extends Command {
+
+	private static final String ARGUMENT_STOP = "stop";
+
+	private final SKShopkeepersPlugin plugin;
+
+	CommandConvertShopItems(SKShopkeepersPlugin plugin) {
+		super("convertShopItems");
+		this.plugin = plugin;
+
+		// Set permission:
+		this.setPermission(ShopkeepersPlugin.CONVERT_ITEMS_SHOPS_PERMISSION);
+
+		// Set description:
+		this.setDescription(Text.of("Converts the offer and container items of all shops in the background. "
+				+ "Only the items affected by the item conversion settings are converted."));
+
+		// Hidden utility command:
+		this.setHiddenInParentHelp(true);
+
+		// Arguments:
+		this.addArgument(new OptionalArgument<>(new LiteralArgument(ARGUMENT_STOP)));
+	}
+
+	@Override
+	protected void execute(CommandInput input, CommandContextView context) throws CommandException {
+		CommandSender sender = input.getSender();
+		boolean stop = context.has(ARGUMENT_STOP);
+
+		ShopItemsConversion shopItemsConversion = plugin.getItemConversions().getShopItemsConversion();
+		if (stop) {
+			if (!shopItemsConversion.isRunning()) {
+				sender.sendMessage(ChatColor.RED + "The shop items conversion is not running!");
+				return;
+			}
+			// Logs the result and informs the sender that started the conversion:
+			shopItemsConversion.stop();
+		} else if (shopItemsConversion.isRunning()) {
+			sender.sendMessage(ChatColor.YELLOW + "The shop items conversion is already running: Processed "
+					+ shopItemsConversion.getProcessedChunks() + " of " + shopItemsConversion.getTotalChunks()
+					+ " chunks.");
+		} else if (!ItemConversions.isAnyItemAffected()) {
+			sender.sendMessage(ChatColor.RED + "No items are affected by the item conversion! "
+					+ "Check the settings 'convert-all-player-items' and 'convert-player-items-exceptions'.");
+		} else {
+			sender.sendMessage(ChatColor.GREEN + "Starting the shop items conversion ...");
+			shopItemsConversion.start(sender);
+		}
+	}
+}
@@ -7,6 +7,7 @@ import java.util.stream.Collectors;
 import org.bukkit.ChatColor;
 import org.bukkit.command.CommandSender;
 
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
 import com.nisovin.shopkeepers.commands.lib.Command;
 import com.nisovin.shopkeepers.commands.lib.CommandContextView;
@@ -45,7 +46,7 @@ class CommandDebug extends Command {
 
 	private static final String ARGUMENT_DEBUG_OPTION = "option";
 
-	CommandDebug() {
+	CommandDebug(SKShopkeepersPlugin plugin) {
 		super("debug");
 
 		// Set permission:
@@ -56,6 +57,9 @@ class CommandDebug extends Command {
 
 		// Arguments:
 		this.addArgument(new OptionalArgument<>(new DebugOptionArgument(ARGUMENT_DEBUG_OPTION)));
+
+		// Child commands:
+		this.getChildCommands().register(new CommandDebugDump(plugin));
 	}
 
 	@Override
@@ -0,0 +1,44 @@
+package com.nisovin.shopkeepers.commands.shopkeepers;
+
+import java.nio.file.Path;
+
+import org.bukkit.ChatColor;
+import org.bukkit.command.CommandSender;
+
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
+import com.nisovin.shopkeepers.commands.lib.Command;
+import com.nisovin.shopkeepers.commands.lib.CommandContextView;
+import com.nisovin.shopkeepers.commands.lib.CommandException;
+import com.nisovin.shopkeepers.commands.lib.CommandInput;
+import com.nisovin.shopkeepers.debug.FlightRecorder;
+import com.nisovin.shopkeepers.text.Text;
+
+class CommandDebugDump extends Command {
+
+	private final SKShopkeepersPlugin plugin;
+
+	CommandDebugDump(SKShopkeepersPlugin plugin) {
+		super("dump");
+		this.plugin = plugin;
+
+		// Set permission:
+		this.setPermission(ShopkeepersPlugin.DEBUG_PERMISSION);
+
+		// Set description:
+		this.setDescription(Text.of("Writes the recently recorded trade, UI, and storage events to a file."));
+
+		// Hidden debugging command:
+		this.setHiddenInParentHelp(true);
+	}
+
+	@Override
+	protected void execute(CommandInput input, CommandContextView context) throws CommandException {
+		CommandSender sender = input.getSender();
+		FlightRecorder flightRecorder = plugin.getFlightRecorder();
+		int eventCount = flightRecorder.getSize();
+		Path dumpFile = flightRecorder.dump();
+		sender.sendMessage(ChatColor.GREEN + "Writing " + eventCount + " recorded events to "
+				+ plugin.getDataFolder().toPath().relativize(dumpFile));
+	}
+}
@@ -1,7 +1,7 @@
 package com.nisovin.shopkeepers.commands.shopkeepers;
 
-import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -12,8 +12,10 @@ import org.bukkit.entity.Player;
 
 import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
+import com.nisovin.shopkeepers.api.shopkeeper.ShopkeeperPage;
+import com.nisovin.shopkeepers.api.shopkeeper.ShopkeeperQuery;
 import com.nisovin.shopkeepers.api.shopkeeper.ShopkeeperRegistry;
-import com.nisovin.shopkeepers.api.shopkeeper.player.PlayerShopkeeper;
+import com.nisovin.shopkeepers.commands.arguments.ShopOwnerNameArgument;
 import com.nisovin.shopkeepers.commands.lib.Command;
 import com.nisovin.shopkeepers.commands.lib.CommandContextView;
 import com.nisovin.shopkeepers.commands.lib.CommandException;
@@ -61,7 +63,6 @@ class CommandList extends Command {
 				new LiteralArgument(ARGUMENT_ALL),
 				new LiteralArgument(ARGUMENT_ADMIN),
 				new FirstOfArgument(ARGUMENT_PLAYER, Arrays.asList(
-						// TODO Provide completions for known shop owners?
 						new PlayerUUIDArgument(ARGUMENT_PLAYER_UUID), // Accepts any uuid
 						// Only accepts names of online players initially, but falls back to any given name or the
 						// sender's name (using a fallback to give the following page argument a chance to parse the
@@ -69,7 +70,13 @@ class CommandList extends Command {
 						// TODO Add alias 'own'?
 						new SenderPlayerNameFallback(new AnyStringFallback(
 								new TransformedArgument<>(
-										new PlayerByNameArgument(ARGUMENT_PLAYER_NAME),
+										new PlayerByNameArgument(ARGUMENT_PLAYER_NAME) {
+											// Also suggests the names of known shop owners:
+											@Override
+											protected Iterable<String> getCompletionSuggestions(String idPrefix) {
+												return ShopOwnerNameArgument.getDefaultCompletionSuggestions(idPrefix, (player) -> true, true);
+											}
+										},
 										(player) -> player.getName()
 								)
 						))
@@ -96,25 +103,19 @@ class CommandList extends Command {
 		String targetPlayerName = context.get(ARGUMENT_PLAYER_NAME); // can be null
 		assert listAllShops ^ listAdminShops ^ (targetPlayerUUID != null ^ targetPlayerName != null); // xor
 
-		List<? extends Shopkeeper> shops;
+		// Note: Only the shops of the requested page are copied.
+		ShopkeeperQuery query;
 		if (listAllShops) {
 			// Permission check:
 			this.checkPermission(sender, ShopkeepersPlugin.LIST_ADMIN_PERMISSION);
 			this.checkPermission(sender, ShopkeepersPlugin.LIST_OTHERS_PERMISSION);
 
-			shops = new ArrayList<>(shopkeeperRegistry.getAllShopkeepers());
+			query = ShopkeeperQuery.all();
 		} else if (listAdminShops) {
 			// Permission check:
 			this.checkPermission(sender, ShopkeepersPlugin.LIST_ADMIN_PERMISSION);
 
-			// Searching admin shops:
-			List<Shopkeeper> adminShops = new ArrayList<>();
-			for (Shopkeeper shopkeeper : shopkeeperRegistry.getAllShopkeepers()) {
-				if (!(shopkeeper instanceof PlayerShopkeeper)) {
-					adminShops.add(shopkeeper);
-				}
-			}
-			shops = adminShops;
+			query = ShopkeeperQuery.admin();
 		} else {
 			// Check if the target matches the sender player:
 			boolean targetOwnShops = false;
@@ -145,29 +146,34 @@ class CommandList extends Command {
 				this.checkPermission(sender, ShopkeepersPlugin.LIST_OTHERS_PERMISSION);
 			}
 
-			// Search for shops owned by the target player:
-			OwnedPlayerShopsResult ownedPlayerShopsResult = ShopkeeperUtils.getOwnedPlayerShops(targetPlayerUUID, targetPlayerName);
-			assert ownedPlayerShopsResult != null;
+			if (targetPlayerUUID == null || targetPlayerName == null) {
+				// Search for shops owned by the target player:
+				OwnedPlayerShopsResult ownedPlayerShopsResult = ShopkeeperUtils.getOwnedPlayerShops(targetPlayerUUID, targetPlayerName);
+				assert ownedPlayerShopsResult != null;
 
-			// If the input name is ambiguous, we print an error and require the player to be specified by uuid:
-			Map<UUID, String> matchingShopOwners = ownedPlayerShopsResult.getMatchingShopOwners();
-			assert matchingShopOwners != null;
-			if (PlayerUtils.handleAmbiguousPlayerName(sender, targetPlayerName, matchingShopOwners.entrySet())) {
-				return;
-			}
+				// If the input name is ambiguous, we print an error and require the player to be specified by uuid:
+				Map<UUID, String> matchingShopOwners = ownedPlayerShopsResult.getMatchingShopOwners();
+				assert matchingShopOwners != null;
+				if (PlayerUtils.handleAmbiguousPlayerName(sender, targetPlayerName, matchingShopOwners.entrySet())) {
+					return;
+				}
 
-			// Get missing / exact player information:
-			targetPlayerUUID = ownedPlayerShopsResult.getPlayerUUID();
-			targetPlayerName = ownedPlayerShopsResult.getPlayerName();
+				// Get missing / exact player information:
+				targetPlayerUUID = ownedPlayerShopsResult.getPlayerUUID();
+				targetPlayerName = ownedPlayerShopsResult.getPlayerName();
+			}
 
-			// Get found shops:
-			shops = ownedPlayerShopsResult.getShops();
+			// If no shops have been found for the given player name, the player uuid is still unknown:
+			query = (targetPlayerUUID != null) ? ShopkeeperQuery.owner(targetPlayerUUID) : null;
 		}
-		assert shops != null;
 
-		int shopsCount = shops.size();
+		ShopkeeperPage shopsPage = this.getShopsPage(query, page);
+		int shopsCount = shopsPage.getTotalCount();
 		int maxPage = Math.max(1, (int) Math.ceil((double) shopsCount / ENTRIES_PER_PAGE));
-		page = Math.max(1, Math.min(page, maxPage));
+		if (page > maxPage) {
+			page = maxPage;
+			shopsPage = this.getShopsPage(query, page);
+		}
 
 		if (listAllShops) {
 			// Listing all shops:
@@ -193,10 +199,11 @@ class CommandList extends Command {
 			);
 		}
 
-		int startIndex = (page - 1) * ENTRIES_PER_PAGE;
-		int endIndex = Math.min(startIndex + ENTRIES_PER_PAGE, shopsCount);
-		for (int index = startIndex; index < endIndex; index++) {
-			Shopkeeper shopkeeper = shops.get(index);
+		List<? extends Shopkeeper> shops = shopsPage.getShopkeepers();
+		int startIndex = shopsPage.getOffset();
+		for (int i = 0; i < shops.size(); i++) {
+			int index = startIndex + i;
+			Shopkeeper shopkeeper = shops.get(i);
 			String shopName = shopkeeper.getName(); // Can be empty
 			// TODO Add shop info as hover text.
 			// TODO Add owner name/uuid as message arguments?
@@ -216,4 +223,15 @@ class CommandList extends Command {
 			);
 		}
 	}
+
+	// The query can be null to get an empty page.
+	private ShopkeeperPage getShopsPage(ShopkeeperQuery query, int page) {
+		assert page >= 1;
+		// Saturated, since large page numbers would otherwise overflow the offset:
+		int offset = (int) Math.min((long) (page - 1) * ENTRIES_PER_PAGE, Integer.MAX_VALUE);
+		if (query == null) {
+			return new ShopkeeperPage(Collections.emptyList(), offset, 0);
+		}
+		return shopkeeperRegistry.getShopkeepersPage(query, offset, ENTRIES_PER_PAGE);
+	}
 }
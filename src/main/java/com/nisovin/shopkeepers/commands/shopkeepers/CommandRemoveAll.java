@@ -15,15 +15,15 @@ import com.nisovin.shopkeepers.api.events.PlayerDeleteShopkeeperEvent;
 import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
 import com.nisovin.shopkeepers.api.shopkeeper.ShopkeeperRegistry;
 import com.nisovin.shopkeepers.api.shopkeeper.admin.AdminShopkeeper;
-import com.nisovin.shopkeepers.api.shopkeeper.player.PlayerShopkeeper;
+import com.nisovin.shopkeepers.commands.BulkOperations;
 import com.nisovin.shopkeepers.commands.Confirmations;
+import com.nisovin.shopkeepers.commands.arguments.ShopOwnerNameArgument;
 import com.nisovin.shopkeepers.commands.lib.Command;
 import com.nisovin.shopkeepers.commands.lib.CommandContextView;
 import com.nisovin.shopkeepers.commands.lib.CommandException;
 import com.nisovin.shopkeepers.commands.lib.CommandInput;
 import com.nisovin.shopkeepers.commands.lib.arguments.FirstOfArgument;
 import com.nisovin.shopkeepers.commands.lib.arguments.LiteralArgument;
-import com.nisovin.shopkeepers.commands.lib.arguments.PlayerNameArgument;
 import com.nisovin.shopkeepers.commands.lib.arguments.PlayerUUIDArgument;
 import com.nisovin.shopkeepers.commands.lib.arguments.SenderPlayerNameFallback;
 import com.nisovin.shopkeepers.event.ShopkeeperEventHelper;
@@ -42,15 +42,21 @@ class CommandRemoveAll extends Command {
 	private static final String ARGUMENT_ALL_PLAYER_SHOPS = "player";
 	private static final String ARGUMENT_ALL_ADMIN_SHOPS = "admin";
 
-	private final ShopkeepersPlugin plugin;
+	private static class RemovalCounts {
+		int invalidShops = 0;
+		int cancelledDeletions = 0;
+		int actualShopCount = 0;
+	}
+
 	private final ShopkeeperRegistry shopkeeperRegistry;
 	private final Confirmations confirmations;
+	private final BulkOperations bulkOperations;
 
-	CommandRemoveAll(ShopkeepersPlugin plugin, ShopkeeperRegistry shopkeeperRegistry, Confirmations confirmations) {
+	CommandRemoveAll(ShopkeeperRegistry shopkeeperRegistry, Confirmations confirmations, BulkOperations bulkOperations) {
 		super("removeAll", Arrays.asList("deleteAll"));
-		this.plugin = plugin;
 		this.shopkeeperRegistry = shopkeeperRegistry;
 		this.confirmations = confirmations;
+		this.bulkOperations = bulkOperations;
 
 		// Permission gets checked by testPermission and during execution.
 
@@ -62,11 +68,10 @@ class CommandRemoveAll extends Command {
 				new LiteralArgument(ARGUMENT_ALL_ADMIN_SHOPS),
 				new LiteralArgument(ARGUMENT_ALL_PLAYER_SHOPS),
 				new FirstOfArgument(ARGUMENT_PLAYER, Arrays.asList(
-						// TODO Provide completions for known shop owners?
 						new PlayerUUIDArgument(ARGUMENT_PLAYER_UUID), // Accepts any uuid
 						// Accepts any name, falls back to sender if no name is specified.
 						// TODO Add alias 'own'?
-						new SenderPlayerNameFallback(new PlayerNameArgument(ARGUMENT_PLAYER_NAME))
+						new SenderPlayerNameFallback(new ShopOwnerNameArgument(ARGUMENT_PLAYER_NAME))
 				), false) // Don't join formats
 		), true, true)); // Join and reverse formats
 	}
@@ -140,14 +145,8 @@ class CommandRemoveAll extends Command {
 			}
 			affectedShops = adminShops;
 		} else if (allPlayers) {
-			// Search all player shops:
-			List<Shopkeeper> playerShops = new ArrayList<>();
-			for (Shopkeeper shopkeeper : shopkeeperRegistry.getAllShopkeepers()) {
-				if (shopkeeper instanceof PlayerShopkeeper) {
-					playerShops.add(shopkeeper);
-				}
-			}
-			affectedShops = playerShops;
+			// Get all player shops (copied, since the shops get removed later):
+			affectedShops = new ArrayList<>(shopkeeperRegistry.getAllPlayerShopkeepers());
 		} else {
 			assert targetPlayerUUID != null ^ targetPlayerName != null;
 			// Search for shops owned by the target player:
@@ -177,60 +176,57 @@ class CommandRemoveAll extends Command {
 			// Note: New shops might have been created in the meantime, but the command only affects the already
 			// determined affected shops.
 			// Remove shops:
-			int invalidShops = 0;
-			int cancelledDeletions = 0;
-			int actualShopCount = 0;
-			for (Shopkeeper shopkeeper : affectedShops) {
+			// Note: The shops are removed in batches across several ticks. The bulk operation triggers a single save
+			// once it has completed.
+			RemovalCounts counts = new RemovalCounts();
+			bulkOperations.start(sender, affectedShops, (Shopkeeper shopkeeper) -> {
 				// Skip the shopkeeper if it no longer exists:
 				if (!shopkeeper.isValid()) {
-					invalidShops += 1;
-					continue;
+					counts.invalidShops += 1;
+					return;
 				}
 
 				if (senderPlayer != null) {
 					// Call event:
 					PlayerDeleteShopkeeperEvent deleteEvent = ShopkeeperEventHelper.callPlayerDeleteShopkeeperEvent(shopkeeper, senderPlayer);
 					if (deleteEvent.isCancelled()) {
-						cancelledDeletions += 1;
-						continue;
+						counts.cancelledDeletions += 1;
+						return;
 					}
 				}
 
 				shopkeeper.delete(senderPlayer);
-				actualShopCount += 1;
-			}
-
-			// Trigger save:
-			plugin.getShopkeeperStorage().save();
-
-			// Print the result messages:
-			if (invalidShops > 0) {
-				TextUtils.sendMessage(sender, Messages.shopsAlreadyRemoved,
-						"shopsCount", invalidShops
-				);
-			}
-			if (cancelledDeletions > 0) {
-				TextUtils.sendMessage(sender, Messages.shopRemovalsCancelled,
-						"shopsCount", cancelledDeletions
-				);
-			}
-			if (allAdmin) {
-				// Removed all admin shops:
-				TextUtils.sendMessage(sender, Messages.adminShopsRemoved,
-						"shopsCount", actualShopCount
-				);
-			} else if (allPlayers) {
-				// Removed all player shops:
-				TextUtils.sendMessage(sender, Messages.playerShopsRemoved,
-						"shopsCount", actualShopCount
-				);
-			} else {
-				// Removed all shops of the specified player:
-				TextUtils.sendMessage(sender, Messages.shopsOfPlayerRemoved,
-						"player", TextUtils.getPlayerText(finalTargetPlayerName, finalTargetPlayerUUID),
-						"shopsCount", actualShopCount
-				);
-			}
+				counts.actualShopCount += 1;
+			}, () -> {
+				// Print the result messages:
+				if (counts.invalidShops > 0) {
+					TextUtils.sendMessage(sender, Messages.shopsAlreadyRemoved,
+							"shopsCount", counts.invalidShops
+					);
+				}
+				if (counts.cancelledDeletions > 0) {
+					TextUtils.sendMessage(sender, Messages.shopRemovalsCancelled,
+							"shopsCount", counts.cancelledDeletions
+					);
+				}
+				if (allAdmin) {
+					// Removed all admin shops:
+					TextUtils.sendMessage(sender, Messages.adminShopsRemoved,
+							"shopsCount", counts.actualShopCount
+					);
+				} else if (allPlayers) {
+					// Removed all player shops:
+					TextUtils.sendMessage(sender, Messages.playerShopsRemoved,
+							"shopsCount", counts.actualShopCount
+					);
+				} else {
+					// Removed all shops of the specified player:
+					TextUtils.sendMessage(sender, Messages.shopsOfPlayerRemoved,
+							"player", TextUtils.getPlayerText(finalTargetPlayerName, finalTargetPlayerUUID),
+							"shopsCount", counts.actualShopCount
+					);
+				}
+			});
 		});
 
 		// TODO Print 'no shops found' if shop count is 0?
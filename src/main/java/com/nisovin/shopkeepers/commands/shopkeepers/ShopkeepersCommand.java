@@ -21,6 +21,7 @@ import com.nisovin.shopkeepers.api.shopkeeper.admin.AdminShopCreationData;
 import com.nisovin.shopkeepers.api.shopkeeper.player.PlayerShopCreationData;
 import com.nisovin.shopkeepers.api.shopkeeper.player.PlayerShopType;
 import com.nisovin.shopkeepers.api.shopobjects.ShopObjectType;
+import com.nisovin.shopkeepers.commands.BulkOperations;
 import com.nisovin.shopkeepers.commands.Confirmations;
 import com.nisovin.shopkeepers.commands.arguments.ShopObjectTypeArgument;
 import com.nisovin.shopkeepers.commands.arguments.ShopTypeArgument;
@@ -45,7 +46,7 @@ public class ShopkeepersCommand extends BaseCommand {
 	private final SKShopkeepersPlugin plugin;
 	private final ShopkeeperRegistry shopkeeperRegistry;
 
-	public ShopkeepersCommand(SKShopkeepersPlugin plugin, PluginCommand pluginCommand, Confirmations confirmations) {
+	public ShopkeepersCommand(SKShopkeepersPlugin plugin, PluginCommand pluginCommand, Confirmations confirmations, BulkOperations bulkOperations) {
 		super(pluginCommand);
 		this.plugin = plugin;
 		this.shopkeeperRegistry = plugin.getShopkeeperRegistry();
@@ -70,11 +71,11 @@ public class ShopkeepersCommand extends BaseCommand {
 		CommandRegistry childCommands = this.getChildCommands();
 		childCommands.register(new CommandHelp(this));
 		childCommands.register(new CommandReload(plugin));
-		childCommands.register(new CommandDebug());
+		childCommands.register(new CommandDebug(plugin));
 		childCommands.register(new CommandNotify());
 		childCommands.register(new CommandList(shopkeeperRegistry));
 		childCommands.register(new CommandRemove(confirmations));
-		childCommands.register(new CommandRemoveAll(plugin, shopkeeperRegistry, confirmations));
+		childCommands.register(new CommandRemoveAll(shopkeeperRegistry, confirmations, bulkOperations));
 		childCommands.register(new CommandGive());
 		childCommands.register(new CommandGiveCurrency());
 		childCommands.register(new CommandConvertItems());
@@ -86,8 +87,10 @@ public class ShopkeepersCommand extends BaseCommand {
 		childCommands.register(new CommandEditVillager());
 		// Hidden commands:
 		childCommands.register(new CommandConfirm(confirmations));
+		childCommands.register(new CommandCancel(bulkOperations));
 		// Hidden debugging / utility commands:
 		childCommands.register(new CommandCleanupCitizenShopkeepers());
+		childCommands.register(new CommandConvertShopItems(plugin));
 		childCommands.register(new CommandCheck(plugin));
 		childCommands.register(new CommandCheckItem());
 		childCommands.register(new CommandYaml());
@@ -87,6 +87,12 @@ public interface NMSCallProvider {
 	// translated item type name (for example for items such as different types of potions, skulls, etc.).
 	public String getItemTypeTranslationKey(Material material);
 
+	// Null if packet-only entities (used by the packet shop objects) are not supported.
+	public default PacketEntityProvider getPacketEntityProvider() {
+		// Not supported by default.
+		return null;
+	}
+
 	// MC 1.17 specific features
 	// TODO Remove this once we only support MC 1.17 and above.
 
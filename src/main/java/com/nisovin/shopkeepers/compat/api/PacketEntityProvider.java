@@ -0,0 +1,48 @@
+package com.nisovin.shopkeepers.compat.api;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+import org.bukkit.entity.Player;
+
+/**
+ * Support for packet-only entities (used by the packet shop objects).
+ * <p>
+ * These entities are created but never added to the world. They are only shown to specific players by sending them
+ * the corresponding entity packets. Only available on the server versions whose {@link NMSCallProvider} provides it
+ * via {@link NMSCallProvider#getPacketEntityProvider()}.
+ */
+public interface PacketEntityProvider {
+
+	/**
+	 * Receives the interactions of a player with entities.
+	 * <p>
+	 * This is invoked on the player's network thread.
+	 */
+	@FunctionalInterface
+	public interface InteractionListener {
+
+		public void onInteract(Player player, int entityId);
+	}
+
+	// Creates a living entity of the given type at the given location, without adding it to the world. The returned
+	// entity can be used to setup the entity's properties (such as its name) that are sent to the players.
+	public Entity createPacketEntity(Location location, EntityType entityType);
+
+	// Sends the spawn, metadata, and head rotation packets for the given packet entity to the player.
+	public void sendPacketEntitySpawn(Player player, Entity entity, float headYaw);
+
+	// Sends the current metadata (such as the custom name) of the given packet entity to the player.
+	public void sendPacketEntityMetadata(Player player, Entity entity);
+
+	public void sendPacketEntityHeadRotation(Player player, Entity entity, float headYaw);
+
+	public void sendPacketEntityDestroy(Player player, int entityId);
+
+	// Informs the listener about the player's main hand interactions with entities. The server ignores the players'
+	// interactions with packet entities, since it is not aware of these entities. Attacks are not forwarded.
+	// Replaces any previously registered listener for the player.
+	public void registerInteractionListener(Player player, InteractionListener listener);
+
+	public void unregisterInteractionListener(Player player);
+}
@@ -27,6 +27,7 @@ import com.nisovin.shopkeepers.config.migration.ConfigMigrations;
 import com.nisovin.shopkeepers.lang.Messages;
 import com.nisovin.shopkeepers.playershops.MaxShopsPermission;
 import com.nisovin.shopkeepers.playershops.PlayerShopsLimit;
+import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
 import com.nisovin.shopkeepers.util.EntityUtils;
 import com.nisovin.shopkeepers.util.ItemData;
 import com.nisovin.shopkeepers.util.ItemUtils;
@@ -46,6 +47,12 @@ public class Settings extends Config {
 	// See DebugOptions for all available options.
 	public static List<String> debugOptions = new ArrayList<>(0);
 	public static boolean enableMetrics = true;
+	public static boolean enableMetricsExporter = false;
+	public static int metricsExporterPort = 9225;
+
+	public static int shopkeeperTickingGroups = AbstractShopkeeper.DEFAULT_TICKING_GROUPS;
+	public static double shopkeeperTickingBudgetMillis = 0.0D;
+	public static int shopkeeperChunkUnloadDelaySeconds = 0;
 
 	/*
 	 * Messages
@@ -191,6 +198,9 @@ public class Settings extends Config {
 	public static boolean enableSignShops = true;
 	public static boolean enableSignPostShops = true;
 
+	public static boolean enablePacketShops = false;
+	public static boolean eventDrivenShopObjectChecks = false;
+
 	/*
 	 * Naming
 	 */
@@ -600,6 +610,33 @@ public class Settings extends Config {
 			Log.warning(this.getLogPrefix() + "'gravity-chunk-range' cannot be negative.");
 			gravityChunkRange = 0;
 		}
+		if (metricsExporterPort < 1 || metricsExporterPort > 65535) {
+			Log.warning(this.getLogPrefix() + "'metrics-exporter-port' has to be in the range 1 to 65535.");
+			metricsExporterPort = 9225;
+		}
+		if (shopkeeperTickingGroups < 1) {
+			Log.warning(this.getLogPrefix() + "'shopkeeper-ticking-groups' has to be positive.");
+			shopkeeperTickingGroups = 1;
+		} else if (shopkeeperTickingGroups > AbstractShopkeeper.MAX_TICKING_GROUPS) {
+			Log.warning(this.getLogPrefix() + "'shopkeeper-ticking-groups' can not be greater than "
+					+ AbstractShopkeeper.MAX_TICKING_GROUPS + "!");
+			shopkeeperTickingGroups = AbstractShopkeeper.MAX_TICKING_GROUPS;
+		} else if (AbstractShopkeeper.TICKING_PERIOD_TICKS % shopkeeperTickingGroups != 0) {
+			// Otherwise, the shopkeepers would not be ticked exactly once per second:
+			int tickingGroups = getNearestTickingGroups(shopkeeperTickingGroups);
+			Log.warning(this.getLogPrefix() + "'shopkeeper-ticking-groups' has to evenly divide "
+					+ AbstractShopkeeper.TICKING_PERIOD_TICKS + ". Using " + tickingGroups + " instead of "
+					+ shopkeeperTickingGroups + ".");
+			shopkeeperTickingGroups = tickingGroups;
+		}
+		if (shopkeeperTickingBudgetMillis < 0.0D) {
+			Log.warning(this.getLogPrefix() + "'shopkeeper-ticking-budget-millis' cannot be negative.");
+			shopkeeperTickingBudgetMillis = 0.0D;
+		}
+		if (shopkeeperChunkUnloadDelaySeconds < 0) {
+			Log.warning(this.getLogPrefix() + "'shopkeeper-chunk-unload-delay-seconds' cannot be negative.");
+			shopkeeperChunkUnloadDelaySeconds = 0;
+		}
 		if (mobBehaviorTickPeriod <= 0) {
 			Log.warning(this.getLogPrefix() + "'mob-behavior-tick-period' has to be positive.");
 			mobBehaviorTickPeriod = 1;
@@ -650,4 +687,17 @@ public class Settings extends Config {
 		// effect. However, we do not print a warning in this case to allow tradeLogMergeDurationTicks to be easily
 		// adjusted inside the config without having to keep tradeLogNextMergeTimeoutTicks consistent.
 	}
+
+	// Gets the number of ticking groups closest to the given value that evenly divides the ticking period. Prefers the
+	// smaller number of ticking groups if there are two equally close candidates.
+	private static int getNearestTickingGroups(int tickingGroups) {
+		int nearest = 1;
+		for (int candidate = 1; candidate <= AbstractShopkeeper.MAX_TICKING_GROUPS; ++candidate) {
+			if (AbstractShopkeeper.TICKING_PERIOD_TICKS % candidate != 0) continue;
+			if (Math.abs(candidate - tickingGroups) < Math.abs(nearest - tickingGroups)) {
+				nearest = candidate;
+			}
+		}
+		return nearest;
+	}
 }
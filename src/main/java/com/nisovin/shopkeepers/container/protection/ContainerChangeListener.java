@@ -0,0 +1,69 @@
+package com.nisovin.shopkeepers.container.protection;
+
+import java.util.List;
+
+import org.bukkit.Chunk;
+import org.bukkit.block.Block;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+/**
+ * Invalidates the cached container inventories and worlds of player shopkeepers on block changes that affect shop
+ * containers or their adjacent (potentially connected) chests, and when chunks or worlds are unloaded.
+ */
+class ContainerChangeListener implements Listener {
+
+	private final ProtectedContainers protectedContainers;
+
+	ContainerChangeListener(ProtectedContainers protectedContainers) {
+		this.protectedContainers = protectedContainers;
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onBlockBreak(BlockBreakEvent event) {
+		this.invalidateContainerCaches(event.getBlock());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onBlockPlace(BlockPlaceEvent event) {
+		this.invalidateContainerCaches(event.getBlock());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onEntityExplosion(EntityExplodeEvent event) {
+		this.invalidateContainerCaches(event.blockList());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onBlockExplosion(BlockExplodeEvent event) {
+		this.invalidateContainerCaches(event.blockList());
+	}
+
+	private void invalidateContainerCaches(List<Block> blocks) {
+		for (Block block : blocks) {
+			this.invalidateContainerCaches(block);
+		}
+	}
+
+	private void invalidateContainerCaches(Block block) {
+		protectedContainers.invalidateContainerCaches(block.getWorld().getName(), block.getX(), block.getY(), block.getZ());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	void onChunkUnload(ChunkUnloadEvent event) {
+		Chunk chunk = event.getChunk();
+		protectedContainers.invalidateContainerCachesInChunk(chunk.getWorld().getName(), chunk.getX(), chunk.getZ());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onWorldUnload(WorldUnloadEvent event) {
+		protectedContainers.invalidateContainerCachesInWorld(event.getWorld().getName());
+	}
+}
@@ -5,11 +5,11 @@ import org.bukkit.block.Block;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.inventory.InventoryMoveItemEvent;
 import org.bukkit.inventory.Inventory;
 
-import com.nisovin.shopkeepers.container.ShopContainers;
-
 /**
  * Prevents item movement from/to protected containers. Can be disabled via a config setting.
  */
@@ -35,9 +35,25 @@ class InventoryMoveItemListener implements Listener {
 		// snapshot of the block's BlockState.
 		Location inventoryLocation = inventory.getLocation(); // can be null
 		if (inventoryLocation == null) return false;
-		Block block = inventoryLocation.getBlock(); // not null
-		if (!ShopContainers.isSupportedContainer(block.getType())) return false;
 		// Also checks for protected connected chests (double chests):
-		return protectedContainers.isContainerProtected(block, null);
+		return protectedContainers.isItemMovementProtected(inventoryLocation.getWorld(), inventoryLocation.getBlockX(),
+				inventoryLocation.getBlockY(), inventoryLocation.getBlockZ());
+	}
+
+	// Invalidate the cached protection results on block changes that affect shop containers or their adjacent
+	// (potentially connected) chests:
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onBlockBreak(BlockBreakEvent event) {
+		this.invalidateCachedProtection(event.getBlock());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onBlockPlace(BlockPlaceEvent event) {
+		this.invalidateCachedProtection(event.getBlock());
+	}
+
+	private void invalidateCachedProtection(Block block) {
+		protectedContainers.invalidateCachedItemMovementProtection(block.getWorld().getName(), block.getX(), block.getY(), block.getZ());
 	}
 }
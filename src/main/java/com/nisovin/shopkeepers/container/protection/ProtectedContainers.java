@@ -5,9 +5,11 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.block.data.type.Chest;
@@ -20,9 +22,10 @@ import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.shopkeeper.player.PlayerShopkeeper;
 import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.container.ShopContainers;
-import com.nisovin.shopkeepers.util.BlockLocation;
+import com.nisovin.shopkeepers.shopkeeper.player.AbstractPlayerShopkeeper;
 import com.nisovin.shopkeepers.util.ItemUtils;
-import com.nisovin.shopkeepers.util.MutableBlockLocation;
+import com.nisovin.shopkeepers.util.LongObjectHashMap;
+import com.nisovin.shopkeepers.util.PackedCoordinates;
 import com.nisovin.shopkeepers.util.PermissionUtils;
 import com.nisovin.shopkeepers.util.Validate;
 
@@ -61,19 +64,75 @@ import com.nisovin.shopkeepers.util.Validate;
  */
 public class ProtectedContainers {
 
-	// Does not need to be reset after every use.
-	private static final MutableBlockLocation sharedBlockLocation = new MutableBlockLocation();
+	// The horizontal block faces of potentially connected chests, and their bits inside the connected faces bitmask:
+	private static final BlockFace[] CHEST_SIDES = {
+			BlockFace.NORTH, BlockFace.EAST, BlockFace.SOUTH, BlockFace.WEST
+	};
+
+	private static int getFaceBit(BlockFace face) {
+		switch (face) {
+		case NORTH:
+			return 1;
+		case EAST:
+			return 2;
+		case SOUTH:
+			return 4;
+		case WEST:
+			return 8;
+		default:
+			return 0;
+		}
+	}
+
+	// An entry for a block position that is either directly used by shopkeepers, or is located next to a directly used
+	// container and might therefore form a double chest with it.
+	private static final class ContainerEntry {
+
+		// The shopkeepers directly using the container at this position. Null if there are none.
+		private List<PlayerShopkeeper> shopkeepers = null;
+		// The bitmask of the adjacent horizontal positions that contain directly used containers. These are the
+		// potential double chest halves of this block position.
+		private int connectedFaces = 0;
+
+		// The cached item movement protection result, and the time (in nanoseconds) at which it was cached:
+		private byte cachedItemMovementProtection = ITEM_MOVEMENT_PROTECTION_UNKNOWN;
+		private long cachedItemMovementProtectionTime;
+
+		boolean isEmpty() {
+			return (shopkeepers == null && connectedFaces == 0);
+		}
+	}
+
+	/**
+	 * The duration (in nanoseconds) for which container related states, such as the item movement protection results
+	 * and the container inventories of player shops, are cached.
+	 * <p>
+	 * Some block changes (eg. by other plugins) are not covered by any events, so these caches also expire after this
+	 * short duration.
+	 */
+	public static final long CONTAINER_CACHE_DURATION_NANOS = TimeUnit.SECONDS.toNanos(2);
+	private static final byte ITEM_MOVEMENT_PROTECTION_UNKNOWN = 0;
+	private static final byte ITEM_MOVEMENT_PROTECTED = 1;
+	private static final byte ITEM_MOVEMENT_UNPROTECTED = 2;
 
 	private final SKShopkeepersPlugin plugin;
 	private final ContainerProtectionListener containerProtectionListener = new ContainerProtectionListener(this);
 	private final InventoryMoveItemListener inventoryMoveItemListener = new InventoryMoveItemListener(this);
-	private final Map<BlockLocation, List<PlayerShopkeeper>> protectedContainers = new HashMap<>();
+	private final ContainerChangeListener containerChangeListener = new ContainerChangeListener(this);
+	// World name -> chunk key -> block key -> entry
+	// Lookups for block positions in chunks without any shop containers only require a single map miss, and do not
+	// allocate any key objects.
+	private final Map<String, LongObjectHashMap<LongObjectHashMap<ContainerEntry>>> protectedContainers = new HashMap<>();
+
+	private long itemMovementProtectionCacheHits = 0L;
+	private long itemMovementProtectionCacheMisses = 0L;
 
 	public ProtectedContainers(SKShopkeepersPlugin plugin) {
 		this.plugin = plugin;
 	}
 
 	public void enable() {
+		Bukkit.getPluginManager().registerEvents(containerChangeListener, plugin);
 		if (Settings.protectContainers) {
 			Bukkit.getPluginManager().registerEvents(containerProtectionListener, plugin);
 			if (Settings.preventItemMovement) {
@@ -86,50 +145,278 @@ public class ProtectedContainers {
 		// Cleanup:
 		HandlerList.unregisterAll(containerProtectionListener);
 		HandlerList.unregisterAll(inventoryMoveItemListener);
+		HandlerList.unregisterAll(containerChangeListener);
 		protectedContainers.clear();
+		itemMovementProtectionCacheHits = 0L;
+		itemMovementProtectionCacheMisses = 0L;
 	}
 
-	private BlockLocation createKey(String worldName, int x, int y, int z) {
-		return new BlockLocation(worldName, x, y, z);
+	private ContainerEntry getEntry(String worldName, int x, int y, int z) {
+		LongObjectHashMap<LongObjectHashMap<ContainerEntry>> worldContainers = protectedContainers.get(worldName);
+		if (worldContainers == null) return null;
+		LongObjectHashMap<ContainerEntry> chunkContainers = worldContainers.get(PackedCoordinates.chunkKeyOfBlock(x, z));
+		if (chunkContainers == null) return null;
+		return chunkContainers.get(PackedCoordinates.blockKey(x, y, z));
+	}
+
+	private ContainerEntry getOrCreateEntry(String worldName, int x, int y, int z) {
+		LongObjectHashMap<LongObjectHashMap<ContainerEntry>> worldContainers = protectedContainers.computeIfAbsent(worldName, k -> new LongObjectHashMap<>());
+		long chunkKey = PackedCoordinates.chunkKeyOfBlock(x, z);
+		LongObjectHashMap<ContainerEntry> chunkContainers = worldContainers.get(chunkKey);
+		if (chunkContainers == null) {
+			chunkContainers = new LongObjectHashMap<>();
+			worldContainers.put(chunkKey, chunkContainers);
+		}
+		long blockKey = PackedCoordinates.blockKey(x, y, z);
+		ContainerEntry entry = chunkContainers.get(blockKey);
+		if (entry == null) {
+			entry = new ContainerEntry();
+			chunkContainers.put(blockKey, entry);
+		}
+		return entry;
 	}
 
-	private BlockLocation getSharedKey(String worldName, int x, int y, int z) {
-		sharedBlockLocation.set(worldName, x, y, z);
-		return sharedBlockLocation;
+	// Removes the entry if it is empty:
+	private void cleanupEntry(String worldName, int x, int y, int z, ContainerEntry entry) {
+		if (!entry.isEmpty()) return;
+		LongObjectHashMap<LongObjectHashMap<ContainerEntry>> worldContainers = protectedContainers.get(worldName);
+		if (worldContainers == null) return;
+		long chunkKey = PackedCoordinates.chunkKeyOfBlock(x, z);
+		LongObjectHashMap<ContainerEntry> chunkContainers = worldContainers.get(chunkKey);
+		if (chunkContainers == null) return;
+		chunkContainers.remove(PackedCoordinates.blockKey(x, y, z));
+		if (chunkContainers.isEmpty()) {
+			worldContainers.remove(chunkKey);
+			if (worldContainers.isEmpty()) {
+				protectedContainers.remove(worldName);
+			}
+		}
 	}
 
 	public void addContainer(String worldName, int x, int y, int z, PlayerShopkeeper shopkeeper) {
 		Validate.notNull(shopkeeper, "shopkeeper is null");
-		BlockLocation key = this.createKey(worldName, x, y, z);
-		List<PlayerShopkeeper> shopkeepers = protectedContainers.computeIfAbsent(key, k -> new ArrayList<>(1));
-		shopkeepers.add(shopkeeper);
+		ContainerEntry entry = this.getOrCreateEntry(worldName, x, y, z);
+		if (entry.shopkeepers == null) {
+			entry.shopkeepers = new ArrayList<>(1);
+			// Mark this container as potential double chest half in the entries of the adjacent block positions:
+			for (BlockFace face : CHEST_SIDES) {
+				ContainerEntry adjacentEntry = this.getOrCreateEntry(worldName, x + face.getModX(), y, z + face.getModZ());
+				adjacentEntry.connectedFaces |= getFaceBit(face.getOppositeFace());
+			}
+		}
+		entry.shopkeepers.add(shopkeeper);
+		this.invalidateCachedItemMovementProtection(worldName, x, y, z);
 	}
 
 	public void removeContainer(String worldName, int x, int y, int z, PlayerShopkeeper shopkeeper) {
 		Validate.notNull(shopkeeper, "shopkeeper is null");
-		BlockLocation key = this.getSharedKey(worldName, x, y, z);
-		// Note: We either update the value, or remove it. We don't insert a new value. The Map implementation removes
-		// the corresponding node or updates its value. It does not store the provided key in either of these cases. We
-		// can therefore safely use the shared key here.
-		protectedContainers.computeIfPresent(key, (k, shopkeepers) -> {
-			shopkeepers.remove(shopkeeper);
-			if (shopkeepers.isEmpty()) {
-				return null; // Removes the mapping
-			} else {
-				return shopkeepers; // Keeps the mapping
+		ContainerEntry entry = this.getEntry(worldName, x, y, z);
+		if (entry == null || entry.shopkeepers == null) return;
+		entry.shopkeepers.remove(shopkeeper);
+		if (!entry.shopkeepers.isEmpty()) {
+			this.invalidateCachedItemMovementProtection(worldName, x, y, z);
+			return;
+		}
+
+		entry.shopkeepers = null;
+		this.cleanupEntry(worldName, x, y, z, entry);
+		// Update the entries of the adjacent block positions:
+		for (BlockFace face : CHEST_SIDES) {
+			int adjacentX = x + face.getModX();
+			int adjacentZ = z + face.getModZ();
+			ContainerEntry adjacentEntry = this.getEntry(worldName, adjacentX, y, adjacentZ);
+			if (adjacentEntry == null) continue; // Not expected
+			adjacentEntry.connectedFaces &= ~getFaceBit(face.getOppositeFace());
+			this.cleanupEntry(worldName, adjacentX, y, adjacentZ, adjacentEntry);
+		}
+		this.invalidateCachedItemMovementProtection(worldName, x, y, z);
+	}
+
+	/**
+	 * Quickly checks if the container at the specified location might be protected, without accessing the block.
+	 * <p>
+	 * This returns <code>true</code> if the specified block position is either directly used by shopkeepers, or if
+	 * it is located next to a directly used container and might therefore be protected as part of a double chest. For
+	 * all other block positions, {@link #isContainerProtected(Block, Player)} is guaranteed to return
+	 * <code>false</code>.
+	 * 
+	 * @param worldName
+	 *            the world name
+	 * @param x
+	 *            the block x coordinate
+	 * @param y
+	 *            the block y coordinate
+	 * @param z
+	 *            the block z coordinate
+	 * @return <code>true</code> if the container might be protected
+	 */
+	public boolean isProtectionCandidate(String worldName, int x, int y, int z) {
+		return (this.getEntry(worldName, x, y, z) != null);
+	}
+
+	// ITEM MOVEMENT PROTECTION
+
+	/**
+	 * Checks if the inventory of the container at the specified location is protected against item movement (eg. by
+	 * hoppers).
+	 * <p>
+	 * This takes connected chests into account and checks if the block is actually a supported shop container, but
+	 * does not take any players into account.
+	 * <p>
+	 * For block positions that are neither used by shopkeepers nor located next to a shop container, this does not
+	 * access the block. For other block positions, the result is cached for a short duration. The cached result is
+	 * invalidated when containers are added or removed, and should be invalidated via
+	 * {@link #invalidateCachedItemMovementProtection(String, int, int, int)} when blocks are changed.
+	 * 
+	 * @param world
+	 *            the world, not <code>null</code>
+	 * @param x
+	 *            the block x coordinate
+	 * @param y
+	 *            the block y coordinate
+	 * @param z
+	 *            the block z coordinate
+	 * @return <code>true</code> if the container is protected against item movement
+	 */
+	public boolean isItemMovementProtected(World world, int x, int y, int z) {
+		ContainerEntry entry = this.getEntry(world.getName(), x, y, z);
+		if (entry == null) return false;
+
+		long now = System.nanoTime();
+		if (entry.cachedItemMovementProtection != ITEM_MOVEMENT_PROTECTION_UNKNOWN
+				&& (now - entry.cachedItemMovementProtectionTime) < CONTAINER_CACHE_DURATION_NANOS) {
+			itemMovementProtectionCacheHits++;
+			return (entry.cachedItemMovementProtection == ITEM_MOVEMENT_PROTECTED);
+		}
+		itemMovementProtectionCacheMisses++;
+
+		Block block = world.getBlockAt(x, y, z); // not null
+		// Also checks for protected connected chests (double chests):
+		boolean result = ShopContainers.isSupportedContainer(block.getType()) && this.isContainerProtected(block, null);
+		entry.cachedItemMovementProtection = result ? ITEM_MOVEMENT_PROTECTED : ITEM_MOVEMENT_UNPROTECTED;
+		entry.cachedItemMovementProtectionTime = now;
+		return result;
+	}
+
+	/**
+	 * Invalidates the cached item movement protection results for the specified block position and its adjacent
+	 * potential double chest halves.
+	 * 
+	 * @param worldName
+	 *            the world name
+	 * @param x
+	 *            the block x coordinate
+	 * @param y
+	 *            the block y coordinate
+	 * @param z
+	 *            the block z coordinate
+	 */
+	public void invalidateCachedItemMovementProtection(String worldName, int x, int y, int z) {
+		this.invalidateCachedItemMovementProtection(this.getEntry(worldName, x, y, z));
+		for (BlockFace face : CHEST_SIDES) {
+			this.invalidateCachedItemMovementProtection(this.getEntry(worldName, x + face.getModX(), y, z + face.getModZ()));
+		}
+	}
+
+	private void invalidateCachedItemMovementProtection(ContainerEntry entry) {
+		if (entry == null) return;
+		entry.cachedItemMovementProtection = ITEM_MOVEMENT_PROTECTION_UNKNOWN;
+	}
+
+	public long getItemMovementProtectionCacheHits() {
+		return itemMovementProtectionCacheHits;
+	}
+
+	public long getItemMovementProtectionCacheMisses() {
+		return itemMovementProtectionCacheMisses;
+	}
+
+	// CACHED CONTAINER INVENTORIES
+
+	private static void invalidateContainerCaches(ContainerEntry entry) {
+		if (entry == null || entry.shopkeepers == null) return;
+		for (PlayerShopkeeper shopkeeper : entry.shopkeepers) {
+			((AbstractPlayerShopkeeper) shopkeeper).invalidateContainerCache();
+		}
+	}
+
+	/**
+	 * Invalidates the cached container inventories of the shopkeepers using the container at the specified block
+	 * position or any of its adjacent potential double chest halves.
+	 * 
+	 * @param worldName
+	 *            the world name
+	 * @param x
+	 *            the block x coordinate
+	 * @param y
+	 *            the block y coordinate
+	 * @param z
+	 *            the block z coordinate
+	 */
+	public void invalidateContainerCaches(String worldName, int x, int y, int z) {
+		ContainerEntry entry = this.getEntry(worldName, x, y, z);
+		if (entry == null) return; // Not affecting any shop containers
+		invalidateContainerCaches(entry);
+		for (BlockFace face : CHEST_SIDES) {
+			invalidateContainerCaches(this.getEntry(worldName, x + face.getModX(), y, z + face.getModZ()));
+		}
+	}
+
+	/**
+	 * Invalidates the cached container inventories of the shopkeepers using containers inside the specified chunk,
+	 * including the containers that might form double chests with chests inside the chunk.
+	 * 
+	 * @param worldName
+	 *            the world name
+	 * @param chunkX
+	 *            the chunk x coordinate
+	 * @param chunkZ
+	 *            the chunk z coordinate
+	 */
+	public void invalidateContainerCachesInChunk(String worldName, int chunkX, int chunkZ) {
+		LongObjectHashMap<LongObjectHashMap<ContainerEntry>> worldContainers = protectedContainers.get(worldName);
+		if (worldContainers == null) return;
+		LongObjectHashMap<ContainerEntry> chunkContainers = worldContainers.get(PackedCoordinates.chunkKey(chunkX, chunkZ));
+		if (chunkContainers == null) return;
+		chunkContainers.forEachValue(entry -> {
+			invalidateContainerCaches(entry);
+			if (entry.connectedFaces != 0) {
+				// Double chest halves might be located in adjacent chunks. Since the entry does not know its own
+				// position, we invalidate all containers in the adjacent chunks:
+				for (BlockFace face : CHEST_SIDES) {
+					if ((entry.connectedFaces & getFaceBit(face)) == 0) continue;
+					LongObjectHashMap<ContainerEntry> adjacentChunkContainers = worldContainers.get(PackedCoordinates.chunkKey(chunkX + face.getModX(), chunkZ + face.getModZ()));
+					if (adjacentChunkContainers == null) continue;
+					adjacentChunkContainers.forEachValue(ProtectedContainers::invalidateContainerCaches);
+				}
 			}
 		});
 	}
 
-	// Gets the shopkeepers which are directly using the container at the specified location:
-	private List<PlayerShopkeeper> _getShopkeepers(String worldName, int x, int y, int z) {
-		BlockLocation key = this.getSharedKey(worldName, x, y, z);
-		return protectedContainers.get(key);
+	/**
+	 * Invalidates the cached container worlds and inventories of the shopkeepers using containers in the specified
+	 * world.
+	 * 
+	 * @param worldName
+	 *            the world name
+	 */
+	public void invalidateContainerCachesInWorld(String worldName) {
+		LongObjectHashMap<LongObjectHashMap<ContainerEntry>> worldContainers = protectedContainers.get(worldName);
+		if (worldContainers == null) return;
+		worldContainers.forEachValue(chunkContainers -> chunkContainers.forEachValue(entry -> {
+			if (entry.shopkeepers == null) return;
+			for (PlayerShopkeeper shopkeeper : entry.shopkeepers) {
+				((AbstractPlayerShopkeeper) shopkeeper).invalidateContainerWorldCache();
+			}
+		}));
 	}
 
-	// Gets the shopkeepers which are directly using the specified container block:
-	private List<PlayerShopkeeper> _getShopkeepers(Block block) {
-		return this._getShopkeepers(block.getWorld().getName(), block.getX(), block.getY(), block.getZ());
+	//
+
+	// Gets the shopkeepers which are directly using the container at the specified location:
+	private List<PlayerShopkeeper> _getShopkeepers(String worldName, int x, int y, int z) {
+		ContainerEntry entry = this.getEntry(worldName, x, y, z);
+		return (entry == null) ? null : entry.shopkeepers;
 	}
 
 	// Gets the shopkeepers which are directly using the container at the specified location:
@@ -251,29 +538,39 @@ public class ProtectedContainers {
 			results = new ArrayList<>();
 		}
 
+		String worldName = containerBlock.getWorld().getName();
+		int x = containerBlock.getX();
+		int y = containerBlock.getY();
+		int z = containerBlock.getZ();
+		ContainerEntry entry = this.getEntry(worldName, x, y, z);
+		if (entry == null) {
+			// The block is neither directly used by shopkeepers, nor located next to a directly used container:
+			return results;
+		}
+
 		// Check if the block is directly used by shopkeepers:
-		List<PlayerShopkeeper> shopkeepers = this._getShopkeepers(containerBlock);
-		if (shopkeepers != null) {
-			assert !shopkeepers.isEmpty();
-			results.addAll(shopkeepers);
+		if (entry.shopkeepers != null) {
+			assert !entry.shopkeepers.isEmpty();
+			results.addAll(entry.shopkeepers);
 		}
 
 		// If the block actually is a chest, check for a connected chest:
-		Material chestType = containerBlock.getType();
-		if (ItemUtils.isChest(chestType)) {
-			Chest chestData = (Chest) containerBlock.getBlockData();
-			BlockFace chestFacing = chestData.getFacing();
-			BlockFace connectedFace = getConnectedBlockFace(chestFacing, chestData.getType());
-			if (connectedFace != null) {
-				Block connectedChest = containerBlock.getRelative(connectedFace);
-				// In case of inconsistency of the block data (i.e. connected chest missing or not mutually connected),
-				// we consider the block to be connected (and by that protected) anyways, because such inconsistencies
-				// might also occur during handling of block placements.
-				// Minecraft determines double chests by these consistency criteria:
-				// Same chest type, same facing, opposite chest type (opposite connected block faces)
-				shopkeepers = this._getShopkeepers(connectedChest);
-				if (shopkeepers != null) {
-					results.addAll(shopkeepers);
+		if (entry.connectedFaces != 0) {
+			Material chestType = containerBlock.getType();
+			if (ItemUtils.isChest(chestType)) {
+				Chest chestData = (Chest) containerBlock.getBlockData();
+				BlockFace chestFacing = chestData.getFacing();
+				BlockFace connectedFace = getConnectedBlockFace(chestFacing, chestData.getType());
+				if (connectedFace != null && (entry.connectedFaces & getFaceBit(connectedFace)) != 0) {
+					// In case of inconsistency of the block data (i.e. connected chest missing or not mutually
+					// connected), we consider the block to be connected (and by that protected) anyways, because such
+					// inconsistencies might also occur during handling of block placements.
+					// Minecraft determines double chests by these consistency criteria:
+					// Same chest type, same facing, opposite chest type (opposite connected block faces)
+					List<PlayerShopkeeper> shopkeepers = this._getShopkeepers(worldName, x + connectedFace.getModX(), y, z + connectedFace.getModZ());
+					if (shopkeepers != null) {
+						results.addAll(shopkeepers);
+					}
 				}
 			}
 		}
@@ -33,6 +33,9 @@ public final class DebugOptions {
 	// Logs whenever we explicitly convert items to Spigot's data format. Note that this does not log when items get
 	// implicitly converted, which may happen under various circumstances.
 	public static final String itemConversions = add("item-conversions");
+	// Logs the results and durations of the interaction checks that call test events, as well as the plugins that
+	// listen for these events.
+	public static final String interactionChecks = add("interaction-checks");
 
 	private static String add(String debugOption) {
 		allOptions.add(debugOption);
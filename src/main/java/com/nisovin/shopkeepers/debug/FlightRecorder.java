@@ -0,0 +1,288 @@
+package com.nisovin.shopkeepers.debug;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+
+import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
+import com.nisovin.shopkeepers.util.FileUtils;
+import com.nisovin.shopkeepers.util.Log;
+import com.nisovin.shopkeepers.util.ThrowableUtils;
+import com.nisovin.shopkeepers.util.Validate;
+
+/**
+ * Keeps track of the most recent trade, UI, and storage events in a fixed-size ring buffer.
+ * <p>
+ * Recording an event only writes into preallocated arrays and does not allocate any objects. The recorder is therefore
+ * always active, and its contents can be dumped to a file on demand, or automatically when a trade check fails
+ * unexpectedly, in order to debug issues that are hard to reproduce. Only the most recent dump files are kept.
+ * <p>
+ * The recorder is only meant to be accessed from the server's main thread.
+ */
+public class FlightRecorder {
+
+	public enum Category {
+		TRADE,
+		UI,
+		STORAGE;
+	}
+
+	public enum Phase {
+		// A trade is checked for the clicked result slot.
+		TRADE_CHECK(Category.TRADE),
+		// The shopkeeper prepares the trade.
+		TRADE_PREPARE(Category.TRADE),
+		// The trade event is called.
+		TRADE_EVENT(Category.TRADE),
+		// The trade is applied.
+		TRADE_APPLY(Category.TRADE),
+		UI_OPEN(Category.UI),
+		UI_CLOSE(Category.UI),
+		SAVE_START(Category.STORAGE),
+		SAVE_END(Category.STORAGE);
+
+		private final Category category;
+
+		private Phase(Category category) {
+			this.category = category;
+		}
+
+		public Category getCategory() {
+			return category;
+		}
+	}
+
+	public enum Outcome {
+		SUCCESS,
+		FAILURE,
+		// Cancelled by some plugin.
+		CANCELLED,
+		// Aborted by the shopkeeper.
+		ABORTED,
+		NO_RESULT_ITEM,
+		UNKNOWN_RECIPE,
+		RESULT_ITEM_MISMATCH,
+		OFFERED_ITEMS_MISMATCH,
+		ITEMS_NOT_STRICTLY_MATCHING;
+	}
+
+	private static final int CAPACITY = 4096;
+	private static final String DUMP_FOLDER = "debug";
+	private static final String DUMP_FILE_PREFIX = "flight-recorder-";
+	private static final String DUMP_FILE_EXTENSION = ".log";
+	private static final DateTimeFormatter FILE_NAME_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd_HH-mm-ss-SSS")
+			.withZone(ZoneId.systemDefault());
+	// Older dump files are deleted:
+	private static final int MAX_DUMP_FILES = 10;
+	private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ofPattern("HH:mm:ss.SSS")
+			.withZone(ZoneId.systemDefault());
+	// Automatic dumps are throttled:
+	private static final long AUTOMATIC_DUMP_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+	private final Plugin plugin;
+	private final Path dumpFolder;
+
+	// Ring buffer:
+	private final long[] timestamps = new long[CAPACITY];
+	private final Phase[] phases = new Phase[CAPACITY];
+	private final Outcome[] outcomes = new Outcome[CAPACITY];
+	private final String[] playerNames = new String[CAPACITY];
+	private final int[] shopkeeperIds = new int[CAPACITY];
+	private int next = 0; // Index of the next event
+	private int size = 0;
+
+	private long lastAutomaticDumpMillis = 0L;
+	// Distinguishes dumps within the same millisecond:
+	private int dumpCounter = 0;
+
+	public FlightRecorder(Plugin plugin) {
+		Validate.notNull(plugin, "plugin is null");
+		this.plugin = plugin;
+		this.dumpFolder = plugin.getDataFolder().toPath().resolve(DUMP_FOLDER);
+	}
+
+	public void onDisable() {
+		this.clear();
+		lastAutomaticDumpMillis = 0L;
+	}
+
+	/**
+	 * Removes all recorded events.
+	 */
+	public void clear() {
+		// Release the references to the player names:
+		for (int i = 0; i < CAPACITY; i++) {
+			playerNames[i] = null;
+		}
+		next = 0;
+		size = 0;
+	}
+
+	/**
+	 * Gets the number of currently recorded events.
+	 *
+	 * @return the number of recorded events
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Records an event.
+	 *
+	 * @param phase
+	 *            the phase, not <code>null</code>
+	 * @param player
+	 *            the involved player, can be <code>null</code>
+	 * @param shopkeeper
+	 *            the involved shopkeeper, can be <code>null</code>
+	 * @param outcome
+	 *            the outcome, not <code>null</code>
+	 */
+	public void record(Phase phase, Player player, Shopkeeper shopkeeper, Outcome outcome) {
+		this.record(phase, (player != null) ? player.getName() : null, (shopkeeper != null) ? shopkeeper.getId() : -1, outcome);
+	}
+
+	/**
+	 * Records an event.
+	 *
+	 * @param phase
+	 *            the phase, not <code>null</code>
+	 * @param playerName
+	 *            the name of the involved player, can be <code>null</code>
+	 * @param shopkeeperId
+	 *            the id of the involved shopkeeper, or <code>-1</code>
+	 * @param outcome
+	 *            the outcome, not <code>null</code>
+	 */
+	public void record(Phase phase, String playerName, int shopkeeperId, Outcome outcome) {
+		assert phase != null && outcome != null;
+		int index = next;
+		timestamps[index] = System.currentTimeMillis();
+		phases[index] = phase;
+		outcomes[index] = outcome;
+		playerNames[index] = playerName;
+		shopkeeperIds[index] = shopkeeperId;
+		next = (index + 1) % CAPACITY;
+		if (size < CAPACITY) size++;
+	}
+
+	/**
+	 * Records a trade that got aborted unexpectedly and automatically dumps the recorded events, unless there has
+	 * already been an automatic dump recently.
+	 * <p>
+	 * This is only meant for trade check failures that indicate an issue, such as mismatching trading recipes, and
+	 * not for trades that got aborted for routine reasons, such as a shop being out of stock.
+	 *
+	 * @param phase
+	 *            the trade phase, not <code>null</code>
+	 * @param player
+	 *            the trading player, can be <code>null</code>
+	 * @param shopkeeper
+	 *            the shopkeeper, can be <code>null</code>
+	 * @param outcome
+	 *            the outcome, not <code>null</code>
+	 */
+	public void recordAbortedTrade(Phase phase, Player player, Shopkeeper shopkeeper, Outcome outcome) {
+		this.record(phase, player, shopkeeper, outcome);
+
+		long now = System.currentTimeMillis();
+		if (Math.abs(now - lastAutomaticDumpMillis) < AUTOMATIC_DUMP_INTERVAL_MILLIS) return;
+		lastAutomaticDumpMillis = now;
+		this.dump();
+	}
+
+	/**
+	 * Writes the currently recorded events asynchronously to a new file inside the plugin's debug folder.
+	 * <p>
+	 * While the plugin is disabled or being disabled, no asynchronous tasks can be started, and the events are instead
+	 * written synchronously.
+	 * <p>
+	 * Only the {@value #MAX_DUMP_FILES} most recent dump files are kept.
+	 *
+	 * @return the file that the events are written to
+	 */
+	public Path dump() {
+		// Format the events on the main thread, since the ring buffer is not thread-safe:
+		List<String> lines = this.formatEvents();
+		String fileName = DUMP_FILE_PREFIX + FILE_NAME_FORMAT.format(Instant.now()) + "-" + (dumpCounter++) + DUMP_FILE_EXTENSION;
+		Path dumpFile = dumpFolder.resolve(fileName);
+		if (plugin.isEnabled()) {
+			Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> this.writeDump(dumpFile, lines));
+		} else {
+			this.writeDump(dumpFile, lines);
+		}
+		return dumpFile;
+	}
+
+	// This is usually called asynchronously.
+	private void writeDump(Path dumpFile, List<String> lines) {
+		try {
+			FileUtils.createParentDirectories(dumpFile);
+			Files.write(dumpFile, lines, StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			Log.warning("Could not write the flight recorder dump to " + dumpFile + ": "
+					+ ThrowableUtils.getDescription(e));
+			return;
+		}
+		this.deleteOldDumps();
+	}
+
+	// This is usually called asynchronously.
+	private void deleteOldDumps() {
+		List<Path> dumpFiles = new ArrayList<>();
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(dumpFolder, DUMP_FILE_PREFIX + "*" + DUMP_FILE_EXTENSION)) {
+			stream.forEach(dumpFiles::add);
+		} catch (IOException e) {
+			Log.warning("Could not list the flight recorder dumps in " + dumpFolder + ": "
+					+ ThrowableUtils.getDescription(e));
+			return;
+		}
+		if (dumpFiles.size() <= MAX_DUMP_FILES) return;
+
+		// The file names start with their timestamp, so the oldest dumps are sorted first:
+		Collections.sort(dumpFiles, (file1, file2) -> file1.getFileName().toString().compareTo(file2.getFileName().toString()));
+		for (Path dumpFile : dumpFiles.subList(0, dumpFiles.size() - MAX_DUMP_FILES)) {
+			try {
+				Files.deleteIfExists(dumpFile);
+			} catch (IOException e) {
+				Log.warning("Could not delete the old flight recorder dump " + dumpFile + ": "
+						+ ThrowableUtils.getDescription(e));
+			}
+		}
+	}
+
+	private List<String> formatEvents() {
+		List<String> lines = new ArrayList<>(size);
+		int start = (next - size + CAPACITY) % CAPACITY;
+		for (int i = 0; i < size; i++) {
+			int index = (start + i) % CAPACITY;
+			Phase phase = phases[index];
+			StringBuilder sb = new StringBuilder(80);
+			sb.append(TIMESTAMP_FORMAT.format(Instant.ofEpochMilli(timestamps[index])));
+			sb.append(" [").append(phase.getCategory()).append("] ").append(phase);
+			sb.append(" outcome=").append(outcomes[index]);
+			if (playerNames[index] != null) {
+				sb.append(" player=").append(playerNames[index]);
+			}
+			if (shopkeeperIds[index] != -1) {
+				sb.append(" shopkeeper=").append(shopkeeperIds[index]);
+			}
+			lines.add(sb.toString());
+		}
+		return lines;
+	}
+}
@@ -0,0 +1,89 @@
+package com.nisovin.shopkeepers.itemconversion;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import com.nisovin.shopkeepers.util.ItemUtils;
+import com.nisovin.shopkeepers.util.annotations.ReadOnly;
+
+/**
+ * Remembers items that are known to already be in converted form, so that their conversion can be skipped.
+ * <p>
+ * Items are looked up by a fingerprint of their type and item meta. Since different items can share the same
+ * fingerprint, a cached item is only considered a match if it is also {@link ItemStack#isSimilar(ItemStack) similar}
+ * to the looked up item. Comparing the items is a lot cheaper than converting them, which requires serializing and
+ * deserializing their item meta.
+ * <p>
+ * The cache is bounded and evicts the least recently used entries.
+ */
+class ConvertedItemsCache {
+
+	private static final int MAX_SIZE = 1024;
+
+	// Fingerprint -> item in converted form (with an amount of 1)
+	private final Map<Integer, ItemStack> convertedItems = new LinkedHashMap<Integer, ItemStack>(16, 0.75F, true) {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Integer, ItemStack> eldest) {
+			return this.size() > MAX_SIZE;
+		}
+	};
+	private long hits = 0L;
+	private long misses = 0L;
+
+	ConvertedItemsCache() {
+	}
+
+	private static int getFingerprint(@ReadOnly ItemStack itemStack) {
+		// Ignores the stack size:
+		ItemMeta itemMeta = itemStack.getItemMeta(); // Can be null
+		return itemStack.getType().hashCode() * 31 + ((itemMeta != null) ? itemMeta.hashCode() : 0);
+	}
+
+	/**
+	 * Converts the given item, unless it is known to already be in converted form.
+	 *
+	 * @param itemStack
+	 *            the item stack, can be <code>null</code>
+	 * @return the converted item stack, or the given item stack if it is already in converted form
+	 * @see ItemUtils#convertItem(ItemStack)
+	 */
+	ItemStack convertItem(@ReadOnly ItemStack itemStack) {
+		if (itemStack == null) return null;
+		int fingerprint = getFingerprint(itemStack);
+		ItemStack cachedItem = convertedItems.get(fingerprint);
+		if (cachedItem != null && cachedItem.isSimilar(itemStack)) {
+			hits++;
+			return itemStack;
+		}
+
+		misses++;
+		ItemStack convertedItem = ItemUtils.convertItem(itemStack);
+		// The converted item might have a different fingerprint:
+		int convertedFingerprint = (convertedItem == itemStack) ? fingerprint : getFingerprint(convertedItem);
+		ItemStack cacheEntry = convertedItem.clone();
+		cacheEntry.setAmount(1);
+		convertedItems.put(convertedFingerprint, cacheEntry);
+		return convertedItem;
+	}
+
+	void clear() {
+		convertedItems.clear();
+	}
+
+	int getSize() {
+		return convertedItems.size();
+	}
+
+	long getHits() {
+		return hits;
+	}
+
+	long getMisses() {
+		return misses;
+	}
+}
@@ -1,5 +1,7 @@
 package com.nisovin.shopkeepers.itemconversion;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.function.Predicate;
 
 import org.bukkit.Bukkit;
@@ -16,6 +18,7 @@ import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.container.ShopContainers;
 import com.nisovin.shopkeepers.debug.DebugOptions;
 import com.nisovin.shopkeepers.lang.Messages;
+import com.nisovin.shopkeepers.util.ItemData;
 import com.nisovin.shopkeepers.util.ItemUtils;
 import com.nisovin.shopkeepers.util.Log;
 import com.nisovin.shopkeepers.util.TextUtils;
@@ -25,23 +28,47 @@ public class ItemConversions {
 
 	private final ShopkeepersPlugin plugin;
 	private final ItemConversionListener listener = new ItemConversionListener();
+	private final ShopItemsConversion shopItemsConversion;
 
 	public ItemConversions(ShopkeepersPlugin plugin) {
 		assert plugin != null;
 		this.plugin = plugin;
+		this.shopItemsConversion = new ShopItemsConversion(plugin);
 	}
 
 	public void onEnable() {
 		Bukkit.getPluginManager().registerEvents(listener, plugin);
+		shopItemsConversion.onEnable();
 	}
 
 	public void onDisable() {
 		HandlerList.unregisterAll(listener);
+		shopItemsConversion.onDisable();
+		CONVERTED_ITEMS.clear();
+		convertedItemsExceptions = null;
+	}
+
+	public ShopItemsConversion getShopItemsConversion() {
+		return shopItemsConversion;
 	}
 
 	/////
 
-	private static final Predicate<ItemStack> NO_ITEMS_AFFECTED = new Predicate<ItemStack>() {
+	// Items that are known to already be in converted form:
+	private static final ConvertedItemsCache CONVERTED_ITEMS = new ConvertedItemsCache();
+	// The item conversion exceptions that the cache is valid for:
+	private static List<ItemData> convertedItemsExceptions = null;
+
+	private static ConvertedItemsCache getConvertedItemsCache() {
+		// Clear the cache whenever the item conversion exceptions have changed:
+		if (!Settings.convertPlayerItemsExceptions.equals(convertedItemsExceptions)) {
+			CONVERTED_ITEMS.clear();
+			convertedItemsExceptions = new ArrayList<>(Settings.convertPlayerItemsExceptions);
+		}
+		return CONVERTED_ITEMS;
+	}
+
+	static final Predicate<ItemStack> NO_ITEMS_AFFECTED = new Predicate<ItemStack>() {
 		@Override
 		public boolean test(ItemStack item) {
 			return false;
@@ -49,7 +76,8 @@ public class ItemConversions {
 	};
 
 	// Returns NO_ITEMS_AFFECTED if we can guarantee that no items are affected.
-	private static Predicate<ItemStack> affectedItemsFilter() {
+	// Also used by the shop items conversion.
+	static Predicate<ItemStack> affectedItemsFilter() {
 		if (Settings.convertAllPlayerItems) {
 			// Item exceptions is a blacklist:
 			return ItemUtils.matchingItems(Settings.convertPlayerItemsExceptions).negate();
@@ -63,6 +91,16 @@ public class ItemConversions {
 		}
 	}
 
+	/**
+	 * Checks if the '{@code convert-all-player-items}' and '{@code convert-player-items-exceptions}' settings affect any
+	 * items.
+	 * 
+	 * @return <code>true</code> if items might be affected by the item conversion
+	 */
+	public static boolean isAnyItemAffected() {
+		return (affectedItemsFilter() != NO_ITEMS_AFFECTED);
+	}
+
 	public static int convertAffectedItems(Player player, Shopkeeper shopkeeper, boolean informPlayer) {
 		Validate.notNull(player, "player is null");
 		Validate.notNull(shopkeeper, "shopkeeper is null");
@@ -124,7 +162,13 @@ public class ItemConversions {
 		Predicate<ItemStack> affectedItemsFilter = affectedItemsFilter();
 		if (affectedItemsFilter != NO_ITEMS_AFFECTED) {
 			// Convert items and update viewers if there have been changes:
-			convertedStacks = ItemUtils.convertItems(inventory, affectedItemsFilter, true);
+			// Skips items that are known to already be in converted form.
+			ConvertedItemsCache convertedItemsCache = getConvertedItemsCache();
+			convertedStacks = ItemUtils.convertItems(inventory, affectedItemsFilter, convertedItemsCache::convertItem, true);
+			Log.debug(DebugOptions.itemConversions,
+					() -> "Converted items cache: size=" + convertedItemsCache.getSize()
+							+ ", hits=" + convertedItemsCache.getHits() + ", misses=" + convertedItemsCache.getMisses()
+			);
 		}
 		return convertedStacks;
 	}
@@ -0,0 +1,494 @@
+package com.nisovin.shopkeepers.itemconversion;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.function.Predicate;
+
+import org.bukkit.Bukkit;
+import org.bukkit.ChatColor;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.command.CommandSender;
+import org.bukkit.configuration.InvalidConfigurationException;
+import org.bukkit.configuration.file.YamlConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.ItemStack;
+
+import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
+import com.nisovin.shopkeepers.api.shopkeeper.ShopkeeperRegistry;
+import com.nisovin.shopkeepers.api.shopkeeper.admin.regular.RegularAdminShopkeeper;
+import com.nisovin.shopkeepers.api.shopkeeper.offers.PriceOffer;
+import com.nisovin.shopkeepers.api.shopkeeper.offers.TradeOffer;
+import com.nisovin.shopkeepers.api.shopkeeper.player.PlayerShopkeeper;
+import com.nisovin.shopkeepers.api.shopkeeper.player.buy.BuyingPlayerShopkeeper;
+import com.nisovin.shopkeepers.api.shopkeeper.player.sell.SellingPlayerShopkeeper;
+import com.nisovin.shopkeepers.api.shopkeeper.player.trade.TradingPlayerShopkeeper;
+import com.nisovin.shopkeepers.api.util.ChunkCoords;
+import com.nisovin.shopkeepers.api.storage.ShopkeeperStorage;
+import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
+import com.nisovin.shopkeepers.container.ShopContainers;
+import com.nisovin.shopkeepers.util.FileUtils;
+import com.nisovin.shopkeepers.util.ItemUtils;
+import com.nisovin.shopkeepers.util.Log;
+import com.nisovin.shopkeepers.util.ThrowableUtils;
+import com.nisovin.shopkeepers.util.Validate;
+import com.nisovin.shopkeepers.util.taskqueue.BulkOperation;
+
+/**
+ * Converts the offer items and the shop container contents of all shopkeepers in the background.
+ * <p>
+ * Only the items that are affected by the '{@code convert-all-player-items}' and '{@code convert-player-items-exceptions}'
+ * settings are converted. This applies to the offers of all shops (including admin shops), the hire costs, and the
+ * contents of the shop containers.
+ * <p>
+ * The shopkeepers are processed chunk by chunk, sorted by world and chunk coordinates. Shop containers in chunks that
+ * are not loaded are only converted by briefly loading their chunk, and at most one such chunk is loaded per tick. The
+ * shopkeepers are saved in batches, and once each save has completed, the last processed chunk is written to a
+ * checkpoint file. The checkpoint is also written periodically when only few chunks contain items that need to be
+ * converted.
+ * If the conversion is stopped or interrupted, for example by a server restart, it continues after the last
+ * checkpoint the next time it is started. The conversion is automatically resumed when the plugin is enabled and a
+ * checkpoint exists.
+ */
+public class ShopItemsConversion {
+
+	private static final String CHECKPOINT_FILE = "data/shop-items-conversion.yml";
+	private static final int CHUNKS_PER_TICK = 10;
+	private static final double BUDGET_MILLIS = 10.0D;
+	// Batch size for the virtual shopkeepers, which are not located in any chunk:
+	private static final int VIRTUAL_SHOPKEEPERS_PER_ENTRY = 10;
+	// The number of chunks with converted shopkeepers after which the shopkeepers are saved:
+	private static final int SAVE_INTERVAL_CHUNKS = 100;
+	// The checkpoint is also written after this number of processed chunks, or after this duration, even if only few
+	// chunks contained converted shopkeepers:
+	private static final int CHECKPOINT_INTERVAL_CHUNKS = 1000;
+	private static final long CHECKPOINT_INTERVAL_MILLIS = 30000L;
+	private static final long PROGRESS_MESSAGE_INTERVAL_MILLIS = 10000L;
+
+	// The shopkeepers of one chunk, or a batch of virtual shopkeepers.
+	private static final class ChunkEntry {
+
+		private static final Comparator<ChunkEntry> ORDER = Comparator.comparing((ChunkEntry entry) -> entry.worldName)
+				.thenComparingInt(entry -> entry.chunkX)
+				.thenComparingInt(entry -> entry.chunkZ);
+
+		// Empty for virtual shopkeepers, which are processed first.
+		final String worldName;
+		// The batch index for virtual shopkeepers.
+		final int chunkX;
+		final int chunkZ;
+		final List<Shopkeeper> shopkeepers;
+
+		ChunkEntry(String worldName, int chunkX, int chunkZ, List<Shopkeeper> shopkeepers) {
+			this.worldName = worldName;
+			this.chunkX = chunkX;
+			this.chunkZ = chunkZ;
+			this.shopkeepers = shopkeepers;
+		}
+
+		boolean isVirtual() {
+			return worldName.isEmpty();
+		}
+	}
+
+	private class ConversionOperation extends BulkOperation<ChunkEntry> {
+
+		private final CommandSender sender; // Can be null
+		private final Predicate<ItemStack> affectedItemsFilter;
+		private int chunksSinceSave = 0; // Chunks with converted shopkeepers
+		private int chunksSinceCheckpoint = 0; // Processed chunks
+		private long lastCheckpointMillis = System.currentTimeMillis();
+		private ChunkEntry lastProcessed = null;
+		private ChunkEntry lastCheckpoint = null;
+		private long lastProgressMessageMillis = System.currentTimeMillis();
+
+		private int convertedShopkeepers = 0;
+		private int convertedContainerStacks = 0;
+		private int loadedChunks = 0;
+
+		ConversionOperation(CommandSender sender, List<ChunkEntry> chunkEntries, Predicate<ItemStack> affectedItemsFilter) {
+			super(plugin, chunkEntries, CHUNKS_PER_TICK, BUDGET_MILLIS);
+			this.sender = sender;
+			this.affectedItemsFilter = affectedItemsFilter;
+		}
+
+		@Override
+		protected boolean canProcessInCurrentExecution(ChunkEntry chunkEntry) {
+			// Limits chunk loads to one per tick:
+			return !requiresChunkLoad(chunkEntry);
+		}
+
+		@Override
+		protected void process(ChunkEntry chunkEntry) {
+			List<ChunkCoords> chunksToUnload = new ArrayList<>();
+			boolean dirty = false;
+			for (Shopkeeper shopkeeper : chunkEntry.shopkeepers) {
+				if (!shopkeeper.isValid()) continue; // Has been removed in the meantime
+				boolean offersConverted = convertOfferItems(shopkeeper, affectedItemsFilter);
+				if (offersConverted) {
+					convertedShopkeepers++;
+					dirty = true;
+				}
+				if (shopkeeper instanceof PlayerShopkeeper) {
+					convertedContainerStacks += convertContainerItems((PlayerShopkeeper) shopkeeper, affectedItemsFilter, chunksToUnload);
+				}
+			}
+
+			// Unload the chunks that we have loaded:
+			for (ChunkCoords chunkCoords : chunksToUnload) {
+				World world = Bukkit.getWorld(chunkCoords.getWorldName());
+				if (world != null) {
+					world.unloadChunkRequest(chunkCoords.getChunkX(), chunkCoords.getChunkZ());
+				}
+			}
+			loadedChunks += chunksToUnload.size();
+
+			lastProcessed = chunkEntry;
+			chunksSinceCheckpoint++;
+			if (dirty) {
+				chunksSinceSave++;
+			}
+			if (chunksSinceSave >= SAVE_INTERVAL_CHUNKS
+					|| chunksSinceCheckpoint >= CHECKPOINT_INTERVAL_CHUNKS
+					|| System.currentTimeMillis() - lastCheckpointMillis >= CHECKPOINT_INTERVAL_MILLIS) {
+				this.saveAndWriteCheckpoint();
+			}
+		}
+
+		private void saveAndWriteCheckpoint() {
+			chunksSinceSave = 0;
+			chunksSinceCheckpoint = 0;
+			lastCheckpointMillis = System.currentTimeMillis();
+			// The converted shopkeepers need to be saved before the checkpoint is written. Otherwise, the checkpoint
+			// might be ahead of the saved data after a server crash, and the conversion would skip these shopkeepers
+			// when it is resumed. If the save fails, the shopkeepers remain dirty and the save is attempted again with
+			// the next checkpoint.
+			if (!saveAndAwaitCompletion()) return;
+			if (lastProcessed != null && lastProcessed != lastCheckpoint) {
+				lastCheckpoint = lastProcessed;
+				writeCheckpoint(lastProcessed);
+			}
+		}
+
+		@Override
+		protected void onProgress() {
+			long now = System.currentTimeMillis();
+			if (now - lastProgressMessageMillis < PROGRESS_MESSAGE_INTERVAL_MILLIS) return;
+			lastProgressMessageMillis = now;
+			this.sendMessage(ChatColor.GRAY + "Shop items conversion: Processed " + ChatColor.YELLOW
+					+ this.getProcessedCount() + ChatColor.GRAY + " of " + ChatColor.YELLOW + this.getTotalCount()
+					+ ChatColor.GRAY + " chunks.");
+		}
+
+		@Override
+		protected void onCompleted() {
+			if (this.isCancelled()) {
+				// Keep the checkpoint so that the conversion can be resumed later:
+				this.saveAndWriteCheckpoint();
+			} else if (saveAndAwaitCompletion()) {
+				deleteCheckpoint();
+			}
+			operation = null;
+			this.sendMessage((this.isCancelled() ? ChatColor.YELLOW + "Stopped" : ChatColor.GREEN + "Completed")
+					+ " the shop items conversion after " + this.getProcessedCount() + " of " + this.getTotalCount()
+					+ " chunks: Converted the offers of " + convertedShopkeepers + " shopkeepers and "
+					+ convertedContainerStacks + " item stacks in shop containers (loaded " + loadedChunks
+					+ " chunks).");
+		}
+
+		private void sendMessage(String message) {
+			Log.info(ChatColor.stripColor(message));
+			if (sender instanceof Player && ((Player) sender).isOnline()) {
+				sender.sendMessage(message);
+			}
+		}
+	}
+
+	private final ShopkeepersPlugin plugin;
+	private final Path checkpointFile;
+	private ConversionOperation operation = null;
+
+	ShopItemsConversion(ShopkeepersPlugin plugin) {
+		assert plugin != null;
+		this.plugin = plugin;
+		this.checkpointFile = plugin.getDataFolder().toPath().resolve(CHECKPOINT_FILE);
+	}
+
+	void onEnable() {
+		if (Files.exists(checkpointFile)) {
+			// Resume the conversion once the shopkeepers have been loaded:
+			Bukkit.getScheduler().runTask(plugin, () -> {
+				if (this.isRunning()) return;
+				Log.info("Resuming the shop items conversion.");
+				this.start(null);
+			});
+		}
+	}
+
+	void onDisable() {
+		// Writes the checkpoint:
+		this.stop();
+	}
+
+	public boolean isRunning() {
+		return (operation != null);
+	}
+
+	public int getProcessedChunks() {
+		return (operation != null) ? operation.getProcessedCount() : 0;
+	}
+
+	public int getTotalChunks() {
+		return (operation != null) ? operation.getTotalCount() : 0;
+	}
+
+	/**
+	 * Starts the conversion, or continues it after the last checkpoint.
+	 *
+	 * @param sender
+	 *            the command sender that is informed about the progress, or <code>null</code>
+	 */
+	public void start(CommandSender sender) {
+		Validate.State.isTrue(!this.isRunning(), "The conversion is already running!");
+		Predicate<ItemStack> affectedItemsFilter = ItemConversions.affectedItemsFilter();
+		if (affectedItemsFilter == ItemConversions.NO_ITEMS_AFFECTED) {
+			// Keeps the checkpoint, if there is one:
+			Log.info("Not running the shop items conversion: No items are affected by the item conversion settings.");
+			return;
+		}
+
+		List<ChunkEntry> chunkEntries = this.getChunkEntries();
+		int totalCount = chunkEntries.size();
+		ChunkEntry checkpoint = this.readCheckpoint();
+		if (checkpoint != null) {
+			// Skip the chunks up to the checkpoint:
+			chunkEntries.removeIf(chunkEntry -> ChunkEntry.ORDER.compare(chunkEntry, checkpoint) <= 0);
+			Log.info("Continuing the shop items conversion after chunk " + checkpoint.worldName + ","
+					+ checkpoint.chunkX + "," + checkpoint.chunkZ + " (skipping " + (totalCount - chunkEntries.size())
+					+ " of " + totalCount + " chunks).");
+		}
+
+		operation = new ConversionOperation(sender, chunkEntries, affectedItemsFilter);
+		// Note: This may already complete the operation.
+		operation.start();
+	}
+
+	/**
+	 * Stops the conversion, if it is running.
+	 * <p>
+	 * The conversion continues after the last checkpoint the next time it is started.
+	 */
+	public void stop() {
+		if (operation != null) {
+			operation.cancel();
+		}
+	}
+
+	// Saves the shopkeepers if they are dirty, and blocks until the save has completed. Returns false if the shopkeepers
+	// could not be saved.
+	private boolean saveAndAwaitCompletion() {
+		ShopkeeperStorage shopkeeperStorage = plugin.getShopkeeperStorage();
+		shopkeeperStorage.saveIfDirtyAndAwaitCompletion();
+		if (shopkeeperStorage.isDirty()) {
+			Log.warning("Could not save the converted shopkeepers. Not updating the shop items conversion checkpoint.");
+			return false;
+		}
+		return true;
+	}
+
+	// Sorted by world and chunk coordinates:
+	private List<ChunkEntry> getChunkEntries() {
+		ShopkeeperRegistry shopkeeperRegistry = plugin.getShopkeeperRegistry();
+		List<ChunkEntry> chunkEntries = new ArrayList<>();
+
+		List<Shopkeeper> virtualShopkeepers = new ArrayList<>(shopkeeperRegistry.getVirtualShopkeepers());
+		for (int start = 0, batch = 0; start < virtualShopkeepers.size(); start += VIRTUAL_SHOPKEEPERS_PER_ENTRY, batch++) {
+			int end = Math.min(start + VIRTUAL_SHOPKEEPERS_PER_ENTRY, virtualShopkeepers.size());
+			chunkEntries.add(new ChunkEntry("", batch, 0, virtualShopkeepers.subList(start, end)));
+		}
+
+		for (String worldName : shopkeeperRegistry.getWorldsWithShopkeepers()) {
+			Map<ChunkCoords, ? extends Collection<? extends Shopkeeper>> shopkeepersByChunk = shopkeeperRegistry.getShopkeepersByChunks(worldName);
+			for (Entry<ChunkCoords, ? extends Collection<? extends Shopkeeper>> chunkEntry : shopkeepersByChunk.entrySet()) {
+				ChunkCoords chunkCoords = chunkEntry.getKey();
+				// Copied, since the shopkeepers of the chunk may change in the meantime:
+				List<Shopkeeper> shopkeepers = new ArrayList<>(chunkEntry.getValue());
+				chunkEntries.add(new ChunkEntry(worldName, chunkCoords.getChunkX(), chunkCoords.getChunkZ(), shopkeepers));
+			}
+		}
+		chunkEntries.sort(ChunkEntry.ORDER);
+		return chunkEntries;
+	}
+
+	private static boolean requiresChunkLoad(ChunkEntry chunkEntry) {
+		if (chunkEntry.isVirtual()) return false;
+		for (Shopkeeper shopkeeper : chunkEntry.shopkeepers) {
+			if (!(shopkeeper instanceof PlayerShopkeeper)) continue;
+			PlayerShopkeeper playerShopkeeper = (PlayerShopkeeper) shopkeeper;
+			World world = Bukkit.getWorld(chunkEntry.worldName);
+			if (world == null) return false; // Containers are skipped
+			if (!world.isChunkLoaded(playerShopkeeper.getContainerX() >> 4, playerShopkeeper.getContainerZ() >> 4)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	// CONVERSION
+
+	// Returns the same item if it has not changed, or if it is not affected by the item conversion.
+	private static UnmodifiableItemStack convertItem(UnmodifiableItemStack itemStack, Predicate<ItemStack> affectedItemsFilter) {
+		if (itemStack == null) return null;
+		ItemStack item = itemStack.asItemStack();
+		if (!affectedItemsFilter.test(item)) return itemStack;
+		ItemStack convertedItem = ItemUtils.convertItem(item);
+		if (ItemUtils.isSimilar(itemStack, convertedItem)) return itemStack;
+		return UnmodifiableItemStack.of(convertedItem);
+	}
+
+	// Returns null if no items have changed.
+	private static List<TradeOffer> convertTradeOffers(List<? extends TradeOffer> offers, Predicate<ItemStack> affectedItemsFilter) {
+		List<TradeOffer> convertedOffers = new ArrayList<>(offers.size());
+		boolean converted = false;
+		for (TradeOffer offer : offers) {
+			UnmodifiableItemStack resultItem = convertItem(offer.getResultItem(), affectedItemsFilter);
+			UnmodifiableItemStack item1 = convertItem(offer.getItem1(), affectedItemsFilter);
+			UnmodifiableItemStack item2 = convertItem(offer.getItem2(), affectedItemsFilter);
+			if (resultItem != offer.getResultItem() || item1 != offer.getItem1() || item2 != offer.getItem2()) {
+				convertedOffers.add(TradeOffer.create(resultItem, item1, item2));
+				converted = true;
+			} else {
+				convertedOffers.add(offer);
+			}
+		}
+		return converted ? convertedOffers : null;
+	}
+
+	// Returns null if no items have changed.
+	private static List<PriceOffer> convertPriceOffers(List<? extends PriceOffer> offers, Predicate<ItemStack> affectedItemsFilter) {
+		List<PriceOffer> convertedOffers = new ArrayList<>(offers.size());
+		boolean converted = false;
+		for (PriceOffer offer : offers) {
+			UnmodifiableItemStack item = convertItem(offer.getItem(), affectedItemsFilter);
+			if (item != offer.getItem()) {
+				convertedOffers.add(PriceOffer.create(item, offer.getPrice()));
+				converted = true;
+			} else {
+				convertedOffers.add(offer);
+			}
+		}
+		return converted ? convertedOffers : null;
+	}
+
+	// Returns true if any items have been converted.
+	private static boolean convertOfferItems(Shopkeeper shopkeeper, Predicate<ItemStack> affectedItemsFilter) {
+		boolean converted = false;
+		if (shopkeeper instanceof RegularAdminShopkeeper) {
+			RegularAdminShopkeeper adminShopkeeper = (RegularAdminShopkeeper) shopkeeper;
+			List<TradeOffer> convertedOffers = convertTradeOffers(adminShopkeeper.getOffers(), affectedItemsFilter);
+			if (convertedOffers != null) {
+				adminShopkeeper.setOffers(convertedOffers);
+				converted = true;
+			}
+		} else if (shopkeeper instanceof TradingPlayerShopkeeper) {
+			TradingPlayerShopkeeper tradingShopkeeper = (TradingPlayerShopkeeper) shopkeeper;
+			List<TradeOffer> convertedOffers = convertTradeOffers(tradingShopkeeper.getOffers(), affectedItemsFilter);
+			if (convertedOffers != null) {
+				tradingShopkeeper.setOffers(convertedOffers);
+				converted = true;
+			}
+		} else if (shopkeeper instanceof SellingPlayerShopkeeper) {
+			SellingPlayerShopkeeper sellingShopkeeper = (SellingPlayerShopkeeper) shopkeeper;
+			List<PriceOffer> convertedOffers = convertPriceOffers(sellingShopkeeper.getOffers(), affectedItemsFilter);
+			if (convertedOffers != null) {
+				sellingShopkeeper.setOffers(convertedOffers);
+				converted = true;
+			}
+		} else if (shopkeeper instanceof BuyingPlayerShopkeeper) {
+			BuyingPlayerShopkeeper buyingShopkeeper = (BuyingPlayerShopkeeper) shopkeeper;
+			List<PriceOffer> convertedOffers = convertPriceOffers(buyingShopkeeper.getOffers(), affectedItemsFilter);
+			if (convertedOffers != null) {
+				buyingShopkeeper.setOffers(convertedOffers);
+				converted = true;
+			}
+		}
+		// Book offers don't store any items.
+
+		if (shopkeeper instanceof PlayerShopkeeper) {
+			PlayerShopkeeper playerShopkeeper = (PlayerShopkeeper) shopkeeper;
+			UnmodifiableItemStack hireCost = playerShopkeeper.getHireCost();
+			UnmodifiableItemStack convertedHireCost = convertItem(hireCost, affectedItemsFilter);
+			if (convertedHireCost != hireCost) {
+				playerShopkeeper.setForHire(ItemUtils.asItemStackOrNull(convertedHireCost));
+				converted = true;
+			}
+		}
+		return converted;
+	}
+
+	// Returns the number of converted item stacks.
+	private static int convertContainerItems(PlayerShopkeeper shopkeeper, Predicate<ItemStack> affectedItemsFilter, List<ChunkCoords> chunksToUnload) {
+		World world = Bukkit.getWorld(shopkeeper.getWorldName());
+		if (world == null) return 0;
+		int chunkX = shopkeeper.getContainerX() >> 4;
+		int chunkZ = shopkeeper.getContainerZ() >> 4;
+		if (!world.isChunkLoaded(chunkX, chunkZ)) {
+			world.loadChunk(chunkX, chunkZ);
+			chunksToUnload.add(new ChunkCoords(world.getName(), chunkX, chunkZ));
+		}
+
+		Block containerBlock = shopkeeper.getContainer();
+		if (!ShopContainers.isSupportedContainer(containerBlock.getType())) return 0;
+		// Note: Returns the complete inventory for double chests.
+		Inventory containerInventory = ShopContainers.getInventory(containerBlock);
+		// Note: Inventory changes are directly reflected by the container block in the world.
+		return ItemUtils.convertItems(containerInventory, affectedItemsFilter, true);
+	}
+
+	// CHECKPOINT
+
+	private ChunkEntry readCheckpoint() {
+		if (!Files.exists(checkpointFile)) return null;
+		YamlConfiguration config = new YamlConfiguration();
+		try {
+			config.loadFromString(new String(Files.readAllBytes(checkpointFile), StandardCharsets.UTF_8));
+		} catch (IOException | InvalidConfigurationException e) {
+			Log.warning("Could not read the shop items conversion checkpoint: " + ThrowableUtils.getDescription(e));
+			return null;
+		}
+		String worldName = config.getString("world");
+		if (worldName == null) return null;
+		return new ChunkEntry(worldName, config.getInt("chunk-x"), config.getInt("chunk-z"), new ArrayList<>());
+	}
+
+	private void writeCheckpoint(ChunkEntry chunkEntry) {
+		YamlConfiguration config = new YamlConfiguration();
+		config.set("world", chunkEntry.worldName);
+		config.set("chunk-x", chunkEntry.chunkX);
+		config.set("chunk-z", chunkEntry.chunkZ);
+		try {
+			FileUtils.createParentDirectories(checkpointFile);
+			Files.write(checkpointFile, config.saveToString().getBytes(StandardCharsets.UTF_8));
+		} catch (IOException e) {
+			Log.warning("Could not write the shop items conversion checkpoint: " + ThrowableUtils.getDescription(e));
+		}
+	}
+
+	private void deleteCheckpoint() {
+		try {
+			FileUtils.deleteIfExists(checkpointFile);
+		} catch (IOException e) {
+			Log.warning("Could not delete the shop items conversion checkpoint: " + ThrowableUtils.getDescription(e));
+		}
+	}
+}
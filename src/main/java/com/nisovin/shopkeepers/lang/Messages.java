@@ -14,12 +14,14 @@ import com.nisovin.shopkeepers.config.lib.Config;
 import com.nisovin.shopkeepers.config.lib.ConfigLoadException;
 import com.nisovin.shopkeepers.config.lib.annotation.WithDefaultValueType;
 import com.nisovin.shopkeepers.config.lib.annotation.WithValueTypeProvider;
+import com.nisovin.shopkeepers.config.lib.setting.Setting;
 import com.nisovin.shopkeepers.config.lib.value.ValueLoadException;
 import com.nisovin.shopkeepers.config.lib.value.types.ColoredStringListValue;
 import com.nisovin.shopkeepers.config.lib.value.types.ColoredStringValue;
 import com.nisovin.shopkeepers.text.Text;
 import com.nisovin.shopkeepers.util.Log;
 import com.nisovin.shopkeepers.util.Validate;
+import com.nisovin.shopkeepers.util.text.MessageTemplate;
 
 @WithDefaultValueType(fieldType = String.class, valueType = ColoredStringValue.class)
 @WithValueTypeProvider(ColoredStringListValue.Provider.class)
@@ -41,6 +43,7 @@ public class Messages extends Config {
 	public static String shopObjectTypeLiving = c("{type}");
 	public static String shopObjectTypeSign = c("sign");
 	public static String shopObjectTypeNpc = c("npc");
+	public static String shopObjectTypePacket = c("packet villager");
 
 	public static Text selectedShopType = Text.parse("&aSelected shop type: &6{type} &7({description})");
 	public static Text selectedShopObjectType = Text.parse("&aSelected object type: &6{type}");
@@ -346,6 +349,11 @@ public class Messages extends Config {
 	public static Text confirmationExpired = Text.parse("&cConfirmation expired.");
 	public static Text nothingToConfirm = Text.parse("&cThere is nothing to confirm currently.");
 
+	public static Text bulkOperationProgress = Text.parse("&7Processed &e{processed}&7 of &e{total}&7 entries. Type &6/shopkeepers cancel&7 to cancel.");
+	public static Text bulkOperationCancelled = Text.parse("&cThe operation has been cancelled after &e{processed}&c of &e{total}&c entries.");
+	public static Text bulkOperationAlreadyRunning = Text.parse("&cAnother operation is still running. Type &6/shopkeepers cancel&c to cancel it.");
+	public static Text nothingToCancel = Text.parse("&cThere is nothing to cancel currently.");
+
 	public static String confirmationUiDeleteShopTitle = c("&cReally delete this shop?");
 	public static List<String> confirmationUiDeleteShopConfirmLore = c(Arrays.asList("This will irrevocably", "remove this shop!"));
 
@@ -466,6 +474,9 @@ public class Messages extends Config {
 				Log.warning("Could not load language file '" + languageFile.getName() + "'!", e);
 			}
 		}
+
+		// Compile the message templates (also if we use the default messages):
+		INSTANCE.compileMessageTemplates();
 	}
 
 	/////
@@ -528,4 +539,23 @@ public class Messages extends Config {
 		// Load the config:
 		super.load(config);
 	}
+
+	// Parses the placeholders of all String based messages once, so that they don't need to be parsed again whenever
+	// a message is sent.
+	private void compileMessageTemplates() {
+		MessageTemplate.clearCompiled();
+		for (Setting<?> setting : this.getSettings()) {
+			Object value = setting.getValue();
+			if (value instanceof String) {
+				MessageTemplate.compile((String) value);
+			} else if (value instanceof List) {
+				for (Object line : (List<?>) value) {
+					if (line instanceof String) {
+						MessageTemplate.compile((String) line);
+					}
+				}
+			}
+		}
+		Log.debug(() -> this.getLogPrefix() + "Compiled message templates: " + MessageTemplate.getCompiledCount());
+	}
 }
@@ -0,0 +1,222 @@
+package com.nisovin.shopkeepers.metrics;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
+import com.nisovin.shopkeepers.api.events.ShopkeeperTradeEvent;
+import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
+import com.nisovin.shopkeepers.config.Settings;
+import com.nisovin.shopkeepers.shopkeeper.SKShopkeeperRegistry;
+import com.nisovin.shopkeepers.shopobjects.living.LivingEntityAI;
+import com.nisovin.shopkeepers.storage.SKShopkeeperStorage;
+import com.nisovin.shopkeepers.util.Log;
+import com.nisovin.shopkeepers.util.ThrowableUtils;
+import com.nisovin.shopkeepers.util.taskqueue.TaskQueueStatistics;
+import com.nisovin.shopkeepers.util.timer.Timings;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Serves internal metrics in the Prometheus text format via a local HTTP endpoint.
+ * <p>
+ * The HTTP server is only bound to the loopback address. Requests are handled on the server's own thread, but the
+ * metrics themselves are gathered on the server's main thread.
+ */
+public class MetricsExporter implements Listener {
+
+	private static final String PATH = "/metrics";
+	private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+	private static final long COLLECT_TIMEOUT_SECONDS = 5L;
+	// The time window of the reported timing quantiles:
+	private static final int TIMINGS_WINDOW_MINUTES = 1;
+	private static final double[] QUANTILES = { 0.5D, 0.95D, 0.99D, 0.999D };
+	private static final double[] PERCENTILES = { 50.0D, 95.0D, 99.0D, 99.9D };
+
+	private final SKShopkeepersPlugin plugin;
+	private HttpServer server = null;
+	private volatile boolean enabled = false;
+
+	private long tradesCount = 0L;
+
+	public MetricsExporter(SKShopkeepersPlugin plugin) {
+		assert plugin != null;
+		this.plugin = plugin;
+	}
+
+	public void onEnable() {
+		if (!Settings.enableMetricsExporter) return;
+
+		InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), Settings.metricsExporterPort);
+		try {
+			server = HttpServer.create(address, 0);
+		} catch (IOException e) {
+			Log.warning("Could not start the metrics exporter on port " + Settings.metricsExporterPort + ": "
+					+ ThrowableUtils.getDescription(e));
+			return;
+		}
+		server.createContext(PATH, this::handleRequest);
+		server.start();
+		enabled = true;
+
+		Bukkit.getPluginManager().registerEvents(this, plugin);
+		Log.info("Serving metrics at http://" + address.getHostString() + ":" + address.getPort() + PATH);
+	}
+
+	public void onDisable() {
+		if (server == null) return;
+		enabled = false;
+		HandlerList.unregisterAll(this);
+		server.stop(0);
+		server = null;
+		tradesCount = 0L;
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onTradeCompleted(ShopkeeperTradeEvent event) {
+		tradesCount++;
+	}
+
+	// Invoked on the HTTP server's thread.
+	private void handleRequest(HttpExchange exchange) throws IOException {
+		try {
+			if (!"GET".equals(exchange.getRequestMethod())) {
+				exchange.sendResponseHeaders(405, -1);
+				return;
+			}
+
+			String metrics = null;
+			if (enabled) {
+				try {
+					Future<String> future = Bukkit.getScheduler().callSyncMethod(plugin, this::collectMetrics);
+					metrics = future.get(COLLECT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+				} catch (Exception e) {
+					Log.debug(() -> "Could not collect metrics: " + ThrowableUtils.getDescription(e));
+				}
+			}
+			if (metrics == null) {
+				exchange.sendResponseHeaders(503, -1);
+				return;
+			}
+
+			byte[] response = metrics.getBytes(StandardCharsets.UTF_8);
+			exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+			exchange.sendResponseHeaders(200, response.length);
+			try (OutputStream body = exchange.getResponseBody()) {
+				body.write(response);
+			}
+		} finally {
+			exchange.close();
+		}
+	}
+
+	// Invoked on the main thread.
+	private String collectMetrics() {
+		if (!enabled) return null;
+		SKShopkeeperRegistry shopkeeperRegistry = plugin.getShopkeeperRegistry();
+		SKShopkeeperStorage shopkeeperStorage = plugin.getShopkeeperStorage();
+		LivingEntityAI livingEntityAI = plugin.getLivingShops().getLivingEntityAI();
+		StringBuilder sb = new StringBuilder(4096);
+
+		// Shopkeeper counts by shop type and world (empty for virtual shopkeepers):
+		Map<String, Map<String, Integer>> countsByTypeAndWorld = new HashMap<>();
+		for (Shopkeeper shopkeeper : shopkeeperRegistry.getAllShopkeepers()) {
+			String shopType = shopkeeper.getType().getIdentifier();
+			String worldName = shopkeeper.getWorldName();
+			if (worldName == null) worldName = "";
+			countsByTypeAndWorld.computeIfAbsent(shopType, key -> new HashMap<>()).merge(worldName, 1, Integer::sum);
+		}
+		header(sb, "shopkeepers_shopkeepers", "gauge", "Number of shopkeepers by shop type and world.");
+		for (Entry<String, Map<String, Integer>> typeEntry : countsByTypeAndWorld.entrySet()) {
+			for (Entry<String, Integer> worldEntry : typeEntry.getValue().entrySet()) {
+				sb.append("shopkeepers_shopkeepers{type=\"").append(escape(typeEntry.getKey()))
+						.append("\",world=\"").append(escape(worldEntry.getKey())).append("\"} ")
+						.append(worldEntry.getValue()).append('\n');
+			}
+		}
+
+		int activeCount = 0;
+		int spawnedCount = 0;
+		for (Shopkeeper shopkeeper : shopkeeperRegistry.getActiveShopkeepers()) {
+			activeCount++;
+			if (shopkeeper.getShopObject().isActive()) {
+				spawnedCount++;
+			}
+		}
+		gauge(sb, "shopkeepers_active", "Number of shopkeepers in active chunks.", activeCount);
+		gauge(sb, "shopkeepers_spawned", "Number of active shopkeepers whose shop object is spawned.", spawnedCount);
+		gauge(sb, "shopkeepers_ai_entities", "Number of shop entities with AI.", livingEntityAI.getEntityCount());
+		gauge(sb, "shopkeepers_ai_entities_active", "Number of shop entities with active AI.",
+				livingEntityAI.getActiveAIEntityCount());
+
+		TaskQueueStatistics spawnQueueStatistics = shopkeeperRegistry.getSpawnQueueStatistics();
+		gauge(sb, "shopkeepers_spawn_queue_pending", "Number of pending shopkeeper spawns.",
+				spawnQueueStatistics.getPendingCount());
+		gauge(sb, "shopkeepers_spawn_queue_pending_max", "Maximum number of pending shopkeeper spawns.",
+				spawnQueueStatistics.getMaxPendingCount());
+
+		gauge(sb, "shopkeepers_unsaved_dirty", "Number of shopkeepers with unsaved changes.",
+				shopkeeperStorage.getUnsavedDirtyShopkeepersCount());
+		gauge(sb, "shopkeepers_save_last_bytes", "Size of the save file written by the last successful save.",
+				shopkeeperStorage.getLastSaveBytes());
+		counter(sb, "shopkeepers_save_bytes_total", "Total number of bytes written by successful saves.",
+				shopkeeperStorage.getTotalSavedBytes());
+
+		counter(sb, "shopkeepers_trades_total", "Number of completed trades.", tradesCount);
+		gauge(sb, "shopkeepers_trade_log_pending", "Number of logged trades not yet written to storage.",
+				plugin.getTradeLoggers().getPendingTradesCount());
+
+		// Timings (includes the save durations, trades, UI openings, and AI):
+		header(sb, "shopkeepers_timing_milliseconds", "summary",
+				"Processing times of various tasks. Quantiles cover the last " + TIMINGS_WINDOW_MINUTES + " minute(s).");
+		for (Entry<String, Timings> timingsEntry : plugin.getTimings().entrySet()) {
+			String name = escape(timingsEntry.getKey());
+			Timings timings = timingsEntry.getValue();
+			double[] percentiles = timings.getPercentilesMillis(TIMINGS_WINDOW_MINUTES, PERCENTILES);
+			for (int i = 0; i < QUANTILES.length; i++) {
+				sb.append("shopkeepers_timing_milliseconds{name=\"").append(name)
+						.append("\",quantile=\"").append(QUANTILES[i]).append("\"} ")
+						.append(percentiles[i]).append('\n');
+			}
+			long count = timings.getCounter();
+			sb.append("shopkeepers_timing_milliseconds_sum{name=\"").append(name).append("\"} ")
+					.append(timings.getAverageTimeMillis() * count).append('\n');
+			sb.append("shopkeepers_timing_milliseconds_count{name=\"").append(name).append("\"} ")
+					.append(count).append('\n');
+		}
+		return sb.toString();
+	}
+
+	private static void header(StringBuilder sb, String name, String type, String help) {
+		sb.append("# HELP ").append(name).append(' ').append(help).append('\n');
+		sb.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+	}
+
+	private static void gauge(StringBuilder sb, String name, String help, long value) {
+		header(sb, name, "gauge", help);
+		sb.append(name).append(' ').append(value).append('\n');
+	}
+
+	private static void counter(StringBuilder sb, String name, String help, long value) {
+		header(sb, name, "counter", help);
+		sb.append(name).append(' ').append(value).append('\n');
+	}
+
+	private static String escape(String labelValue) {
+		return labelValue.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+	}
+}
@@ -8,23 +8,29 @@ import com.nisovin.shopkeepers.config.Settings;
 
 /**
  * Plugin metrics powered by bStats.
+ * <p>
+ * Internal metrics can additionally be exported locally via the {@link MetricsExporter}.
  */
 public class PluginMetrics {
 
 	private final SKShopkeepersPlugin plugin;
+	private final MetricsExporter metricsExporter;
 
 	public PluginMetrics(SKShopkeepersPlugin plugin) {
 		assert plugin != null;
 		this.plugin = plugin;
+		this.metricsExporter = new MetricsExporter(plugin);
 	}
 
 	public void onEnable() {
 		if (Settings.enableMetrics) {
 			this.setupMetrics();
 		}
+		metricsExporter.onEnable();
 	}
 
 	public void onDisable() {
+		metricsExporter.onDisable();
 	}
 
 	private void setupMetrics() {
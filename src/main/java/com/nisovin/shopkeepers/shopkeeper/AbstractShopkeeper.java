@@ -42,7 +42,6 @@ import com.nisovin.shopkeepers.ui.UIHandler;
 import com.nisovin.shopkeepers.ui.defaults.SKDefaultUITypes;
 import com.nisovin.shopkeepers.ui.defaults.TradingHandler;
 import com.nisovin.shopkeepers.util.ColorUtils;
-import com.nisovin.shopkeepers.util.CyclicCounter;
 import com.nisovin.shopkeepers.util.Log;
 import com.nisovin.shopkeepers.util.StringUtils;
 import com.nisovin.shopkeepers.util.TextUtils;
@@ -67,16 +66,24 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 	/**
 	 * For load balancing purposes, shopkeepers are ticked in groups.
 	 * <p>
+	 * The actually used number of ticking groups is configurable (see {@link Settings#shopkeeperTickingGroups}). This
+	 * is the default number of ticking groups.
+	 * <p>
 	 * This number is chosen as a balance between {@code 1} group (all shopkeepers are ticked within the same tick; no
 	 * load balancing), and the maximum of {@code 20} groups (groups are as small as possible for the tick rate of once
-	 * every second, i.e. once every {@code 20} ticks; best load balancing; but this is associated with a large overhead
-	 * due to having to iterate the active shopkeepers each Minecraft tick).
+	 * every second, i.e. once every {@code 20} ticks; best load balancing; but this is associated with a larger
+	 * overhead due to having to run the ticking task each Minecraft tick).
 	 * <p>
-	 * With {@code 4} ticking groups, the active shopkeepers are iterated once every {@code 5} ticks, and one fourth of
-	 * them are actually processed.
+	 * With {@code 4} ticking groups, the ticking task runs once every {@code 5} ticks and processes the active
+	 * shopkeepers of one of the groups.
 	 */
-	public static final int TICKING_GROUPS = 4;
-	private static final CyclicCounter nextTickingGroup = new CyclicCounter(TICKING_GROUPS);
+	public static final int DEFAULT_TICKING_GROUPS = 4;
+	/**
+	 * The maximum number of ticking groups.
+	 * <p>
+	 * With this number of ticking groups, the ticking task runs every Minecraft tick.
+	 */
+	public static final int MAX_TICKING_GROUPS = TICKING_PERIOD_TICKS;
 
 	// The maximum supported name length:
 	// The actual maximum name length that can be used might be lower depending on config settings
@@ -87,24 +94,25 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 	// Particles of different colors indicate the different ticking groups.
 	// Note: The client seems to randomly change the color slightly each time a dust particle is spawned.
 	// Note: The particle size also determines the effect duration.
-	private static final DustOptions[] TICK_VISUALIZATION_DUSTS = new DustOptions[AbstractShopkeeper.TICKING_GROUPS];
-	static {
+	// Setup on plugin enable, once the number of ticking groups is known.
+	private static DustOptions[] tickVisualizationDusts = new DustOptions[0];
+
+	private static void setupTickVisualizationDusts(int tickingGroups) {
+		assert tickingGroups > 0;
+		tickVisualizationDusts = new DustOptions[tickingGroups];
 		// Even distribution of colors in the HSB color space: Ensures a distinct color for each ticking group.
-		float hueStep = (1.0F / AbstractShopkeeper.TICKING_GROUPS);
-		for (int i = 0; i < AbstractShopkeeper.TICKING_GROUPS; ++i) {
+		float hueStep = (1.0F / tickingGroups);
+		for (int i = 0; i < tickingGroups; ++i) {
 			float hue = i * hueStep; // Starts with red
 			int rgb = ColorUtils.HSBtoRGB(hue, 1.0F, 1.0F);
 			Color color = Color.fromRGB(rgb);
-			TICK_VISUALIZATION_DUSTS[i] = new DustOptions(color, 1.0F);
+			tickVisualizationDusts[i] = new DustOptions(color, 1.0F);
 		}
 	}
 
 	// This is called on plugin enable and can be used to setup or reset any initial static state.
-	static void setupOnEnable() {
-		// Resetting the ticking group counter ensures that shopkeepers retain their ticking group across reloads (if
-		// there are no changes in the order of the loaded shopkeepers). This ensures that the particle colors of our
-		// tick visualization remain the same across reloads (avoids possible confusion for users).
-		nextTickingGroup.reset();
+	static void setupOnEnable(int tickingGroups) {
+		setupTickVisualizationDusts(tickingGroups);
 	}
 
 	private final int id;
@@ -135,8 +143,9 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 	// UI type identifier -> UI handler
 	private final Map<String, UIHandler> uiHandlers = new HashMap<>();
 
-	// Internally used for load balancing purposes:
-	private final int tickingGroup = nextTickingGroup.getAndIncrement();
+	// Internally used for load balancing purposes: Assigned by the shopkeeper registry when the shopkeeper is activated.
+	// -1 if the shopkeeper has not yet been assigned to any ticking group.
+	private int tickingGroup = -1;
 
 	// CONSTRUCTION AND SETUP
 
@@ -634,6 +643,9 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 		this.updateChunkCoords();
 		this.markDirty();
 
+		// Inform shop object:
+		shopObject.onShopkeeperMoved();
+
 		// Update shopkeeper in chunk map:
 		SKShopkeepersPlugin.getInstance().getShopkeeperRegistry().onShopkeeperMoved(this);
 	}
@@ -859,6 +871,11 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 		return tickingGroup;
 	}
 
+	// For internal purposes only.
+	final void setTickingGroup(int tickingGroup) {
+		this.tickingGroup = tickingGroup;
+	}
+
 	// TODO Maybe also tick shopkeepers if the container chunk is loaded? This might make sense once a shopkeeper can be
 	// linked to multiple containers, and for virtual player shopkeepers.
 	/**
@@ -897,7 +914,8 @@ public abstract class AbstractShopkeeper implements Shopkeeper {
 		assert particleLocation.isWorldLoaded();
 		World world = particleLocation.getWorld();
 		assert world != null;
-		world.spawnParticle(Particle.REDSTONE, particleLocation, 1, TICK_VISUALIZATION_DUSTS[tickingGroup]);
+		if (tickingGroup < 0 || tickingGroup >= tickVisualizationDusts.length) return; // Not ticked
+		world.spawnParticle(Particle.REDSTONE, particleLocation, 1, tickVisualizationDusts[tickingGroup]);
 	}
 
 	// TOSTRING
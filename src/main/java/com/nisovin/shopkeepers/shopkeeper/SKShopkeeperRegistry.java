@@ -9,8 +9,11 @@ import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
 import java.util.stream.Stream;
 
@@ -32,10 +35,12 @@ import com.nisovin.shopkeepers.api.events.ShopkeeperRemoveEvent;
 import com.nisovin.shopkeepers.api.shopkeeper.ShopCreationData;
 import com.nisovin.shopkeepers.api.shopkeeper.ShopType;
 import com.nisovin.shopkeepers.api.shopkeeper.ShopkeeperCreateException;
+import com.nisovin.shopkeepers.api.shopkeeper.ShopkeeperPage;
+import com.nisovin.shopkeepers.api.shopkeeper.ShopkeeperQuery;
 import com.nisovin.shopkeepers.api.shopkeeper.ShopkeeperRegistry;
 import com.nisovin.shopkeepers.api.shopkeeper.player.PlayerShopkeeper;
-import com.nisovin.shopkeepers.api.shopobjects.ShopObjectType;
 import com.nisovin.shopkeepers.api.util.ChunkCoords;
+import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.debug.Debug;
 import com.nisovin.shopkeepers.debug.DebugOptions;
 import com.nisovin.shopkeepers.shopkeeper.player.AbstractPlayerShopkeeper;
@@ -46,9 +51,12 @@ import com.nisovin.shopkeepers.shopobjects.block.DefaultBlockShopObjectIds;
 import com.nisovin.shopkeepers.shopobjects.entity.AbstractEntityShopObjectType;
 import com.nisovin.shopkeepers.shopobjects.entity.DefaultEntityShopObjectIds;
 import com.nisovin.shopkeepers.storage.SKShopkeeperStorage;
+import com.nisovin.shopkeepers.util.BlockLocation;
 import com.nisovin.shopkeepers.util.CyclicCounter;
 import com.nisovin.shopkeepers.util.Log;
+import com.nisovin.shopkeepers.util.LongObjectHashMap;
 import com.nisovin.shopkeepers.util.MutableChunkCoords;
+import com.nisovin.shopkeepers.util.PackedCoordinates;
 import com.nisovin.shopkeepers.util.StringUtils;
 import com.nisovin.shopkeepers.util.TextUtils;
 import com.nisovin.shopkeepers.util.Validate;
@@ -250,7 +258,6 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 	private final Map<Integer, AbstractShopkeeper> shopkeepersById = new HashMap<>();
 
 	// TODO Shopkeepers by name TreeMap to speedup name lookups and prefix matching?
-	// TODO TreeMaps for shopkeeper owners by name and uuid to speedup prefix matching?
 
 	// Virtual shopkeepers:
 	// Set: Allows for fast removal.
@@ -261,9 +268,21 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 	private final Map<String, WorldShopkeepers> shopkeepersByWorld = new LinkedHashMap<>();
 	private final Set<String> shopkeeperWorldsView = Collections.unmodifiableSet(shopkeepersByWorld.keySet());
 
+	// Admin shopkeepers (i.e. all shopkeepers that are not player shopkeepers):
+	private final Set<AbstractShopkeeper> adminShopkeepers = new LinkedHashSet<>();
+	private final Collection<AbstractShopkeeper> adminShopkeepersView = Collections.unmodifiableCollection(adminShopkeepers);
+
 	// Player shopkeepers:
 	private int playerShopCount = 0;
+	// Owner uuid -> player shopkeepers
+	private final Map<UUID, Set<AbstractPlayerShopkeeper>> playerShopkeepersByOwner = new LinkedHashMap<>();
+	// Lowercase owner name -> player shopkeepers
+	// Note: The owner names stored by the shopkeepers of the same owner can differ, until they are updated the next
+	// time the owner joins the server.
+	// Sorted for the lookup of owner names by prefix.
+	private final NavigableMap<String, Set<AbstractPlayerShopkeeper>> playerShopkeepersByOwnerName = new TreeMap<>();
 	// Note: Already unmodifiable.
+	// Iterates the player shopkeepers in the same order as all shopkeepers (i.e. not grouped by owner).
 	private final Set<AbstractPlayerShopkeeper> allPlayerShopkeepersView = new AbstractSet<AbstractPlayerShopkeeper>() {
 		@Override
 		public Iterator<AbstractPlayerShopkeeper> iterator() {
@@ -308,6 +327,14 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 	// Shopkeepers that are pending to be spawned (i.e. that are in the spawn queue) are not yet activated, and are
 	// therefore also not yet ticked.
 	private final Map<Object, AbstractShopkeeper> activeShopkeepersByObjectId = new LinkedHashMap<>();
+	// The active shopkeepers that use default block object ids, additionally indexed by world name and packed block
+	// coordinates. Lookups by block coordinates do not need to hash any composite object ids.
+	// World name -> block key -> shopkeeper
+	private final Map<String, LongObjectHashMap<AbstractShopkeeper>> activeShopkeepersByBlock = new HashMap<>();
+	// The active shopkeepers, distributed across the ticking groups: Each run of the ticking task only processes the
+	// shopkeepers of a single ticking group. Setup on enable, once the number of ticking groups is known.
+	private List<Set<AbstractShopkeeper>> activeShopkeepersByTickingGroup = Collections.emptyList();
+	private Timer[] tickingGroupTimings = new Timer[0];
 	private boolean tickingShopkeepers = false;
 	// True: Activate (or update previous activation, eg. after the object id changed)
 	// False: Deactivate
@@ -328,15 +355,26 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 	// shopkeepers immediately, instead of causing confusion among players by having them wait for the shopkeepers to
 	// respawn.
 	private final ShopkeeperSpawnQueue spawnQueue;
+	private final ShopkeeperChunkTickets chunkTickets;
 
 	public SKShopkeeperRegistry(SKShopkeepersPlugin plugin) {
 		this.plugin = plugin;
 		this.spawnQueue = new ShopkeeperSpawnQueue(plugin, this::spawnShopkeeper);
+		this.chunkTickets = new ShopkeeperChunkTickets(plugin, this);
 	}
 
 	public void onEnable() {
+		// Setup ticking groups:
+		int tickingGroups = Settings.shopkeeperTickingGroups;
+		activeShopkeepersByTickingGroup = new ArrayList<>(tickingGroups);
+		tickingGroupTimings = new Timer[tickingGroups];
+		for (int tickingGroup = 0; tickingGroup < tickingGroups; ++tickingGroup) {
+			activeShopkeepersByTickingGroup.add(new LinkedHashSet<>());
+			tickingGroupTimings[tickingGroup] = new Timer();
+		}
+
 		// Setup of static state related to shopkeepers:
-		AbstractShopkeeper.setupOnEnable();
+		AbstractShopkeeper.setupOnEnable(tickingGroups);
 
 		// Determine the immediate chunk activation radius:
 		immediateChunkActivationRadius = Math.min(IMMEDIATE_CHUNK_ACTIVATION_RADIUS, Bukkit.getViewDistance());
@@ -347,6 +385,9 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 		// Start shopkeeper ticking task:
 		this.startShopkeeperTickTask();
 
+		// Start keeping chunks with shopkeepers loaded, if enabled:
+		chunkTickets.onEnable();
+
 		Bukkit.getPluginManager().registerEvents(new WorldListener(this), plugin);
 	}
 
@@ -354,6 +395,9 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 		// Shutdown spawn queue (also clears the queue right away):
 		spawnQueue.shutdown();
 
+		// Release all chunk tickets:
+		chunkTickets.onDisable();
+
 		// Unload all shopkeepers:
 		this.unloadAllShopkeepers();
 		assert this.getAllShopkeepers().isEmpty();
@@ -364,8 +408,16 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 		shopkeepersByWorld.clear();
 		virtualShopkeepers.clear();
 		activeShopkeepersByObjectId.clear();
+		activeShopkeepersByBlock.clear();
+		activeShopkeepersByTickingGroup.forEach(Set::clear);
+		adminShopkeepers.clear();
 		playerShopCount = 0;
+		playerShopkeepersByOwner.clear();
+		playerShopkeepersByOwnerName.clear();
 		chunkActivationTimings.reset();
+		for (Timer timer : tickingGroupTimings) {
+			timer.reset();
+		}
 	}
 
 	// TIMINGS
@@ -374,18 +426,38 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 		return chunkActivationTimings;
 	}
 
+	public int getTickingGroupCount() {
+		return tickingGroupTimings.length;
+	}
+
+	public Timings getTickingGroupTimings(int tickingGroup) {
+		return tickingGroupTimings[tickingGroup];
+	}
+
+	public int getTickingGroupSize(int tickingGroup) {
+		return activeShopkeepersByTickingGroup.get(tickingGroup).size();
+	}
+
 	// TICKING
 
 	private class ShopkeeperTickTask extends BukkitRunnable {
 
-		private final CyclicCounter tickingGroup = new CyclicCounter(AbstractShopkeeper.TICKING_GROUPS);
+		private final CyclicCounter tickingGroup = new CyclicCounter(getTickingGroupCount());
+		// Limits the time spent per run. Zero if there is no limit.
+		private final long budgetNanos = (long) (Settings.shopkeeperTickingBudgetMillis * 1000000.0D);
+		// The shopkeepers of the currently processed ticking group. If the time budget is exceeded, we continue with
+		// the remaining shopkeepers of this group during the next run.
+		private final List<AbstractShopkeeper> currentTickingGroup = new ArrayList<>();
+		private int nextIndex = 0;
 		private boolean dirty;
 		private boolean visualizeTicks;
 
 		public void start() {
 			// For load balancing purposes, we run the task more often and then process only a subset of all active
 			// shopkeepers:
-			int period = AbstractShopkeeper.TICKING_PERIOD_TICKS / AbstractShopkeeper.TICKING_GROUPS;
+			// The settings ensure that the number of ticking groups evenly divides the ticking period:
+			assert AbstractShopkeeper.TICKING_PERIOD_TICKS % getTickingGroupCount() == 0;
+			int period = Math.max(1, AbstractShopkeeper.TICKING_PERIOD_TICKS / getTickingGroupCount());
 			this.runTaskTimer(plugin, period, period);
 		}
 
@@ -398,8 +470,29 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 			// settings. However, this check isn't actually that costly that this would be required.
 			visualizeTicks = Debug.isDebugging(DebugOptions.visualizeShopkeeperTicks);
 
+			int currentGroup = tickingGroup.getValue();
+			Timer timings = tickingGroupTimings[currentGroup];
+			timings.start();
+			if (nextIndex == 0) {
+				// Start processing the next ticking group:
+				currentTickingGroup.addAll(activeShopkeepersByTickingGroup.get(currentGroup));
+			}
+
 			tickingShopkeepers = true;
-			activeShopkeepersByObjectId.values().forEach(this::tickShopkeeper);
+			long startNanos = System.nanoTime();
+			int size = currentTickingGroup.size();
+			while (nextIndex < size) {
+				AbstractShopkeeper shopkeeper = currentTickingGroup.get(nextIndex++);
+				// Skip if the shopkeeper has been deactivated or moved to another ticking group in the meantime:
+				if (shopkeeper.getShopObject().getLastId() == null) continue;
+				if (shopkeeper.getTickingGroup() != currentGroup) continue;
+				this.tickShopkeeper(shopkeeper);
+
+				if (budgetNanos > 0L && (System.nanoTime() - startNanos) > budgetNanos) {
+					// Defer the remaining shopkeepers to the next run:
+					break;
+				}
+			}
 			tickingShopkeepers = false;
 
 			// Process pending shopkeeper activation changes (includes shopkeepers whose object ids have changed):
@@ -417,13 +510,23 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 				getShopkeeperStorage().saveDelayed();
 			}
 
-			// Update ticking group:
-			tickingGroup.getAndIncrement();
+			timings.stop();
+
+			if (nextIndex >= size) {
+				// Ticking group completed. Update ticking group:
+				currentTickingGroup.clear();
+				nextIndex = 0;
+				tickingGroup.getAndIncrement();
+			} else {
+				Log.debug(DebugOptions.regularTickActivities,
+						() -> "Shopkeeper ticking budget exceeded: Deferring " + (currentTickingGroup.size() - nextIndex)
+								+ " shopkeepers of ticking group " + currentGroup + " to the next run."
+				);
+			}
 		}
 
 		private void tickShopkeeper(AbstractShopkeeper shopkeeper) {
 			assert shopkeeper.getShopObject().getLastId() != null; // We only tick the active shopkeepers
-			if (shopkeeper.getTickingGroup() != tickingGroup.getValue()) return;
 			// Skip if the shopkeeper is no longer valid (got deleted) or is pending deactivation.
 			// Note: Checking if the shopkeeper is pending deactivation is enough, since deleting the shopkeeper also
 			// deactivates it.
@@ -575,9 +678,14 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 			chunkEntry = this.addShopkeeperToChunk(shopkeeper);
 		}
 
-		// Update player shop count:
+		// Update player shop count and index:
 		if (shopkeeper instanceof PlayerShopkeeper) {
 			playerShopCount++;
+			AbstractPlayerShopkeeper playerShop = (AbstractPlayerShopkeeper) shopkeeper;
+			addToIndex(playerShopkeepersByOwner, playerShop.getOwnerUUID(), playerShop);
+			addToIndex(playerShopkeepersByOwnerName, normalizeOwnerName(playerShop.getOwnerName()), playerShop);
+		} else {
+			adminShopkeepers.add(shopkeeper);
 		}
 
 		// Log a warning if either the shop type or the shop object type is disabled. The shopkeeper is still added (so
@@ -673,9 +781,14 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 			this.removeShopkeeperFromChunk(shopkeeper);
 		}
 
-		// Update player shop count:
+		// Update player shop count and index:
 		if (shopkeeper instanceof PlayerShopkeeper) {
 			playerShopCount--;
+			AbstractPlayerShopkeeper playerShop = (AbstractPlayerShopkeeper) shopkeeper;
+			removeFromIndex(playerShopkeepersByOwner, playerShop.getOwnerUUID(), playerShop);
+			removeFromIndex(playerShopkeepersByOwnerName, normalizeOwnerName(playerShop.getOwnerName()), playerShop);
+		} else {
+			adminShopkeepers.remove(shopkeeper);
 		}
 
 		if (cause == ShopkeeperRemoveEvent.Cause.DELETE) {
@@ -872,6 +985,10 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 		// Spawn shopkeepers:
 		this.spawnShopkeepers(chunkEntry, false);
 
+		// Keep the chunk loaded for a while after players have left, so that frequent chunk reloads do not repeatedly
+		// despawn and respawn its shopkeepers:
+		chunkTickets.onChunkActivated(chunkEntry.chunkCoords);
+
 		chunkActivationTimings.stop();
 	}
 
@@ -1230,6 +1347,8 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 		}
 
 		AbstractShopObject shopObject = shopkeeper.getShopObject();
+		// If the shopkeeper is already active, it keeps its current ticking group:
+		boolean wasActive = (shopObject.getLastId() != null);
 
 		// Deactivate the shopkeeper by its old id (if there is one):
 		this.deactivateShopkeeper(shopkeeper);
@@ -1251,7 +1370,48 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 			return;
 		} else {
 			shopObject.setLastId(objectId); // Remember object id
+			this.addToBlockIndex(objectId, shopkeeper);
+			this.addToTickingGroup(shopkeeper, wasActive);
+		}
+	}
+
+	private void addToBlockIndex(Object objectId, AbstractShopkeeper shopkeeper) {
+		if (!(objectId instanceof BlockLocation)) return; // Not a default block object id
+		BlockLocation blockLocation = (BlockLocation) objectId;
+		LongObjectHashMap<AbstractShopkeeper> worldShopkeepers = activeShopkeepersByBlock.computeIfAbsent(blockLocation.getWorldName(), k -> new LongObjectHashMap<>());
+		worldShopkeepers.put(PackedCoordinates.blockKey(blockLocation.getX(), blockLocation.getY(), blockLocation.getZ()), shopkeeper);
+	}
+
+	private void removeFromBlockIndex(Object objectId) {
+		if (!(objectId instanceof BlockLocation)) return; // Not a default block object id
+		BlockLocation blockLocation = (BlockLocation) objectId;
+		String worldName = blockLocation.getWorldName();
+		LongObjectHashMap<AbstractShopkeeper> worldShopkeepers = activeShopkeepersByBlock.get(worldName);
+		if (worldShopkeepers == null) return; // Not expected
+		worldShopkeepers.remove(PackedCoordinates.blockKey(blockLocation.getX(), blockLocation.getY(), blockLocation.getZ()));
+		if (worldShopkeepers.isEmpty()) {
+			activeShopkeepersByBlock.remove(worldName);
+		}
+	}
+
+	// If the shopkeeper was previously active and its ticking group is still valid, it is added to that ticking group
+	// again. Otherwise, it is added to the currently smallest ticking group.
+	private void addToTickingGroup(AbstractShopkeeper shopkeeper, boolean keepTickingGroup) {
+		int tickingGroup = shopkeeper.getTickingGroup();
+		if (!keepTickingGroup || tickingGroup < 0 || tickingGroup >= activeShopkeepersByTickingGroup.size()) {
+			// Load balancing: Find the smallest ticking group.
+			tickingGroup = 0;
+			int minSize = Integer.MAX_VALUE;
+			for (int group = 0; group < activeShopkeepersByTickingGroup.size(); ++group) {
+				int size = activeShopkeepersByTickingGroup.get(group).size();
+				if (size < minSize) {
+					tickingGroup = group;
+					minSize = size;
+				}
+			}
+			shopkeeper.setTickingGroup(tickingGroup);
 		}
+		activeShopkeepersByTickingGroup.get(tickingGroup).add(shopkeeper);
 	}
 
 	// Removes the shopkeeper from the active shopkeepers by its last shop object id (if there is one).
@@ -1269,7 +1429,15 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 
 		assert activeShopkeepersByObjectId.get(objectId) == shopkeeper;
 		activeShopkeepersByObjectId.remove(objectId);
+		this.removeFromBlockIndex(objectId);
 		shopObject.setLastId(null);
+
+		// Remove from its ticking group (the shopkeeper only keeps its ticking group if it is immediately reactivated
+		// under a new object id; otherwise it is assigned to the currently smallest ticking group once it is activated
+		// again, eg. after its chunk got reloaded):
+		int tickingGroup = shopkeeper.getTickingGroup();
+		assert tickingGroup >= 0 && tickingGroup < activeShopkeepersByTickingGroup.size();
+		activeShopkeepersByTickingGroup.get(tickingGroup).remove(shopkeeper);
 	}
 
 	// Updates the shopkeeper's entry in the active shopkeepers.
@@ -1322,32 +1490,153 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 	@Override
 	public Collection<? extends AbstractPlayerShopkeeper> getPlayerShopkeepersByOwner(UUID ownerUUID) {
 		Validate.notNull(ownerUUID, "Owner UUID is null!");
-		// TODO Improve? Maybe keep an index of player shops? or even index by owner?
-		// Note: Already unmodifiable.
-		return new AbstractSet<AbstractPlayerShopkeeper>() {
-			private Stream<AbstractPlayerShopkeeper> createStream() {
-				return allPlayerShopkeepersView.stream()
-						.filter(shopkeeper -> shopkeeper.getOwnerUUID().equals(ownerUUID));
-			}
+		Set<AbstractPlayerShopkeeper> playerShops = playerShopkeepersByOwner.get(ownerUUID);
+		if (playerShops == null) return Collections.emptySet();
+		return Collections.unmodifiableSet(playerShops);
+	}
 
-			@Override
-			public Iterator<AbstractPlayerShopkeeper> iterator() {
-				if (allPlayerShopkeepersView.isEmpty()) {
-					// There are no player shops at all:
-					return Collections.emptyIterator();
-				}
-				return this.createStream().iterator();
-			}
+	/**
+	 * Gets the player shopkeepers whose stored owner name matches the given name, ignoring case.
+	 * <p>
+	 * The result can contain the shopkeepers of several different players, if their stored owner names match.
+	 * 
+	 * @param ownerName
+	 *            the owner name, not <code>null</code>
+	 * @return an unmodifiable view on the matching player shopkeepers
+	 */
+	public Collection<? extends AbstractPlayerShopkeeper> getPlayerShopkeepersByOwnerName(String ownerName) {
+		Validate.notNull(ownerName, "Owner name is null!");
+		Set<AbstractPlayerShopkeeper> playerShops = playerShopkeepersByOwnerName.get(normalizeOwnerName(ownerName));
+		if (playerShops == null) return Collections.emptySet();
+		return Collections.unmodifiableSet(playerShops);
+	}
 
-			@Override
-			public int size() {
-				if (allPlayerShopkeepersView.isEmpty()) {
-					// There are no player shops at all:
-					return 0;
-				}
-				return this.createStream().mapToInt(shopkeeper -> 1).sum();
+	/**
+	 * Gets the stored owner names of player shopkeepers that start with the given prefix, ignoring case.
+	 * 
+	 * @param ownerNamePrefix
+	 *            the owner name prefix, may be empty, not <code>null</code>
+	 * @return the matching owner names
+	 */
+	public Stream<String> getShopOwnerNamesByPrefix(String ownerNamePrefix) {
+		Validate.notNull(ownerNamePrefix, "Owner name prefix is null!");
+		String normalizedPrefix = normalizeOwnerName(ownerNamePrefix);
+		Map<String, Set<AbstractPlayerShopkeeper>> matches;
+		if (normalizedPrefix.isEmpty()) {
+			matches = playerShopkeepersByOwnerName;
+		} else {
+			matches = playerShopkeepersByOwnerName.subMap(normalizedPrefix, true, normalizedPrefix + Character.MAX_VALUE, false);
+		}
+		// Use the stored owner name of the first shopkeeper to preserve the owner name's case:
+		return matches.values().stream().map(playerShops -> playerShops.iterator().next().getOwnerName());
+	}
+
+	/**
+	 * This is called by player shopkeepers when their owner has changed, so that the registry can update its index.
+	 * 
+	 * @param shopkeeper
+	 *            the player shopkeeper
+	 * @param oldOwnerUUID
+	 *            the previous owner uuid
+	 * @param oldOwnerName
+	 *            the previous owner name
+	 */
+	public void onShopOwnerChanged(AbstractPlayerShopkeeper shopkeeper, UUID oldOwnerUUID, String oldOwnerName) {
+		assert shopkeeper != null && shopkeeper.isValid();
+		UUID ownerUUID = shopkeeper.getOwnerUUID();
+		if (!ownerUUID.equals(oldOwnerUUID)) {
+			removeFromIndex(playerShopkeepersByOwner, oldOwnerUUID, shopkeeper);
+			addToIndex(playerShopkeepersByOwner, ownerUUID, shopkeeper);
+		}
+		String normalizedOldOwnerName = normalizeOwnerName(oldOwnerName);
+		String normalizedOwnerName = normalizeOwnerName(shopkeeper.getOwnerName());
+		if (!normalizedOwnerName.equals(normalizedOldOwnerName)) {
+			removeFromIndex(playerShopkeepersByOwnerName, normalizedOldOwnerName, shopkeeper);
+			addToIndex(playerShopkeepersByOwnerName, normalizedOwnerName, shopkeeper);
+		}
+	}
+
+	private static String normalizeOwnerName(String ownerName) {
+		return ownerName.toLowerCase(Locale.ROOT);
+	}
+
+	private static <K> void addToIndex(Map<K, Set<AbstractPlayerShopkeeper>> index, K key, AbstractPlayerShopkeeper shopkeeper) {
+		index.computeIfAbsent(key, k -> new LinkedHashSet<>()).add(shopkeeper);
+	}
+
+	private static <K> void removeFromIndex(Map<K, Set<AbstractPlayerShopkeeper>> index, K key, AbstractPlayerShopkeeper shopkeeper) {
+		Set<AbstractPlayerShopkeeper> playerShops = index.get(key);
+		if (playerShops == null) return;
+		playerShops.remove(shopkeeper);
+		if (playerShops.isEmpty()) {
+			index.remove(key);
+		}
+	}
+
+	// PAGING
+
+	@Override
+	public ShopkeeperPage getShopkeepersPage(ShopkeeperQuery query, int offset, int limit) {
+		Validate.notNull(query, "Query is null!");
+		Validate.isTrue(offset >= 0, "Offset cannot be negative!");
+		Validate.isTrue(limit >= 0, "Limit cannot be negative!");
+		if (query.getType() == ShopkeeperQuery.Type.WORLD) {
+			return this.getWorldShopkeepersPage(query.getWorldName(), offset, limit);
+		}
+
+		Collection<? extends AbstractShopkeeper> shopkeepers;
+		switch (query.getType()) {
+		case ADMIN:
+			shopkeepers = adminShopkeepersView;
+			break;
+		case OWNER:
+			shopkeepers = this.getPlayerShopkeepersByOwner(query.getOwnerUUID());
+			break;
+		case ALL:
+		default:
+			shopkeepers = allShopkeepersView;
+			break;
+		}
+
+		int totalCount = shopkeepers.size();
+		if (offset >= totalCount || limit == 0) {
+			return new ShopkeeperPage(Collections.emptyList(), offset, totalCount);
+		}
+		List<AbstractShopkeeper> pageShopkeepers = new ArrayList<>(Math.min(limit, totalCount - offset));
+		Iterator<? extends AbstractShopkeeper> iterator = shopkeepers.iterator();
+		// Skip to the offset without copying the preceding shopkeepers:
+		for (int i = 0; i < offset; i++) {
+			iterator.next();
+		}
+		while (iterator.hasNext() && pageShopkeepers.size() < limit) {
+			pageShopkeepers.add(iterator.next());
+		}
+		return new ShopkeeperPage(Collections.unmodifiableList(pageShopkeepers), offset, totalCount);
+	}
+
+	private ShopkeeperPage getWorldShopkeepersPage(String worldName, int offset, int limit) {
+		WorldShopkeepers worldEntry = shopkeepersByWorld.get(worldName);
+		int totalCount = (worldEntry != null) ? worldEntry.shopkeeperCount : 0;
+		if (offset >= totalCount || limit == 0) {
+			return new ShopkeeperPage(Collections.emptyList(), offset, totalCount);
+		}
+		assert worldEntry != null;
+		List<AbstractShopkeeper> pageShopkeepers = new ArrayList<>(Math.min(limit, totalCount - offset));
+		int skip = offset;
+		for (ChunkShopkeepers chunkEntry : worldEntry.shopkeepersByChunk.values()) {
+			List<AbstractShopkeeper> chunkShopkeepers = chunkEntry.shopkeepers;
+			int chunkShopkeepersCount = chunkShopkeepers.size();
+			// Skip entire chunks that are located before the offset:
+			if (skip >= chunkShopkeepersCount) {
+				skip -= chunkShopkeepersCount;
+				continue;
 			}
-		};
+			int end = Math.min(chunkShopkeepersCount, skip + (limit - pageShopkeepers.size()));
+			pageShopkeepers.addAll(chunkShopkeepers.subList(skip, end));
+			skip = 0;
+			if (pageShopkeepers.size() >= limit) break;
+		}
+		return new ShopkeeperPage(Collections.unmodifiableList(pageShopkeepers), offset, totalCount);
 	}
 
 	// BY NAME
@@ -1491,27 +1780,50 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 	// BY SHOP OBJECT
 
 	public AbstractShopkeeper getActiveShopkeeper(Object objectId) {
+		if (objectId instanceof BlockLocation) {
+			// Default block object id:
+			BlockLocation blockLocation = (BlockLocation) objectId;
+			return this.getActiveShopkeeper(blockLocation.getWorldName(), blockLocation.getX(), blockLocation.getY(), blockLocation.getZ());
+		}
 		return activeShopkeepersByObjectId.get(objectId);
 	}
 
+	/**
+	 * Gets the active shopkeeper that uses the default block object id for the specified block coordinates.
+	 * <p>
+	 * This does not allocate any objects.
+	 * 
+	 * @param worldName
+	 *            the world name
+	 * @param blockX
+	 *            the block x coordinate
+	 * @param blockY
+	 *            the block y coordinate
+	 * @param blockZ
+	 *            the block z coordinate
+	 * @return the shopkeeper, or <code>null</code> if there is none
+	 * @see DefaultBlockShopObjectIds
+	 */
+	public AbstractShopkeeper getActiveShopkeeper(String worldName, int blockX, int blockY, int blockZ) {
+		LongObjectHashMap<AbstractShopkeeper> worldShopkeepers = activeShopkeepersByBlock.get(worldName);
+		if (worldShopkeepers == null) return null;
+		return worldShopkeepers.get(PackedCoordinates.blockKey(blockX, blockY, blockZ));
+	}
+
 	@Override
 	public AbstractShopkeeper getShopkeeperByEntity(Entity entity) {
 		if (entity == null) return null;
 		// Check by default object id first:
+		// Note: The entity's unique id is not newly allocated, and can be hashed cheaply.
 		Object objectId = DefaultEntityShopObjectIds.getObjectId(entity);
-		AbstractShopkeeper shopkeeper = this.getActiveShopkeeper(objectId);
+		AbstractShopkeeper shopkeeper = activeShopkeepersByObjectId.get(objectId);
 		if (shopkeeper != null) return shopkeeper;
 
 		// Check for entity shop object types which use non-default object ids:
-		for (ShopObjectType<?> shopObjectType : plugin.getShopObjectTypeRegistry().getRegisteredTypes()) {
-			if (shopObjectType instanceof AbstractEntityShopObjectType) {
-				AbstractEntityShopObjectType<?> entityShopObjectType = (AbstractEntityShopObjectType<?>) shopObjectType;
-				// TODO Cache the shop object types that don't use default ids.
-				if (entityShopObjectType.usesDefaultObjectIds()) continue;
-				objectId = entityShopObjectType.getObjectId(entity);
-				shopkeeper = this.getActiveShopkeeper(objectId);
-				if (shopkeeper != null) return shopkeeper;
-			}
+		for (AbstractEntityShopObjectType<?> entityShopObjectType : plugin.getShopObjectTypeRegistry().getEntityTypesWithNonDefaultIds()) {
+			objectId = entityShopObjectType.getObjectId(entity);
+			shopkeeper = this.getActiveShopkeeper(objectId);
+			if (shopkeeper != null) return shopkeeper;
 		}
 		return null;
 	}
@@ -1524,21 +1836,15 @@ public class SKShopkeeperRegistry implements ShopkeeperRegistry {
 	@Override
 	public AbstractShopkeeper getShopkeeperByBlock(Block block) {
 		if (block == null) return null;
-		// Check by default object id first:
-		Object objectId = DefaultBlockShopObjectIds.getObjectId(block);
-		AbstractShopkeeper shopkeeper = this.getActiveShopkeeper(objectId);
+		// Check by default object id first (does not create an object id):
+		AbstractShopkeeper shopkeeper = this.getActiveShopkeeper(block.getWorld().getName(), block.getX(), block.getY(), block.getZ());
 		if (shopkeeper != null) return shopkeeper;
 
 		// Check for block shop object types which use non-default object ids:
-		for (ShopObjectType<?> shopObjectType : plugin.getShopObjectTypeRegistry().getRegisteredTypes()) {
-			if (shopObjectType instanceof AbstractBlockShopObjectType) {
-				AbstractBlockShopObjectType<?> blockShopObjectType = (AbstractBlockShopObjectType<?>) shopObjectType;
-				// TODO Cache the shop object types that don't use default ids.
-				if (blockShopObjectType.usesDefaultObjectIds()) continue;
-				objectId = blockShopObjectType.getObjectId(block);
-				shopkeeper = this.getActiveShopkeeper(objectId);
-				if (shopkeeper != null) return shopkeeper;
-			}
+		for (AbstractBlockShopObjectType<?> blockShopObjectType : plugin.getShopObjectTypeRegistry().getBlockTypesWithNonDefaultIds()) {
+			Object objectId = blockShopObjectType.getObjectId(block);
+			shopkeeper = this.getActiveShopkeeper(objectId);
+			if (shopkeeper != null) return shopkeeper;
 		}
 		return null;
 	}
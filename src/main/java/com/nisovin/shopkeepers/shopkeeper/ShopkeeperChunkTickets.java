@@ -0,0 +1,192 @@
+package com.nisovin.shopkeepers.shopkeeper;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.Player;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import com.nisovin.shopkeepers.api.util.ChunkCoords;
+import com.nisovin.shopkeepers.config.Settings;
+import com.nisovin.shopkeepers.debug.DebugOptions;
+import com.nisovin.shopkeepers.util.Log;
+import com.nisovin.shopkeepers.util.LongObjectHashMap;
+import com.nisovin.shopkeepers.util.MutableChunkCoords;
+import com.nisovin.shopkeepers.util.PackedCoordinates;
+import com.nisovin.shopkeepers.util.Ticks;
+
+/**
+ * Keeps chunks with shopkeepers loaded for a configurable grace period after the last player has left their vicinity.
+ * <p>
+ * When players move along chunk borders, the same chunks are repeatedly loaded and unloaded, and their shopkeepers are
+ * repeatedly despawned and spawned again. When enabled, each chunk that gets activated receives a plugin chunk ticket,
+ * which prevents the chunk, and thereby its shopkeepers, from being unloaded. The ticket is only removed once no player
+ * has been within view distance of the chunk for the configured grace period. If a player returns to the chunk within
+ * this period, the already spawned shopkeepers are reused.
+ */
+// Used by the ShopkeeperRegistry.
+class ShopkeeperChunkTickets {
+
+	private static final long CHECK_PERIOD_TICKS = Ticks.PER_SECOND;
+
+	private static final class TicketedChunk {
+
+		final int chunkX;
+		final int chunkZ;
+		// The time (in milliseconds) at which a player was last within view distance of this chunk:
+		long lastNearbyMillis;
+
+		TicketedChunk(int chunkX, int chunkZ, long lastNearbyMillis) {
+			this.chunkX = chunkX;
+			this.chunkZ = chunkZ;
+			this.lastNearbyMillis = lastNearbyMillis;
+		}
+	}
+
+	private final Plugin plugin;
+	private final SKShopkeeperRegistry shopkeeperRegistry;
+	// World name -> chunk key -> ticketed chunk
+	private final Map<String, LongObjectHashMap<TicketedChunk>> ticketedChunks = new HashMap<>();
+	private BukkitTask task = null;
+
+	// Reused during the periodic checks:
+	private final MutableChunkCoords sharedChunkCoords = new MutableChunkCoords();
+	private final List<TicketedChunk> expiredChunks = new ArrayList<>();
+	private int[] playerChunks = new int[16]; // Pairs of chunk x and z coordinates
+	private final Location sharedLocation = new Location(null, 0, 0, 0);
+
+	ShopkeeperChunkTickets(Plugin plugin, SKShopkeeperRegistry shopkeeperRegistry) {
+		assert plugin != null && shopkeeperRegistry != null;
+		this.plugin = plugin;
+		this.shopkeeperRegistry = shopkeeperRegistry;
+	}
+
+	private boolean isEnabled() {
+		return (Settings.shopkeeperChunkUnloadDelaySeconds > 0);
+	}
+
+	void onEnable() {
+		if (!this.isEnabled()) return;
+		task = Bukkit.getScheduler().runTaskTimer(plugin, this::checkChunks, CHECK_PERIOD_TICKS, CHECK_PERIOD_TICKS);
+	}
+
+	void onDisable() {
+		if (task != null) {
+			task.cancel();
+			task = null;
+		}
+		// Remove all remaining chunk tickets:
+		for (String worldName : ticketedChunks.keySet()) {
+			World world = Bukkit.getWorld(worldName);
+			if (world != null) {
+				world.removePluginChunkTickets(plugin);
+			}
+		}
+		ticketedChunks.clear();
+	}
+
+	/**
+	 * Adds a chunk ticket to the given activated chunk, if chunk tickets are enabled.
+	 *
+	 * @param chunkCoords
+	 *            the chunk coordinates, not <code>null</code>
+	 */
+	void onChunkActivated(ChunkCoords chunkCoords) {
+		if (task == null) return; // Disabled
+		World world = Bukkit.getWorld(chunkCoords.getWorldName());
+		if (world == null) return;
+		int chunkX = chunkCoords.getChunkX();
+		int chunkZ = chunkCoords.getChunkZ();
+		LongObjectHashMap<TicketedChunk> worldChunks = ticketedChunks.computeIfAbsent(world.getName(), k -> new LongObjectHashMap<>());
+		long chunkKey = PackedCoordinates.chunkKey(chunkX, chunkZ);
+		if (worldChunks.containsKey(chunkKey)) return; // Already ticketed
+
+		worldChunks.put(chunkKey, new TicketedChunk(chunkX, chunkZ, System.currentTimeMillis()));
+		world.addPluginChunkTicket(chunkX, chunkZ, plugin);
+	}
+
+	private void checkChunks() {
+		long now = System.currentTimeMillis();
+		long gracePeriodMillis = Settings.shopkeeperChunkUnloadDelaySeconds * 1000L;
+		int viewDistance = Bukkit.getViewDistance();
+		Iterator<Entry<String, LongObjectHashMap<TicketedChunk>>> worldsIterator = ticketedChunks.entrySet().iterator();
+		while (worldsIterator.hasNext()) {
+			Entry<String, LongObjectHashMap<TicketedChunk>> worldEntry = worldsIterator.next();
+			String worldName = worldEntry.getKey();
+			LongObjectHashMap<TicketedChunk> worldChunks = worldEntry.getValue();
+			World world = Bukkit.getWorld(worldName);
+			if (world == null) {
+				// The world got unloaded, and with it all chunk tickets:
+				worldsIterator.remove();
+				continue;
+			}
+
+			int playerCount = this.updatePlayerChunks(world);
+			worldChunks.forEachValue(ticketedChunk -> {
+				if (this.isPlayerNearby(ticketedChunk, playerCount, viewDistance)) {
+					ticketedChunk.lastNearbyMillis = now;
+					return;
+				}
+				if (now - ticketedChunk.lastNearbyMillis >= gracePeriodMillis) {
+					expiredChunks.add(ticketedChunk);
+					return;
+				}
+				// Release the chunks that no longer contain any shopkeepers:
+				sharedChunkCoords.set(worldName, ticketedChunk.chunkX, ticketedChunk.chunkZ);
+				if (shopkeeperRegistry.getShopkeepersInChunk(sharedChunkCoords).isEmpty()) {
+					expiredChunks.add(ticketedChunk);
+				}
+			});
+
+			if (!expiredChunks.isEmpty()) {
+				for (TicketedChunk ticketedChunk : expiredChunks) {
+					worldChunks.remove(PackedCoordinates.chunkKey(ticketedChunk.chunkX, ticketedChunk.chunkZ));
+					world.removePluginChunkTicket(ticketedChunk.chunkX, ticketedChunk.chunkZ, plugin);
+				}
+				int released = expiredChunks.size();
+				Log.debug(DebugOptions.shopkeeperActivation,
+						() -> "Released the chunk tickets of " + released + " chunks in world " + worldName + "."
+				);
+				expiredChunks.clear();
+			}
+			if (worldChunks.isEmpty()) {
+				worldsIterator.remove();
+			}
+		}
+	}
+
+	// Returns the number of players.
+	private int updatePlayerChunks(World world) {
+		List<Player> players = world.getPlayers();
+		int playerCount = players.size();
+		if (playerChunks.length < playerCount * 2) {
+			playerChunks = new int[playerCount * 2];
+		}
+		for (int i = 0; i < playerCount; i++) {
+			Location location = players.get(i).getLocation(sharedLocation);
+			playerChunks[2 * i] = ChunkCoords.fromBlock(location.getBlockX());
+			playerChunks[2 * i + 1] = ChunkCoords.fromBlock(location.getBlockZ());
+		}
+		sharedLocation.setWorld(null); // Reset
+		return playerCount;
+	}
+
+	private boolean isPlayerNearby(TicketedChunk ticketedChunk, int playerCount, int viewDistance) {
+		for (int i = 0; i < playerCount; i++) {
+			int dx = Math.abs(playerChunks[2 * i] - ticketedChunk.chunkX);
+			int dz = Math.abs(playerChunks[2 * i + 1] - ticketedChunk.chunkZ);
+			if (dx <= viewDistance && dz <= viewDistance) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -1,10 +1,20 @@
 package com.nisovin.shopkeepers.shopkeeper;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
+import org.bukkit.Bukkit;
+import org.bukkit.World;
 import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
 
 import com.nisovin.shopkeepers.util.taskqueue.TaskQueue;
+import com.nisovin.shopkeepers.util.taskqueue.TaskQueueStatistics;
 
 /**
  * A queue for load balancing the spawning of shopkeepers.
@@ -12,9 +22,15 @@ import com.nisovin.shopkeepers.util.taskqueue.TaskQueue;
  * Creating and spawning lots of mobs, or placing lots of sign blocks with contents, is comparatively heavy
  * performance-wise. In order to avoid short performance drops (for instance when chunks with lots of shopkeepers are
  * loaded) we use this queue to always only spawn at most a few shopkeepers within the same tick.
+ * <p>
+ * Similar to a {@link TaskQueue}, but the pending shopkeepers are queued separately per world, and the available
+ * spawns of each task execution are distributed among the worlds in a round-robin fashion. This avoids that a single
+ * world with many shopkeepers (for instance during server start) delays the spawning of the shopkeepers in all other
+ * worlds. Worlds with players are served first, so that shopkeepers that players might be waiting for get spawned
+ * before the shopkeepers of worlds that are currently empty.
  */
 // Used by the ShopkeeperRegistry.
-public class ShopkeeperSpawnQueue extends TaskQueue<AbstractShopkeeper> {
+public class ShopkeeperSpawnQueue implements TaskQueueStatistics {
 
 	// With this configuration we can spawn around ~40 shopkeepers per second.
 	// A more frequently running task has a higher general overhead.
@@ -23,37 +39,199 @@ public class ShopkeeperSpawnQueue extends TaskQueue<AbstractShopkeeper> {
 	// 0.05-0.25ms, with an average of around 0.1ms.
 	private static final int SPAWNS_PER_EXECUTION = 6;
 
+	private static final class WorldQueue {
+
+		private final String worldName;
+		private final ArrayDeque<AbstractShopkeeper> pending = new ArrayDeque<>();
+		// Updated at the start of each task execution:
+		private boolean hasPlayers = false;
+
+		WorldQueue(String worldName) {
+			assert worldName != null;
+			this.worldName = worldName;
+		}
+	}
+
+	private final Plugin plugin;
 	private final Consumer<AbstractShopkeeper> spawner;
+	// World name -> world queue
+	private final Map<String, WorldQueue> worldQueuesByName = new HashMap<>();
+	// The world queues in round-robin order:
+	private final List<WorldQueue> worldQueues = new ArrayList<>();
+	// The index of the world queue that is served first during the next task execution:
+	private int nextWorldIndex = 0;
+	private int pendingCount = 0;
+	private int maxPending = 0;
+	private BukkitTask task = null;
 
 	ShopkeeperSpawnQueue(Plugin plugin, Consumer<AbstractShopkeeper> spawner) {
-		super(plugin, SPAWN_TASK_PERIOD_TICKS, SPAWNS_PER_EXECUTION);
-		assert spawner != null;
+		assert plugin != null && spawner != null;
+		this.plugin = plugin;
 		this.spawner = spawner;
 	}
 
 	private class SpawnerTask implements Runnable {
 
-		private final Runnable parentTask;
+		@Override
+		public void run() {
+			execute();
+		}
+	}
 
-		SpawnerTask(Runnable parentTask) {
-			assert parentTask != null;
-			this.parentTask = parentTask;
+	/**
+	 * This has to be called during plugin startup.
+	 * <p>
+	 * This starts the task that spawns pending shopkeepers.
+	 */
+	public void start() {
+		// Skip if the task is already running:
+		if (task != null) {
+			return;
 		}
 
-		@Override
-		public void run() {
-			parentTask.run();
+		// Start new task:
+		task = Bukkit.getScheduler().runTaskTimer(plugin, new SpawnerTask(), 1, SPAWN_TASK_PERIOD_TICKS);
+	}
+
+	/**
+	 * This has to be called on plugin shutdown.
+	 * <p>
+	 * This stops the task and clears the queue of pending shopkeepers (without spawning them).
+	 */
+	public void shutdown() {
+		if (task != null) {
+			task.cancel();
+			task = null;
 		}
+		worldQueuesByName.clear();
+		worldQueues.clear();
+		nextWorldIndex = 0;
+		pendingCount = 0;
+		maxPending = 0;
 	}
 
+	// SHOPKEEPERS
+
+	/**
+	 * Adds the given shopkeeper to the queue.
+	 *
+	 * @param shopkeeper
+	 *            the shopkeeper, not <code>null</code>, not virtual
+	 */
+	public void add(AbstractShopkeeper shopkeeper) {
+		assert shopkeeper != null && !shopkeeper.isVirtual();
+		String worldName = shopkeeper.getWorldName();
+		WorldQueue worldQueue = worldQueuesByName.get(worldName);
+		if (worldQueue == null) {
+			worldQueue = new WorldQueue(worldName);
+			worldQueuesByName.put(worldName, worldQueue);
+			worldQueues.add(worldQueue);
+		}
+		worldQueue.pending.add(shopkeeper);
+
+		// Update pending counts:
+		pendingCount++;
+		if (pendingCount > maxPending) {
+			maxPending = pendingCount;
+		}
+	}
+
+	/**
+	 * Removes the given shopkeeper from the queue if the queue contains it.
+	 *
+	 * @param shopkeeper
+	 *            the shopkeeper, not <code>null</code>
+	 */
+	public void remove(AbstractShopkeeper shopkeeper) {
+		assert shopkeeper != null;
+		if (pendingCount == 0) return;
+		// Note: Empty world queues are only removed at the end of task executions, because this might get called
+		// while the queue is being processed.
+		WorldQueue worldQueue = worldQueuesByName.get(shopkeeper.getWorldName());
+		if (worldQueue != null && worldQueue.pending.remove(shopkeeper)) {
+			pendingCount--;
+			return;
+		}
+
+		// The shopkeeper might have been moved to another world since it got queued:
+		for (WorldQueue otherWorldQueue : worldQueues) {
+			if (otherWorldQueue != worldQueue && otherWorldQueue.pending.remove(shopkeeper)) {
+				pendingCount--;
+				return;
+			}
+		}
+	}
+
+	// STATISTICS
+
 	@Override
-	protected Runnable createTask() {
-		return new SpawnerTask(super.createTask());
+	public int getPendingCount() {
+		return pendingCount;
 	}
 
 	@Override
-	protected void process(AbstractShopkeeper shopkeeper) {
-		// Spawn the shopkeeper:
-		spawner.accept(shopkeeper);
+	public int getMaxPendingCount() {
+		return maxPending;
+	}
+
+	// TASK
+
+	private void execute() {
+		// Skip if there are no pending shopkeepers:
+		if (pendingCount == 0) {
+			return;
+		}
+
+		// Update player presence:
+		for (WorldQueue worldQueue : worldQueues) {
+			World world = Bukkit.getWorld(worldQueue.worldName);
+			worldQueue.hasPlayers = (world != null && !world.getPlayers().isEmpty());
+		}
+
+		// Serve the worlds with players first:
+		int remainingSpawns = this.spawnRoundRobin(true, SPAWNS_PER_EXECUTION);
+		if (remainingSpawns > 0) {
+			this.spawnRoundRobin(false, remainingSpawns);
+		}
+
+		// Remove empty world queues:
+		Iterator<WorldQueue> iterator = worldQueues.iterator();
+		while (iterator.hasNext()) {
+			WorldQueue worldQueue = iterator.next();
+			if (worldQueue.pending.isEmpty()) {
+				iterator.remove();
+				worldQueuesByName.remove(worldQueue.worldName);
+			}
+		}
+
+		// Start with the next world during the next execution:
+		int worldCount = worldQueues.size();
+		nextWorldIndex = (worldCount == 0) ? 0 : ((nextWorldIndex + 1) % worldCount);
+	}
+
+	// Spawns at most one shopkeeper per world in each round. Returns the number of remaining spawns.
+	private int spawnRoundRobin(boolean hasPlayers, int spawns) {
+		// Note: Spawning a shopkeeper may add new world queues, but it does not remove any.
+		int worldCount = worldQueues.size();
+		int remainingSpawns = spawns;
+		boolean spawned = true;
+		while (remainingSpawns > 0 && spawned) {
+			spawned = false;
+			for (int i = 0; i < worldCount && remainingSpawns > 0; ++i) {
+				WorldQueue worldQueue = worldQueues.get((nextWorldIndex + i) % worldCount);
+				if (worldQueue.hasPlayers != hasPlayers) continue;
+
+				AbstractShopkeeper shopkeeper = worldQueue.pending.poll();
+				if (shopkeeper == null) continue; // The world queue is empty
+
+				pendingCount--;
+				remainingSpawns--;
+				spawned = true;
+
+				// Spawn the shopkeeper:
+				spawner.accept(shopkeeper);
+			}
+		}
+		return remainingSpawns;
 	}
 }
@@ -29,6 +29,12 @@ public abstract class AbstractAdminShopkeeper extends AbstractShopkeeper impleme
 			return (AbstractAdminShopkeeper) super.getShopkeeper();
 		}
 
+		// The trading recipes of admin shops do not depend on the trading player or on any container contents:
+		@Override
+		protected boolean isSharingMerchantRecipes() {
+			return true;
+		}
+
 		@Override
 		public boolean canOpen(Player player, boolean silent) {
 			if (!super.canOpen(player, silent)) return false;
@@ -6,6 +6,7 @@ import java.util.function.Supplier;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.configuration.ConfigurationSection;
 import org.bukkit.entity.Player;
@@ -27,6 +28,7 @@ import com.nisovin.shopkeepers.api.ui.DefaultUITypes;
 import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
 import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.container.ShopContainers;
+import com.nisovin.shopkeepers.container.protection.ProtectedContainers;
 import com.nisovin.shopkeepers.debug.DebugOptions;
 import com.nisovin.shopkeepers.lang.Messages;
 import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
@@ -59,6 +61,14 @@ public abstract class AbstractPlayerShopkeeper extends AbstractShopkeeper implem
 	// Initial threshold between [1, CHECK_CONTAINER_PERIOD_SECONDS] for load balancing:
 	private final RateLimiter checkContainerLimiter = new RateLimiter(CHECK_CONTAINER_PERIOD_SECONDS, nextCheckingOffset.getAndIncrement());
 
+	// The cached world of the container, and the world name it has been looked up for. Reset when the world is unloaded.
+	private World cachedContainerWorld = null;
+	private String cachedContainerWorldName = null;
+	// The cached live inventory of the container, and the time (in nanoseconds) at which it was cached. Reset when the
+	// container or any adjacent chest is changed, and when the chunk of the container is unloaded.
+	private Inventory cachedContainerInventory = null;
+	private long cachedContainerInventoryTime;
+
 	/**
 	 * Creates a not yet initialized {@link AbstractPlayerShopkeeper} (for use in sub-classes).
 	 * <p>
@@ -177,6 +187,7 @@ public abstract class AbstractPlayerShopkeeper extends AbstractShopkeeper implem
 
 		// Unregister previously protected container:
 		SKShopkeepersPlugin.getInstance().getProtectedContainers().removeContainer(this.getWorldName(), containerX, containerY, containerZ, this);
+		this.invalidateContainerCache();
 	}
 
 	@Override
@@ -254,9 +265,16 @@ public abstract class AbstractPlayerShopkeeper extends AbstractShopkeeper implem
 		Validate.notNull(ownerUUID, "Owner uuid is null!");
 		Validate.notEmpty(ownerName, "Owner name is empty!");
 		this.markDirty();
+		UUID oldOwnerUUID = this.ownerUUID;
+		String oldOwnerName = this.ownerName;
 		this.ownerUUID = ownerUUID;
 		this.ownerName = ownerName;
 
+		// Update the owner index of the shopkeeper registry:
+		if (this.isValid()) {
+			SKShopkeepersPlugin.getInstance().getShopkeeperRegistry().onShopOwnerChanged(this, oldOwnerUUID, oldOwnerName);
+		}
+
 		// Inform the shop object:
 		this.getShopObject().onShopOwnerChanged();
 	}
@@ -334,6 +352,7 @@ public abstract class AbstractPlayerShopkeeper extends AbstractShopkeeper implem
 		this.containerX = containerX;
 		this.containerY = containerY;
 		this.containerZ = containerZ;
+		this.invalidateContainerCache();
 
 		if (this.isValid()) {
 			// Register new protected container:
@@ -392,18 +411,59 @@ public abstract class AbstractPlayerShopkeeper extends AbstractShopkeeper implem
 		return this.getContainer();
 	}
 
+	// Uses the cached world, if it is still valid.
+	private World getContainerWorld() {
+		String worldName = this.getWorldName();
+		// The world name changes if the shopkeeper is moved to another world:
+		if (cachedContainerWorld == null || !worldName.equals(cachedContainerWorldName)) {
+			cachedContainerWorld = Bukkit.getWorld(worldName);
+			cachedContainerWorldName = worldName;
+		}
+		return cachedContainerWorld;
+	}
+
 	@Override
 	public Block getContainer() {
-		return Bukkit.getWorld(this.getWorldName()).getBlockAt(containerX, containerY, containerZ);
+		return this.getContainerWorld().getBlockAt(containerX, containerY, containerZ);
 	}
 
 	// Returns null if the container could not be found.
 	public Inventory getContainerInventory() {
 		Block container = this.getContainer();
-		if (ShopContainers.isSupportedContainer(container.getType())) {
-			return ShopContainers.getInventory(container); // Not null
+		if (!ShopContainers.isSupportedContainer(container.getType())) {
+			cachedContainerInventory = null;
+			return null;
+		}
+
+		// Reuse the cached live inventory, instead of creating a new snapshot of the container's block state:
+		long now = System.nanoTime();
+		if (cachedContainerInventory == null
+				|| (now - cachedContainerInventoryTime) >= ProtectedContainers.CONTAINER_CACHE_DURATION_NANOS) {
+			cachedContainerInventory = ShopContainers.getInventory(container); // Not null
+			cachedContainerInventoryTime = now;
 		}
-		return null;
+		return cachedContainerInventory;
+	}
+
+	/**
+	 * Invalidates the cached container inventory.
+	 * <p>
+	 * This is called when the container block, or any adjacent chest that might form a double chest with it, has been
+	 * changed, and when the chunk of the container is unloaded.
+	 */
+	public void invalidateContainerCache() {
+		cachedContainerInventory = null;
+	}
+
+	/**
+	 * Invalidates the cached container world, in addition to the cached container inventory.
+	 * <p>
+	 * This is called when the world of the container is unloaded.
+	 */
+	public void invalidateContainerWorldCache() {
+		cachedContainerWorld = null;
+		cachedContainerWorldName = null;
+		this.invalidateContainerCache();
 	}
 
 	// Returns an empty array if the container could not be found.
@@ -10,6 +10,7 @@ import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.lang.Messages;
 import com.nisovin.shopkeepers.ui.defaults.SKDefaultUITypes;
 import com.nisovin.shopkeepers.ui.defaults.TradingHandler;
+import com.nisovin.shopkeepers.util.ItemUtils;
 import com.nisovin.shopkeepers.util.Log;
 import com.nisovin.shopkeepers.util.PermissionUtils;
 import com.nisovin.shopkeepers.util.TextUtils;
@@ -18,7 +19,11 @@ public abstract class PlayerShopTradingHandler extends TradingHandler {
 
 	// State related to the currently handled trade:
 	protected Inventory containerInventory = null;
+	// Sub-classes modify these contents by assigning new item stacks to the changed slots (eg. via the ItemUtils
+	// functions), instead of modifying the item stacks directly. Only the changed slots are then written back to the
+	// container.
 	protected ItemStack[] newContainerContents = null;
+	private ItemStack[] originalContainerContents = null;
 
 	protected PlayerShopTradingHandler(AbstractPlayerShopkeeper shopkeeper) {
 		super(SKDefaultUITypes.TRADING(), shopkeeper);
@@ -83,7 +88,8 @@ public abstract class PlayerShopTradingHandler extends TradingHandler {
 
 		// Setup common state information for handling this trade:
 		this.containerInventory = containerInventory;
-		this.newContainerContents = containerInventory.getContents();
+		this.originalContainerContents = containerInventory.getContents();
+		this.newContainerContents = originalContainerContents.clone(); // Shallow copy
 
 		return true;
 	}
@@ -92,9 +98,9 @@ public abstract class PlayerShopTradingHandler extends TradingHandler {
 	protected void onTradeApplied(TradeData tradeData) {
 		super.onTradeApplied(tradeData);
 
-		// Apply container content changes:
+		// Apply container content changes (only writes the changed slots):
 		if (containerInventory != null && newContainerContents != null) {
-			containerInventory.setContents(newContainerContents);
+			ItemUtils.setChangedContents(containerInventory, originalContainerContents, newContainerContents);
 		}
 
 		// Reset trade related state information:
@@ -110,5 +116,6 @@ public abstract class PlayerShopTradingHandler extends TradingHandler {
 	protected void resetTradeState() {
 		containerInventory = null;
 		newContainerContents = null;
+		originalContainerContents = null;
 	}
 }
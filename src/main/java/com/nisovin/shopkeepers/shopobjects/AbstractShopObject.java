@@ -112,6 +112,12 @@ public abstract class AbstractShopObject implements ShopObject {
 	public void delete() {
 	}
 
+	/**
+	 * This is called when the location of the shopkeeper has changed.
+	 */
+	public void onShopkeeperMoved() {
+	}
+
 	// ACTIVATION
 
 	public void onChunkActivation() {
@@ -7,6 +7,7 @@ import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.shopobjects.DefaultShopObjectTypes;
 import com.nisovin.shopkeepers.shopobjects.citizens.SKCitizensShopObjectType;
 import com.nisovin.shopkeepers.shopobjects.living.SKLivingShopObjectTypes;
+import com.nisovin.shopkeepers.shopobjects.packet.SKPacketShopObjectType;
 import com.nisovin.shopkeepers.shopobjects.sign.SKSignShopObjectType;
 
 public class SKDefaultShopObjectTypes implements DefaultShopObjectTypes {
@@ -25,6 +26,7 @@ public class SKDefaultShopObjectTypes implements DefaultShopObjectTypes {
 		shopObjectTypes.addAll(this.getLivingShopObjectTypes().getAll());
 		shopObjectTypes.add(this.getSignShopObjectType());
 		shopObjectTypes.add(this.getCitizensShopObjectType());
+		shopObjectTypes.add(this.getPacketShopObjectType());
 		return shopObjectTypes;
 	}
 
@@ -43,6 +45,11 @@ public class SKDefaultShopObjectTypes implements DefaultShopObjectTypes {
 		return plugin.getCitizensShops().getCitizensShopObjectType();
 	}
 
+	// Not part of the API.
+	public SKPacketShopObjectType getPacketShopObjectType() {
+		return plugin.getPacketShops().getPacketShopObjectType();
+	}
+
 	// STATICS (for convenience):
 
 	public static SKDefaultShopObjectTypes getInstance() {
@@ -60,4 +67,8 @@ public class SKDefaultShopObjectTypes implements DefaultShopObjectTypes {
 	public static SKCitizensShopObjectType CITIZEN() {
 		return getInstance().getCitizensShopObjectType();
 	}
+
+	public static SKPacketShopObjectType PACKET() {
+		return getInstance().getPacketShopObjectType();
+	}
 }
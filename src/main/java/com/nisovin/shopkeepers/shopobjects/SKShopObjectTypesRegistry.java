@@ -1,12 +1,69 @@
 package com.nisovin.shopkeepers.shopobjects;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
 import com.nisovin.shopkeepers.api.shopobjects.ShopObjectTypesRegistry;
+import com.nisovin.shopkeepers.shopobjects.block.AbstractBlockShopObjectType;
+import com.nisovin.shopkeepers.shopobjects.entity.AbstractEntityShopObjectType;
 import com.nisovin.shopkeepers.types.AbstractSelectableTypeRegistry;
 
 public class SKShopObjectTypesRegistry extends AbstractSelectableTypeRegistry<AbstractShopObjectType<?>> implements ShopObjectTypesRegistry<AbstractShopObjectType<?>> {
 
+	// The registered block and entity shop object types that don't use the default object ids. These need to be
+	// queried individually when looking up the shopkeeper for a given block or entity.
+	private final List<AbstractBlockShopObjectType<?>> blockTypesWithNonDefaultIds = new ArrayList<>();
+	private final List<AbstractBlockShopObjectType<?>> blockTypesWithNonDefaultIdsView = Collections.unmodifiableList(blockTypesWithNonDefaultIds);
+	private final List<AbstractEntityShopObjectType<?>> entityTypesWithNonDefaultIds = new ArrayList<>();
+	private final List<AbstractEntityShopObjectType<?>> entityTypesWithNonDefaultIdsView = Collections.unmodifiableList(entityTypesWithNonDefaultIds);
+
 	@Override
 	protected String getTypeName() {
 		return "shop object type";
 	}
+
+	@Override
+	public void register(AbstractShopObjectType<?> type) {
+		super.register(type);
+		// Note: Whether a shop object type uses the default object ids is expected to be fixed.
+		if (type instanceof AbstractBlockShopObjectType) {
+			AbstractBlockShopObjectType<?> blockType = (AbstractBlockShopObjectType<?>) type;
+			if (!blockType.usesDefaultObjectIds()) {
+				blockTypesWithNonDefaultIds.add(blockType);
+			}
+		} else if (type instanceof AbstractEntityShopObjectType) {
+			AbstractEntityShopObjectType<?> entityType = (AbstractEntityShopObjectType<?>) type;
+			if (!entityType.usesDefaultObjectIds()) {
+				entityTypesWithNonDefaultIds.add(entityType);
+			}
+		}
+	}
+
+	@Override
+	public void clearAll() {
+		super.clearAll();
+		blockTypesWithNonDefaultIds.clear();
+		entityTypesWithNonDefaultIds.clear();
+	}
+
+	/**
+	 * Gets the registered {@link AbstractBlockShopObjectType block shop object types} that don't use the default
+	 * object ids.
+	 * 
+	 * @return an unmodifiable view on the block shop object types
+	 */
+	public List<AbstractBlockShopObjectType<?>> getBlockTypesWithNonDefaultIds() {
+		return blockTypesWithNonDefaultIdsView;
+	}
+
+	/**
+	 * Gets the registered {@link AbstractEntityShopObjectType entity shop object types} that don't use the default
+	 * object ids.
+	 * 
+	 * @return an unmodifiable view on the entity shop object types
+	 */
+	public List<AbstractEntityShopObjectType<?>> getEntityTypesWithNonDefaultIds() {
+		return entityTypesWithNonDefaultIdsView;
+	}
 }
@@ -91,6 +91,7 @@ public class LivingEntityAI implements Listener {
 	private static final MutableChunkCoords sharedChunkCoords = new MutableChunkCoords();
 
 	private final ShopkeepersPlugin plugin;
+	private final LivingShops livingShops;
 	/**
 	 * The MAX_FALLING_DISTANCE_PER_TICK scaled according to the configured tick rate.
 	 */
@@ -160,8 +161,9 @@ public class LivingEntityAI implements Listener {
 	private final Timer gravityTimings = new Timer();
 	private final Timer aiTimings = new Timer();
 
-	public LivingEntityAI(ShopkeepersPlugin plugin) {
+	public LivingEntityAI(ShopkeepersPlugin plugin, LivingShops livingShops) {
 		this.plugin = plugin;
+		this.livingShops = livingShops;
 	}
 
 	public void onEnable() {
@@ -505,6 +507,8 @@ public class LivingEntityAI implements Listener {
 		if (entity.isDead()) {
 			// Some plugin might have removed the entity. The shop object will remove the entity's entry once it
 			// recognizes that the entity has been removed. Until then we simply skip it here.
+			// With event-driven shop object checks, we inform the shop object about the removed entity:
+			livingShops.requestEntityCheck(entity);
 			return;
 		}
 
@@ -592,6 +596,9 @@ public class LivingEntityAI implements Listener {
 			// We are nearly there: Let's position the entity exactly on the ground and stop the falling.
 			fallingStepSize = entityData.distanceToGround;
 			entityData.falling = false;
+			// The entity has moved: With event-driven shop object checks, the shop object checks if it needs to
+			// teleport the entity back into place.
+			livingShops.requestEntityCheck(entity);
 		} else {
 			fallingStepSize = maxFallingDistancePerUpdate;
 			// We continue the falling and check for collisions again in the next tick.
@@ -23,6 +23,7 @@ import org.bukkit.event.entity.EntityCombustByBlockEvent;
 import org.bukkit.event.entity.EntityCombustEvent;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.entity.EntityDamageEvent;
+import org.bukkit.event.entity.EntityDeathEvent;
 import org.bukkit.event.entity.EntityDropItemEvent;
 import org.bukkit.event.entity.EntityExplodeEvent;
 import org.bukkit.event.entity.EntityPortalEvent;
@@ -59,10 +60,12 @@ import com.nisovin.shopkeepers.util.Utils;
 class LivingEntityShopListener implements Listener {
 
 	private final SKShopkeepersPlugin plugin;
+	private final LivingShops livingShops;
 	private final SKShopkeeperRegistry shopkeeperRegistry;
 
-	LivingEntityShopListener(SKShopkeepersPlugin plugin) {
+	LivingEntityShopListener(SKShopkeepersPlugin plugin, LivingShops livingShops) {
 		this.plugin = plugin;
+		this.livingShops = livingShops;
 		this.shopkeeperRegistry = plugin.getShopkeeperRegistry();
 	}
 
@@ -288,6 +291,32 @@ class LivingEntityShopListener implements Listener {
 		}
 	}
 
+	// Event-driven shop object checks: If some other plugin uncancelled any of these events, we check and correct the
+	// state of the affected shopkeeper entity during its next tick.
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onEntityTeleportMonitor(EntityTeleportEvent event) {
+		livingShops.requestEntityCheck(event.getEntity());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onEntityPortalTeleportMonitor(EntityPortalEvent event) {
+		livingShops.requestEntityCheck(event.getEntity());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onEntityPotionEffectMonitor(EntityPotionEffectEvent event) {
+		Action action = event.getAction();
+		if (action != Action.ADDED && action != Action.CHANGED) return;
+		livingShops.requestEntityCheck(event.getEntity());
+	}
+
+	// Shopkeeper entities are invulnerable, but they can still be killed by some means (eg. by the kill command).
+	@EventHandler(priority = EventPriority.MONITOR)
+	void onEntityDeath(EntityDeathEvent event) {
+		livingShops.requestEntityCheck(event.getEntity());
+	}
+
 	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = true)
 	void onPigZap(PigZapEvent event) {
 		if (shopkeeperRegistry.isShopkeeper(event.getEntity())) {
@@ -1,12 +1,23 @@
 package com.nisovin.shopkeepers.shopobjects.living;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.bukkit.Bukkit;
 import org.bukkit.Location;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Entity;
 import org.bukkit.entity.EntityType;
 import org.bukkit.event.HandlerList;
 
 import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.config.Settings;
+import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
+import com.nisovin.shopkeepers.shopobjects.AbstractShopObject;
+import com.nisovin.shopkeepers.util.LongObjectHashMap;
+import com.nisovin.shopkeepers.util.MutableChunkCoords;
+import com.nisovin.shopkeepers.util.MutableLong;
+import com.nisovin.shopkeepers.util.PackedCoordinates;
 
 public class LivingShops {
 
@@ -15,11 +26,16 @@ public class LivingShops {
 	private final LivingEntityAI livingEntityAI;
 	private final LivingEntityShopListener livingEntityShopListener;
 	private final CreatureForceSpawnListener creatureForceSpawnListener = new CreatureForceSpawnListener();
+	private final SpawnLocationChangeListener spawnLocationChangeListener = new SpawnLocationChangeListener(this);
+	private final MutableChunkCoords sharedChunkCoords = new MutableChunkCoords();
+	// World name -> chunk key -> number of living shop objects with a cached spawn location in that chunk
+	// Used to quickly filter block events in chunks without any cached spawn locations.
+	private final Map<String, LongObjectHashMap<MutableLong>> spawnLocationChunks = new HashMap<>();
 
 	public LivingShops(SKShopkeepersPlugin plugin) {
 		this.plugin = plugin;
-		livingEntityAI = new LivingEntityAI(plugin);
-		livingEntityShopListener = new LivingEntityShopListener(plugin);
+		livingEntityAI = new LivingEntityAI(plugin, this);
+		livingEntityShopListener = new LivingEntityShopListener(plugin, this);
 	}
 
 	public void onRegisterDefaults() {
@@ -33,16 +49,19 @@ public class LivingShops {
 		if (Settings.bypassSpawnBlocking) {
 			Bukkit.getPluginManager().registerEvents(creatureForceSpawnListener, plugin);
 		}
+		Bukkit.getPluginManager().registerEvents(spawnLocationChangeListener, plugin);
 	}
 
 	public void onDisable() {
 		livingEntityShopListener.onDisable();
 		HandlerList.unregisterAll(creatureForceSpawnListener);
+		HandlerList.unregisterAll(spawnLocationChangeListener);
 		// Reset force spawning:
 		creatureForceSpawnListener.forceCreatureSpawn(null, null);
 
 		// Stop living entity AI:
 		livingEntityAI.onDisable();
+		spawnLocationChunks.clear();
 	}
 
 	public SKLivingShopObjectTypes getLivingShopObjectTypes() {
@@ -53,6 +72,92 @@ public class LivingShops {
 		return livingEntityAI;
 	}
 
+	// Requests a check of the shop object of the given shopkeeper entity during its next tick, if event-driven shop
+	// object checks are enabled. Does nothing if the entity is not a living shopkeeper entity.
+	void requestEntityCheck(Entity entity) {
+		if (!Settings.eventDrivenShopObjectChecks) return;
+		AbstractShopkeeper shopkeeper = plugin.getShopkeeperRegistry().getShopkeeperByEntity(entity);
+		if (shopkeeper == null) return;
+		AbstractShopObject shopObject = shopkeeper.getShopObject();
+		if (shopObject instanceof SKLivingShopObject) {
+			((SKLivingShopObject<?>) shopObject).requestCheck();
+		}
+	}
+
+	// Invalidates the cached spawn locations of the living shop objects whose spawn location might be affected by a
+	// change of the given block. The spawn location depends on the blocks from two blocks below up to one block above
+	// the shopkeeper's location.
+	void invalidateSpawnLocations(Block block) {
+		// Quickly skip block changes in chunks without any cached spawn locations:
+		LongObjectHashMap<MutableLong> worldChunks = spawnLocationChunks.get(block.getWorld().getName());
+		if (worldChunks == null) return;
+		if (!worldChunks.containsKey(PackedCoordinates.chunkKeyOfBlock(block.getX(), block.getZ()))) return;
+
+		sharedChunkCoords.set(block);
+		for (AbstractShopkeeper shopkeeper : plugin.getShopkeeperRegistry().getShopkeepersInChunk(sharedChunkCoords)) {
+			if (shopkeeper.getX() != block.getX() || shopkeeper.getZ() != block.getZ()) continue;
+			int offsetY = block.getY() - shopkeeper.getY();
+			if (offsetY < -2 || offsetY > 1) continue;
+
+			AbstractShopObject shopObject = shopkeeper.getShopObject();
+			if (shopObject instanceof SKLivingShopObject) {
+				((SKLivingShopObject<?>) shopObject).invalidateSpawnLocation();
+			}
+		}
+	}
+
+	// Invalidates the cached spawn locations of all living shop objects in the specified chunk.
+	void invalidateSpawnLocationsInChunk(String worldName, int chunkX, int chunkZ) {
+		LongObjectHashMap<MutableLong> worldChunks = spawnLocationChunks.get(worldName);
+		if (worldChunks == null) return;
+		if (!worldChunks.containsKey(PackedCoordinates.chunkKey(chunkX, chunkZ))) return;
+
+		sharedChunkCoords.set(worldName, chunkX, chunkZ);
+		for (AbstractShopkeeper shopkeeper : plugin.getShopkeeperRegistry().getShopkeepersInChunk(sharedChunkCoords)) {
+			AbstractShopObject shopObject = shopkeeper.getShopObject();
+			if (shopObject instanceof SKLivingShopObject) {
+				((SKLivingShopObject<?>) shopObject).invalidateSpawnLocation();
+			}
+		}
+	}
+
+	// Invalidates the cached spawn locations of all living shop objects in the specified world.
+	void invalidateSpawnLocationsInWorld(String worldName) {
+		if (!spawnLocationChunks.containsKey(worldName)) return;
+		for (AbstractShopkeeper shopkeeper : plugin.getShopkeeperRegistry().getShopkeepersInWorld(worldName)) {
+			AbstractShopObject shopObject = shopkeeper.getShopObject();
+			if (shopObject instanceof SKLivingShopObject) {
+				((SKLivingShopObject<?>) shopObject).invalidateSpawnLocation();
+			}
+		}
+	}
+
+	void onSpawnLocationCached(String worldName, int blockX, int blockZ) {
+		LongObjectHashMap<MutableLong> worldChunks = spawnLocationChunks.computeIfAbsent(worldName, k -> new LongObjectHashMap<>());
+		long chunkKey = PackedCoordinates.chunkKeyOfBlock(blockX, blockZ);
+		MutableLong count = worldChunks.get(chunkKey);
+		if (count == null) {
+			count = new MutableLong();
+			worldChunks.put(chunkKey, count);
+		}
+		count.increment(1L);
+	}
+
+	void onSpawnLocationInvalidated(String worldName, int blockX, int blockZ) {
+		LongObjectHashMap<MutableLong> worldChunks = spawnLocationChunks.get(worldName);
+		if (worldChunks == null) return; // Not expected
+		long chunkKey = PackedCoordinates.chunkKeyOfBlock(blockX, blockZ);
+		MutableLong count = worldChunks.get(chunkKey);
+		if (count == null) return; // Not expected
+		count.decrement(1L);
+		if (count.getValue() <= 0L) {
+			worldChunks.remove(chunkKey);
+			if (worldChunks.isEmpty()) {
+				spawnLocationChunks.remove(worldName);
+			}
+		}
+	}
+
 	// Bypassing creature spawn blocking plugins ('region protection' plugins):
 	void forceCreatureSpawn(Location location, EntityType entityType) {
 		if (Settings.bypassSpawnBlocking) {
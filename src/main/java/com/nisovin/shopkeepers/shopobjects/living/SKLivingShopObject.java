@@ -50,6 +50,11 @@ public class SKLivingShopObject<E extends LivingEntity> extends AbstractEntitySh
 
 	protected static final int CHECK_PERIOD_SECONDS = 10;
 	private static final CyclicCounter nextCheckingOffset = new CyclicCounter(1, CHECK_PERIOD_SECONDS + 1);
+	// If event-driven checks are enabled, the entity is usually only checked when one of the relevant events indicates
+	// a need for it. Additionally, we still periodically check the entity in a larger interval, in order to also detect
+	// changes that are not covered by any events (eg. plugins moving or removing the entity):
+	protected static final int EVENT_DRIVEN_CHECK_PERIOD_SECONDS = 60;
+	private static final CyclicCounter nextEventDrivenCheckingOffset = new CyclicCounter(1, EVENT_DRIVEN_CHECK_PERIOD_SECONDS + 1);
 	// If the entity could not be respawned this amount of times, we throttle its tick rate (i.e. the rate at which we
 	// attempt to respawn it):
 	protected static final int MAX_RESPAWN_ATTEMPTS = 5;
@@ -61,19 +66,36 @@ public class SKLivingShopObject<E extends LivingEntity> extends AbstractEntitySh
 	private final SKLivingShopObjectType<?> livingObjectType;
 	private E entity;
 	private Location lastSpawnLocation = null;
+	// The last determined spawn location. Kept while the shopkeeper is despawned (eg. during world saves). Invalidated
+	// when the shopkeeper is moved, when its chunk or world is unloaded, or when blocks change that might affect the
+	// spawn location:
+	private Location cachedSpawnLocation = null;
 	private int respawnAttempts = 0;
 	private boolean debuggingSpawn = false;
 	private static long lastSpawnDebugging = 0; // Shared among all living shopkeepers to prevent spam
 
-	// Initial threshold between [1, CHECK_PERIOD_SECONDS] for load balancing:
-	private final int checkingOffset = nextCheckingOffset.getAndIncrement();
-	private final RateLimiter checkLimiter = new RateLimiter(CHECK_PERIOD_SECONDS, checkingOffset);
+	// The regular check period, depending on whether event-driven checks are enabled:
+	private final int checkPeriodSeconds;
+	// Initial threshold between [1, checkPeriodSeconds] for load balancing:
+	private final int checkingOffset;
+	private final RateLimiter checkLimiter;
+	private boolean tickRateThrottled = false;
+	// Whether some event requested a check of the entity during the next tick:
+	private boolean checkRequested = false;
 
 	protected SKLivingShopObject(	LivingShops livingShops, SKLivingShopObjectType<?> livingObjectType,
 									AbstractShopkeeper shopkeeper, ShopCreationData creationData) {
 		super(shopkeeper, creationData);
 		this.livingShops = livingShops;
 		this.livingObjectType = livingObjectType;
+		if (Settings.eventDrivenShopObjectChecks) {
+			this.checkPeriodSeconds = EVENT_DRIVEN_CHECK_PERIOD_SECONDS;
+			this.checkingOffset = nextEventDrivenCheckingOffset.getAndIncrement();
+		} else {
+			this.checkPeriodSeconds = CHECK_PERIOD_SECONDS;
+			this.checkingOffset = nextCheckingOffset.getAndIncrement();
+		}
+		this.checkLimiter = new RateLimiter(checkPeriodSeconds, checkingOffset);
 	}
 
 	@Override
@@ -114,10 +136,26 @@ public class SKLivingShopObject<E extends LivingEntity> extends AbstractEntitySh
 	// This also applies with gravity disabled, and even if the block below their spawn block is air now: Passable
 	// blocks like grass or non-full blocks like carpets or slabs might have been broken since the shopkeeper was
 	// created. We still want to place the shopkeeper nicely on the ground in those cases.
+	// The spawn location is cached, since it is determined again whenever the entity is spawned or teleported back into
+	// place. The returned location is a copy that can be freely modified.
 	private Location getSpawnLocation() {
 		World world = Bukkit.getWorld(shopkeeper.getWorldName());
 		if (world == null) return null; // World not loaded
 
+		Location cachedSpawnLocation = this.cachedSpawnLocation;
+		if (cachedSpawnLocation != null && cachedSpawnLocation.getWorld() == world) {
+			return cachedSpawnLocation.clone();
+		}
+
+		Location spawnLocation = this.determineSpawnLocation(world);
+		this.invalidateSpawnLocation();
+		this.cachedSpawnLocation = spawnLocation.clone();
+		livingShops.onSpawnLocationCached(world.getName(), shopkeeper.getX(), shopkeeper.getZ());
+		return spawnLocation;
+	}
+
+	private Location determineSpawnLocation(World world) {
+		assert world != null;
 		Location spawnLocation = new Location(world, shopkeeper.getX() + 0.5D, shopkeeper.getY() + SPAWN_LOCATION_OFFSET, shopkeeper.getZ() + 0.5D);
 
 		// The entity may be able to stand on certain types of fluids:
@@ -143,6 +181,25 @@ public class SKLivingShopObject<E extends LivingEntity> extends AbstractEntitySh
 		return spawnLocation;
 	}
 
+	/**
+	 * Invalidates the cached spawn location.
+	 * <p>
+	 * This is called when the blocks at or around the shopkeeper's location have changed, or when the shopkeeper's
+	 * chunk or world is unloaded.
+	 */
+	void invalidateSpawnLocation() {
+		Location cachedSpawnLocation = this.cachedSpawnLocation;
+		if (cachedSpawnLocation == null) return;
+		this.cachedSpawnLocation = null;
+		livingShops.onSpawnLocationInvalidated(cachedSpawnLocation.getWorld().getName(), cachedSpawnLocation.getBlockX(), cachedSpawnLocation.getBlockZ());
+	}
+
+	@Override
+	public void onShopkeeperMoved() {
+		super.onShopkeeperMoved();
+		this.invalidateSpawnLocation();
+	}
+
 	// Any preparation that needs to be done before spawning. Might only allow limited operations.
 	protected void prepareEntity(E entity) {
 		// Assign metadata for easy identification by other plugins:
@@ -404,7 +461,9 @@ public class SKLivingShopObject<E extends LivingEntity> extends AbstractEntitySh
 	@Override
 	public void tick() {
 		super.tick();
-		if (checkLimiter.request()) {
+		boolean checkRequested = this.checkRequested;
+		this.checkRequested = false;
+		if (checkLimiter.request() || checkRequested) {
 			this.check();
 
 			// Indicate ticking activity for visualization:
@@ -413,21 +472,41 @@ public class SKLivingShopObject<E extends LivingEntity> extends AbstractEntitySh
 	}
 
 	private boolean isTickRateThrottled() {
-		return (checkLimiter.getThreshold() == THROTTLED_CHECK_PERIOD_SECONDS);
+		// Note: With event-driven checks, the regular check period might match the throttled check period.
+		return tickRateThrottled;
 	}
 
 	private void throttleTickRate() {
 		if (this.isTickRateThrottled()) return; // Already throttled
 		Log.debug("Throttling tick rate");
+		tickRateThrottled = true;
 		checkLimiter.setThreshold(THROTTLED_CHECK_PERIOD_SECONDS);
 		checkLimiter.setRemainingThreshold(THROTTLED_CHECK_PERIOD_SECONDS + checkingOffset);
 	}
 
 	private void resetTickRate() {
-		checkLimiter.setThreshold(CHECK_PERIOD_SECONDS);
+		tickRateThrottled = false;
+		checkLimiter.setThreshold(checkPeriodSeconds);
 		checkLimiter.setRemainingThreshold(checkingOffset);
 	}
 
+	// With event-driven checks, we retry failed respawns at the normal check rate.
+	private void useRespawnTickRate() {
+		if (checkLimiter.getThreshold() == CHECK_PERIOD_SECONDS) return; // Already using the normal check rate
+		checkLimiter.setThreshold(CHECK_PERIOD_SECONDS);
+		checkLimiter.setRemainingThreshold(CHECK_PERIOD_SECONDS);
+	}
+
+	/**
+	 * Requests a check of the entity during the next tick of this shop object.
+	 * <p>
+	 * This is used if event-driven checks are enabled, in order to react to events that indicate that the entity has
+	 * been moved, affected by potion effects, or removed.
+	 */
+	void requestCheck() {
+		checkRequested = true;
+	}
+
 	private void check() {
 		if (!this.isActive()) {
 			this.respawnInactiveEntity();
@@ -462,6 +541,8 @@ public class SKLivingShopObject<E extends LivingEntity> extends AbstractEntitySh
 			if (respawnAttempts >= MAX_RESPAWN_ATTEMPTS) {
 				// Throttle the rate at which we attempt to respawn the entity:
 				this.throttleTickRate();
+			} else if (!this.isTickRateThrottled()) {
+				this.useRespawnTickRate();
 			}
 		} // Else: respawnAttempts and tick rate got reset.
 		return spawned;
@@ -489,7 +570,7 @@ public class SKLivingShopObject<E extends LivingEntity> extends AbstractEntitySh
 			// Teleport back:
 			Log.debug(DebugOptions.regularTickActivities, () -> "Shopkeeper (" + shopkeeper.getPositionString()
 					+ ") out of place, teleporting back");
-			// We freshly determine a potentially new spawn location:
+			// We use the current, potentially new spawn location (which is invalidated on relevant block changes):
 			// The previous spawn location might no longer be ideal. For example, if the shopkeeper previously spawned
 			// slightly below its actual spawn location (due to there missing some block), players might want to reset
 			// the shopkeeper's location by letting it fall due to gravity and then placing a block below its actual
@@ -0,0 +1,96 @@
+package com.nisovin.shopkeepers.shopobjects.living;
+
+import java.util.List;
+
+import org.bukkit.Chunk;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockPistonExtendEvent;
+import org.bukkit.event.block.BlockPistonRetractEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityChangeBlockEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.event.world.WorldUnloadEvent;
+
+/**
+ * Invalidates the cached spawn locations of living shop objects on block changes that might affect these spawn
+ * locations, and when their chunk or world is unloaded.
+ * <p>
+ * Frequent block changes, such as fluid flows or blocks forming and fading, are not monitored. Their effect on the
+ * spawn location is only taken into account once the cached spawn location is invalidated for another reason, such as
+ * the chunk being unloaded.
+ */
+class SpawnLocationChangeListener implements Listener {
+
+	private final LivingShops livingShops;
+
+	SpawnLocationChangeListener(LivingShops livingShops) {
+		this.livingShops = livingShops;
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onBlockBreak(BlockBreakEvent event) {
+		livingShops.invalidateSpawnLocations(event.getBlock());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onBlockPlace(BlockPlaceEvent event) {
+		livingShops.invalidateSpawnLocations(event.getBlock());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onEntityChangeBlock(EntityChangeBlockEvent event) {
+		livingShops.invalidateSpawnLocations(event.getBlock());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onEntityExplosion(EntityExplodeEvent event) {
+		this.invalidateSpawnLocations(event.blockList());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onBlockExplosion(BlockExplodeEvent event) {
+		this.invalidateSpawnLocations(event.blockList());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onPistonExtend(BlockPistonExtendEvent event) {
+		this.invalidateSpawnLocations(event.getBlocks(), event.getDirection());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onPistonRetract(BlockPistonRetractEvent event) {
+		this.invalidateSpawnLocations(event.getBlocks(), event.getDirection());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onChunkUnload(ChunkUnloadEvent event) {
+		Chunk chunk = event.getChunk();
+		livingShops.invalidateSpawnLocationsInChunk(chunk.getWorld().getName(), chunk.getX(), chunk.getZ());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onWorldUnload(WorldUnloadEvent event) {
+		livingShops.invalidateSpawnLocationsInWorld(event.getWorld().getName());
+	}
+
+	private void invalidateSpawnLocations(List<Block> blocks) {
+		for (Block block : blocks) {
+			livingShops.invalidateSpawnLocations(block);
+		}
+	}
+
+	// Moved blocks affect both their current and their new location.
+	private void invalidateSpawnLocations(List<Block> movedBlocks, BlockFace direction) {
+		for (Block block : movedBlocks) {
+			livingShops.invalidateSpawnLocations(block);
+			livingShops.invalidateSpawnLocations(block.getRelative(direction));
+		}
+	}
+}
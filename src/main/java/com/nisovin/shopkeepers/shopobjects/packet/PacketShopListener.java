@@ -0,0 +1,147 @@
+package com.nisovin.shopkeepers.shopobjects.packet;
+
+import org.bukkit.Bukkit;
+import org.bukkit.GameMode;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerChangedWorldEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRespawnEvent;
+import org.bukkit.event.player.PlayerTeleportEvent;
+import org.bukkit.inventory.PlayerInventory;
+
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
+import com.nisovin.shopkeepers.compat.api.PacketEntityProvider;
+import com.nisovin.shopkeepers.config.Settings;
+import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
+import com.nisovin.shopkeepers.util.BookItems;
+import com.nisovin.shopkeepers.util.Log;
+import com.nisovin.shopkeepers.util.Utils;
+
+class PacketShopListener implements Listener {
+
+	private final SKShopkeepersPlugin plugin;
+	private final PacketShops packetShops;
+	// Invoked on the players' network threads:
+	private final PacketEntityProvider.InteractionListener interactionListener = this::onInteractionPacket;
+
+	PacketShopListener(SKShopkeepersPlugin plugin, PacketShops packetShops) {
+		this.plugin = plugin;
+		this.packetShops = packetShops;
+	}
+
+	void onEnable() {
+		Bukkit.getPluginManager().registerEvents(this, plugin);
+		PacketEntityProvider packetEntityProvider = PacketShops.getPacketEntityProvider();
+		for (Player player : Bukkit.getOnlinePlayers()) {
+			packetEntityProvider.registerInteractionListener(player, interactionListener);
+		}
+	}
+
+	void onDisable() {
+		HandlerList.unregisterAll(this);
+		PacketEntityProvider packetEntityProvider = PacketShops.getPacketEntityProvider();
+		if (packetEntityProvider == null) return;
+		for (Player player : Bukkit.getOnlinePlayers()) {
+			packetEntityProvider.unregisterInteractionListener(player);
+		}
+	}
+
+	// INTERACTIONS
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	void onPlayerJoin(PlayerJoinEvent event) {
+		PacketShops.getPacketEntityProvider().registerInteractionListener(event.getPlayer(), interactionListener);
+	}
+
+	// This is called on the player's network thread.
+	private void onInteractionPacket(Player player, int entityId) {
+		// Quickly ignore the interactions with other entities:
+		if (!packetShops.isShopEntity(entityId)) return;
+		if (!plugin.isEnabled()) return;
+		Bukkit.getScheduler().runTask(plugin, () -> this.onInteraction(player, entityId));
+	}
+
+	// The server is not aware of the packet entities and therefore ignores the players' interactions with them. There
+	// is no interaction event that we could cancel, or that other plugins could react to. Otherwise, this performs the
+	// same checks as the interactions with living shopkeepers.
+	private void onInteraction(Player player, int entityId) {
+		if (!player.isOnline()) return;
+		SKPacketShopObject shopObject = packetShops.getShopByEntityId(entityId);
+		if (shopObject == null) return; // Despawned in the meantime
+
+		AbstractShopkeeper shopkeeper = shopObject.getShopkeeper();
+		Log.debug(() -> "Player " + player.getName() + " is interacting with packet shop " + shopkeeper.getId()
+				+ " at " + shopkeeper.getPositionString());
+
+		// Update inventory in case the client has predicted an item action (such as the use of a name tag):
+		player.updateInventory();
+
+		if (player.getGameMode() == GameMode.SPECTATOR) {
+			Log.debug("  Ignoring interaction of spectator");
+			return;
+		}
+
+		// The server would check the interaction range for actual entities:
+		Location shopLocation = shopObject.getSpawnLocation();
+		Location playerLocation = player.getLocation();
+		if (playerLocation.getWorld() != shopLocation.getWorld()
+				|| playerLocation.distanceSquared(shopLocation) >= PacketShops.INTERACTION_RANGE_SQ) {
+			Log.debug("  Ignoring interaction out of range");
+			return;
+		}
+
+		// Minecraft bug: https://bugs.mojang.com/browse/MC-141494
+		// See the corresponding check for living shopkeepers.
+		// TODO This has been fixed in MC 1.16. Remove this check once we only support MC 1.16 and above.
+		PlayerInventory inventory = player.getInventory();
+		if (BookItems.isWrittenBook(inventory.getItemInMainHand()) || BookItems.isWrittenBook(inventory.getItemInOffHand())) {
+			Log.debug("  Ignoring interaction due to holding a written book in main or off hand. See Minecraft issue MC-141494.");
+			return;
+		}
+
+		// Check the entity interaction result by calling an interact event:
+		if (Settings.checkShopInteractionResult) {
+			if (!Utils.checkEntityInteract(player, shopObject.getEntity())) {
+				Log.debug("  Cancelled by another plugin");
+				return;
+			}
+		}
+
+		// Handle interaction:
+		shopkeeper.onPlayerInteraction(player);
+	}
+
+	// VIEWERS
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	void onPlayerQuit(PlayerQuitEvent event) {
+		packetShops.onPlayerQuit(event.getPlayer());
+	}
+
+	// The client discards all entities when the player respawns or changes the world:
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	void onPlayerRespawn(PlayerRespawnEvent event) {
+		packetShops.forgetShownShops(event.getPlayer());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR)
+	void onPlayerChangedWorld(PlayerChangedWorldEvent event) {
+		packetShops.forgetShownShops(event.getPlayer());
+	}
+
+	// The client might discard the entities in the chunks it unloads after a teleport. When the player returns before
+	// the next view update, these shops would otherwise not be shown again.
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onPlayerTeleport(PlayerTeleportEvent event) {
+		if (event.getTo() == null) return;
+		if (!PacketShops.isOutOfViewRange(event.getFrom(), event.getTo())) return;
+		packetShops.hideShownShops(event.getPlayer());
+	}
+}
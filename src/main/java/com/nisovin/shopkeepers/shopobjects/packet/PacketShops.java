@@ -0,0 +1,306 @@
+package com.nisovin.shopkeepers.shopobjects.packet;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
+import com.nisovin.shopkeepers.compat.NMSManager;
+import com.nisovin.shopkeepers.compat.api.NMSCallProvider;
+import com.nisovin.shopkeepers.compat.api.PacketEntityProvider;
+import com.nisovin.shopkeepers.config.Settings;
+import com.nisovin.shopkeepers.util.Log;
+import com.nisovin.shopkeepers.util.LongObjectHashMap;
+import com.nisovin.shopkeepers.util.PackedCoordinates;
+
+/**
+ * Packet shops are not spawned as entities into the world. Instead, their entities are only shown to the players within
+ * {@link #VIEW_RANGE view range} by sending them the corresponding entity packets.
+ * <p>
+ * Since the server is not aware of these entities, it ignores the players' interactions with them. These interactions
+ * are instead detected by listening for the corresponding packets that the players send.
+ */
+public class PacketShops {
+
+	// Roughly matches the default entity tracking range of villagers:
+	private static final double VIEW_RANGE = 48.0D;
+	private static final double VIEW_RANGE_SQ = VIEW_RANGE * VIEW_RANGE;
+	private static final int VIEW_CHUNK_RANGE = (int) Math.ceil(VIEW_RANGE / 16.0D);
+	// Matches the range of the look-at-player goal of shop mobs:
+	private static final double LOOK_RANGE = 12.0D;
+	private static final double LOOK_RANGE_SQ = LOOK_RANGE * LOOK_RANGE;
+	private static final int VIEW_UPDATE_PERIOD_TICKS = 5;
+
+	// Matches the range in which the server accepts interactions with entities:
+	private static final double INTERACTION_RANGE = 6.0D;
+	static final double INTERACTION_RANGE_SQ = INTERACTION_RANGE * INTERACTION_RANGE;
+
+	private static class ShownShop {
+
+		int headAngle;
+		int lastUpdate;
+
+		ShownShop() {
+		}
+	}
+
+	private static class ShopViewer {
+
+		final Map<SKPacketShopObject, ShownShop> shownShops = new HashMap<>();
+
+		ShopViewer() {
+		}
+	}
+
+	private final SKShopkeepersPlugin plugin;
+	private final SKPacketShopObjectType packetShopObjectType = new SKPacketShopObjectType(this);
+	private final PacketShopListener packetShopListener;
+	// World name -> chunk key -> spawned packet shops in that chunk
+	private final Map<String, LongObjectHashMap<List<SKPacketShopObject>>> spawnedShops = new HashMap<>();
+	// Entity id -> spawned packet shop. Also accessed by the players' network threads.
+	private final Map<Integer, SKPacketShopObject> shopsByEntityId = new ConcurrentHashMap<>();
+	// Player unique id -> packet shops that are currently shown to the player
+	private final Map<UUID, ShopViewer> viewers = new HashMap<>();
+	private BukkitTask viewUpdateTask = null;
+	private int viewUpdateCounter = 0;
+
+	private final Location sharedLocation = new Location(null, 0.0D, 0.0D, 0.0D);
+
+	public PacketShops(SKShopkeepersPlugin plugin) {
+		this.plugin = plugin;
+		this.packetShopListener = new PacketShopListener(plugin, this);
+	}
+
+	public void onEnable() {
+		if (!Settings.enablePacketShops) return; // Feature disabled
+		if (!isSupported()) {
+			Log.warning("Packet shops are not supported on this server version!");
+			return;
+		}
+
+		packetShopListener.onEnable();
+		viewUpdateTask = Bukkit.getScheduler().runTaskTimer(plugin, this::updateViewers, VIEW_UPDATE_PERIOD_TICKS, VIEW_UPDATE_PERIOD_TICKS);
+	}
+
+	public void onDisable() {
+		if (viewUpdateTask != null) {
+			viewUpdateTask.cancel();
+			viewUpdateTask = null;
+		}
+		packetShopListener.onDisable();
+		// The packet shops have already been despawned at this point:
+		viewers.clear();
+		spawnedShops.clear();
+		shopsByEntityId.clear();
+	}
+
+	private static boolean isSupported() {
+		return (getPacketEntityProvider() != null);
+	}
+
+	// Null if not supported.
+	static PacketEntityProvider getPacketEntityProvider() {
+		NMSCallProvider nmsProvider = NMSManager.getProvider();
+		if (nmsProvider == null) return null;
+		return nmsProvider.getPacketEntityProvider();
+	}
+
+	/**
+	 * Checks if packet shops are enabled and supported by the current server version.
+	 * 
+	 * @return <code>true</code> if packet shops are enabled
+	 */
+	public boolean isEnabled() {
+		return Settings.enablePacketShops && isSupported();
+	}
+
+	public SKPacketShopObjectType getPacketShopObjectType() {
+		return packetShopObjectType;
+	}
+
+	// SPAWNED SHOPS
+
+	void onShopSpawned(SKPacketShopObject shopObject) {
+		Location location = shopObject.getSpawnLocation();
+		assert location != null;
+		LongObjectHashMap<List<SKPacketShopObject>> worldShops = spawnedShops.computeIfAbsent(location.getWorld().getName(), k -> new LongObjectHashMap<>());
+		long chunkKey = PackedCoordinates.chunkKeyOfBlock(location.getBlockX(), location.getBlockZ());
+		List<SKPacketShopObject> chunkShops = worldShops.get(chunkKey);
+		if (chunkShops == null) {
+			chunkShops = new ArrayList<>(1);
+			worldShops.put(chunkKey, chunkShops);
+		}
+		chunkShops.add(shopObject);
+		shopsByEntityId.put(shopObject.getEntity().getEntityId(), shopObject);
+		// The shop is shown to nearby players during the next view update.
+	}
+
+	void onShopDespawned(SKPacketShopObject shopObject) {
+		Location location = shopObject.getSpawnLocation();
+		assert location != null;
+		int entityId = shopObject.getEntity().getEntityId();
+		shopsByEntityId.remove(entityId);
+		String worldName = location.getWorld().getName();
+		LongObjectHashMap<List<SKPacketShopObject>> worldShops = spawnedShops.get(worldName);
+		if (worldShops != null) {
+			long chunkKey = PackedCoordinates.chunkKeyOfBlock(location.getBlockX(), location.getBlockZ());
+			List<SKPacketShopObject> chunkShops = worldShops.get(chunkKey);
+			if (chunkShops != null) {
+				chunkShops.remove(shopObject);
+				if (chunkShops.isEmpty()) {
+					worldShops.remove(chunkKey);
+					if (worldShops.isEmpty()) {
+						spawnedShops.remove(worldName);
+					}
+				}
+			}
+		}
+
+		// Hide the shop from all players:
+		if (viewers.isEmpty()) return;
+		PacketEntityProvider packetEntityProvider = getPacketEntityProvider();
+		viewers.forEach((playerId, viewer) -> {
+			if (viewer.shownShops.remove(shopObject) == null) return;
+			Player player = Bukkit.getPlayer(playerId);
+			if (player == null) return;
+			packetEntityProvider.sendPacketEntityDestroy(player, entityId);
+		});
+	}
+
+	void onShopMetadataChanged(SKPacketShopObject shopObject) {
+		if (viewers.isEmpty()) return;
+		PacketEntityProvider packetEntityProvider = getPacketEntityProvider();
+		viewers.forEach((playerId, viewer) -> {
+			if (!viewer.shownShops.containsKey(shopObject)) return;
+			Player player = Bukkit.getPlayer(playerId);
+			if (player == null) return;
+			packetEntityProvider.sendPacketEntityMetadata(player, shopObject.getEntity());
+		});
+	}
+
+	// VIEWERS
+
+	private void updateViewers() {
+		if (spawnedShops.isEmpty() && viewers.isEmpty()) return; // Nothing to update
+
+		int updateId = ++viewUpdateCounter;
+		for (Player player : Bukkit.getOnlinePlayers()) {
+			ShopViewer viewer = viewers.computeIfAbsent(player.getUniqueId(), playerId -> new ShopViewer());
+			this.updateViewer(player, viewer, updateId);
+		}
+	}
+
+	private void updateViewer(Player player, ShopViewer viewer, int updateId) {
+		PacketEntityProvider packetEntityProvider = getPacketEntityProvider();
+		Location playerLocation = player.getLocation(sharedLocation);
+		double playerX = playerLocation.getX();
+		double playerY = playerLocation.getY();
+		double playerZ = playerLocation.getZ();
+		LongObjectHashMap<List<SKPacketShopObject>> worldShops = spawnedShops.get(playerLocation.getWorld().getName());
+		sharedLocation.setWorld(null); // Reset
+
+		// Show the shops in range, and update their head rotations:
+		if (worldShops != null) {
+			int playerChunkX = ((int) Math.floor(playerX)) >> 4;
+			int playerChunkZ = ((int) Math.floor(playerZ)) >> 4;
+			for (int chunkX = playerChunkX - VIEW_CHUNK_RANGE; chunkX <= playerChunkX + VIEW_CHUNK_RANGE; ++chunkX) {
+				for (int chunkZ = playerChunkZ - VIEW_CHUNK_RANGE; chunkZ <= playerChunkZ + VIEW_CHUNK_RANGE; ++chunkZ) {
+					List<SKPacketShopObject> chunkShops = worldShops.get(PackedCoordinates.chunkKey(chunkX, chunkZ));
+					if (chunkShops == null) continue;
+
+					for (SKPacketShopObject shopObject : chunkShops) {
+						Location shopLocation = shopObject.getSpawnLocation();
+						double dx = playerX - shopLocation.getX();
+						double dy = playerY - shopLocation.getY();
+						double dz = playerZ - shopLocation.getZ();
+						double distanceSq = dx * dx + dy * dy + dz * dz;
+						if (distanceSq > VIEW_RANGE_SQ) continue;
+
+						float headYaw;
+						if (distanceSq <= LOOK_RANGE_SQ) {
+							headYaw = (float) Math.toDegrees(Math.atan2(-dx, dz));
+						} else {
+							headYaw = shopLocation.getYaw();
+						}
+						int headAngle = toAngle(headYaw);
+
+						ShownShop shownShop = viewer.shownShops.get(shopObject);
+						if (shownShop == null) {
+							shownShop = new ShownShop();
+							viewer.shownShops.put(shopObject, shownShop);
+							packetEntityProvider.sendPacketEntitySpawn(player, shopObject.getEntity(), headYaw);
+						} else if (shownShop.headAngle != headAngle) {
+							packetEntityProvider.sendPacketEntityHeadRotation(player, shopObject.getEntity(), headYaw);
+						}
+						shownShop.headAngle = headAngle;
+						shownShop.lastUpdate = updateId;
+					}
+				}
+			}
+		}
+
+		// Hide the shops that are no longer in range:
+		Iterator<Entry<SKPacketShopObject, ShownShop>> iterator = viewer.shownShops.entrySet().iterator();
+		while (iterator.hasNext()) {
+			Entry<SKPacketShopObject, ShownShop> entry = iterator.next();
+			if (entry.getValue().lastUpdate == updateId) continue;
+			iterator.remove();
+			packetEntityProvider.sendPacketEntityDestroy(player, entry.getKey().getEntity().getEntityId());
+		}
+	}
+
+	// The head rotation is sent as steps of 1/256 of a full turn.
+	private static int toAngle(float yaw) {
+		return ((int) Math.floor(yaw * 256.0F / 360.0F)) & 0xFF;
+	}
+
+	void onPlayerQuit(Player player) {
+		viewers.remove(player.getUniqueId());
+	}
+
+	// The client has already discarded all entities, eg. after a respawn or world change. The shops in range are shown
+	// again during the next view update.
+	void forgetShownShops(Player player) {
+		ShopViewer viewer = viewers.get(player.getUniqueId());
+		if (viewer == null) return;
+		viewer.shownShops.clear();
+	}
+
+	// Hides all currently shown shops, eg. before the player is teleported away. The shops in range are shown again
+	// during the next view update.
+	void hideShownShops(Player player) {
+		ShopViewer viewer = viewers.get(player.getUniqueId());
+		if (viewer == null || viewer.shownShops.isEmpty()) return;
+		PacketEntityProvider packetEntityProvider = getPacketEntityProvider();
+		viewer.shownShops.keySet().forEach(shopObject -> {
+			packetEntityProvider.sendPacketEntityDestroy(player, shopObject.getEntity().getEntityId());
+		});
+		viewer.shownShops.clear();
+	}
+
+	static boolean isOutOfViewRange(Location from, Location to) {
+		return from.getWorld() != to.getWorld() || from.distanceSquared(to) > VIEW_RANGE_SQ;
+	}
+
+	// INTERACTIONS
+
+	// This is also called by the players' network threads.
+	boolean isShopEntity(int entityId) {
+		return shopsByEntityId.containsKey(entityId);
+	}
+
+	// Null if there is no spawned packet shop with the given entity id.
+	SKPacketShopObject getShopByEntityId(int entityId) {
+		return shopsByEntityId.get(entityId);
+	}
+}
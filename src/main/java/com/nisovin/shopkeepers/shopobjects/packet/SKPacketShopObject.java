@@ -0,0 +1,161 @@
+package com.nisovin.shopkeepers.shopobjects.packet;
+
+import org.bukkit.Location;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.EntityType;
+
+import com.nisovin.shopkeepers.api.shopkeeper.ShopCreationData;
+import com.nisovin.shopkeepers.compat.api.PacketEntityProvider;
+import com.nisovin.shopkeepers.config.Settings;
+import com.nisovin.shopkeepers.lang.Messages;
+import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
+import com.nisovin.shopkeepers.shopobjects.AbstractShopObject;
+import com.nisovin.shopkeepers.util.Log;
+
+/**
+ * A villager that is only shown to nearby players via packets.
+ * <p>
+ * The entity is created via the {@link PacketEntityProvider}, but never added to the world. It is
+ * therefore not ticked by the server, has no collisions, and is not affected by any world events.
+ */
+public class SKPacketShopObject extends AbstractShopObject {
+
+	private static final EntityType ENTITY_TYPE = EntityType.VILLAGER;
+
+	protected final PacketShops packetShops;
+	// Not added to the world. Only used to create the entity packets.
+	private Entity entity = null;
+	private Location spawnLocation = null;
+	private String objectId = null;
+
+	protected SKPacketShopObject(PacketShops packetShops, AbstractShopkeeper shopkeeper, ShopCreationData creationData) {
+		super(shopkeeper, creationData);
+		this.packetShops = packetShops;
+	}
+
+	@Override
+	public SKPacketShopObjectType getType() {
+		return packetShops.getPacketShopObjectType();
+	}
+
+	Entity getEntity() {
+		return entity;
+	}
+
+	// Not a copy. Only valid while spawned.
+	Location getSpawnLocation() {
+		return spawnLocation;
+	}
+
+	// ACTIVATION
+
+	@Override
+	public boolean isSpawned() {
+		return (entity != null);
+	}
+
+	@Override
+	public boolean isActive() {
+		return this.isSpawned();
+	}
+
+	@Override
+	public Object getId() {
+		return objectId;
+	}
+
+	@Override
+	public boolean spawn() {
+		if (entity != null) {
+			return true; // Already spawned
+		}
+		if (!packetShops.isEnabled()) {
+			return false;
+		}
+
+		Location location = shopkeeper.getLocation();
+		if (location == null) {
+			return false; // World not loaded
+		}
+		location.add(0.5D, 0.0D, 0.5D);
+
+		entity = PacketShops.getPacketEntityProvider().createPacketEntity(location, ENTITY_TYPE);
+		this.applyName(shopkeeper.getName());
+		spawnLocation = location;
+		// Entity ids are unique among all entities of the server, including the packet entities:
+		objectId = "packet:" + entity.getEntityId();
+		packetShops.onShopSpawned(this);
+		return true;
+	}
+
+	@Override
+	public void despawn() {
+		if (entity == null) return;
+
+		packetShops.onShopDespawned(this);
+		entity = null;
+		spawnLocation = null;
+		objectId = null;
+	}
+
+	@Override
+	public Location getLocation() {
+		if (spawnLocation == null) return null;
+		return spawnLocation.clone();
+	}
+
+	@Override
+	public Location getTickVisualizationParticleLocation() {
+		if (entity == null) return null;
+		// Return location slightly above the entity:
+		return spawnLocation.clone().add(0.0D, entity.getHeight() + 0.4D, 0.0D);
+	}
+
+	// TICKING
+
+	@Override
+	public void tick() {
+		super.tick();
+		if (entity == null) return;
+
+		// Respawn the shop if the shopkeeper has been moved:
+		if (spawnLocation.getBlockX() != shopkeeper.getX()
+				|| spawnLocation.getBlockY() != shopkeeper.getY()
+				|| spawnLocation.getBlockZ() != shopkeeper.getZ()
+				|| !spawnLocation.getWorld().getName().equals(shopkeeper.getWorldName())) {
+			Log.debug(() -> "Packet shop " + shopkeeper.getId() + " has been moved. Respawning it at "
+					+ shopkeeper.getPositionString());
+			this.indicateTickActivity();
+			this.despawn();
+			this.spawn();
+		}
+	}
+
+	// NAMING
+
+	@Override
+	public void setName(String name) {
+		if (entity == null) return;
+		this.applyName(name);
+		packetShops.onShopMetadataChanged(this);
+	}
+
+	private void applyName(String name) {
+		assert entity != null;
+		if (Settings.showNameplates && name != null && !name.isEmpty()) {
+			name = Messages.nameplatePrefix + name;
+			name = this.prepareName(name);
+			entity.setCustomName(name);
+			entity.setCustomNameVisible(Settings.alwaysShowNameplates);
+		} else {
+			entity.setCustomName(null);
+			entity.setCustomNameVisible(false);
+		}
+	}
+
+	@Override
+	public String getName() {
+		if (entity == null) return null;
+		return entity.getCustomName();
+	}
+}
@@ -0,0 +1,41 @@
+package com.nisovin.shopkeepers.shopobjects.packet;
+
+import com.nisovin.shopkeepers.api.shopkeeper.ShopCreationData;
+import com.nisovin.shopkeepers.lang.Messages;
+import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
+import com.nisovin.shopkeepers.shopobjects.AbstractShopObjectType;
+
+public class SKPacketShopObjectType extends AbstractShopObjectType<SKPacketShopObject> {
+
+	private final PacketShops packetShops;
+
+	public SKPacketShopObjectType(PacketShops packetShops) {
+		super("packet", "shopkeeper.packet");
+		this.packetShops = packetShops;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return packetShops.isEnabled();
+	}
+
+	@Override
+	public String getDisplayName() {
+		return Messages.shopObjectTypePacket;
+	}
+
+	@Override
+	public boolean mustBeSpawned() {
+		return true; // Shown to players while the chunk is active
+	}
+
+	@Override
+	public boolean mustDespawnDuringWorldSave() {
+		return false; // Not part of the world
+	}
+
+	@Override
+	public SKPacketShopObject createObject(AbstractShopkeeper shopkeeper, ShopCreationData creationData) {
+		return new SKPacketShopObject(packetShops, shopkeeper, creationData);
+	}
+}
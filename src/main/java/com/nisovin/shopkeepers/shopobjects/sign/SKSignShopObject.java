@@ -23,6 +23,7 @@ import com.nisovin.shopkeepers.api.shopkeeper.player.PlayerShopkeeper;
 import com.nisovin.shopkeepers.api.shopobjects.sign.SignShopObject;
 import com.nisovin.shopkeepers.compat.MC_1_17_Utils;
 import com.nisovin.shopkeepers.compat.NMSManager;
+import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.lang.Messages;
 import com.nisovin.shopkeepers.property.BooleanProperty;
 import com.nisovin.shopkeepers.property.Property;
@@ -43,6 +44,11 @@ public class SKSignShopObject extends AbstractBlockShopObject implements SignSho
 
 	private static final int CHECK_PERIOD_SECONDS = 10;
 	private static final CyclicCounter nextCheckingOffset = new CyclicCounter(1, CHECK_PERIOD_SECONDS + 1);
+	// If event-driven checks are enabled, the sign is usually only checked when a block change at its position
+	// indicates a need for it. Additionally, we still periodically check the sign in a larger interval, in order to
+	// also detect changes that are not covered by any events (eg. plugins changing the block):
+	private static final int EVENT_DRIVEN_CHECK_PERIOD_SECONDS = 60;
+	private static final CyclicCounter nextEventDrivenCheckingOffset = new CyclicCounter(1, EVENT_DRIVEN_CHECK_PERIOD_SECONDS + 1);
 
 	protected final SignShops signShops;
 	private SignType signType = SignType.OAK; // Not null, not unsupported, default is OAK.
@@ -56,12 +62,19 @@ public class SKSignShopObject extends AbstractBlockShopObject implements SignSho
 	private Block block = null;
 	private long lastFailedRespawnAttempt = 0;
 
-	// Initial threshold between [1, CHECK_PERIOD_SECONDS] for load balancing:
-	private final RateLimiter checkLimiter = new RateLimiter(CHECK_PERIOD_SECONDS, nextCheckingOffset.getAndIncrement());
+	// Initial threshold between [1, check period] for load balancing:
+	private final RateLimiter checkLimiter;
+	// Whether some event requested a check of the sign during the next tick:
+	private boolean checkRequested = false;
 
 	protected SKSignShopObject(SignShops signShops, AbstractShopkeeper shopkeeper, ShopCreationData creationData) {
 		super(shopkeeper, creationData);
 		this.signShops = signShops;
+		if (Settings.eventDrivenShopObjectChecks) {
+			this.checkLimiter = new RateLimiter(EVENT_DRIVEN_CHECK_PERIOD_SECONDS, nextEventDrivenCheckingOffset.getAndIncrement());
+		} else {
+			this.checkLimiter = new RateLimiter(CHECK_PERIOD_SECONDS, nextCheckingOffset.getAndIncrement());
+		}
 		if (creationData != null) {
 			BlockFace targetedBlockFace = creationData.getTargetedBlockFace();
 			if (targetedBlockFace == BlockFace.UP) {
@@ -227,6 +240,7 @@ public class SKSignShopObject extends AbstractBlockShopObject implements SignSho
 
 		// Remember the block (indicates that this shop object has been spawned):
 		this.block = signBlock;
+		signShops.onSignSpawned(signBlock);
 		// Assign metadata for easy identification by other plugins:
 		ShopkeeperMetadata.apply(block);
 
@@ -270,6 +284,7 @@ public class SKSignShopObject extends AbstractBlockShopObject implements SignSho
 
 		// Remove the sign:
 		block.setType(Material.AIR, false);
+		signShops.onSignDespawned(block);
 		this.block = null;
 	}
 
@@ -344,10 +359,21 @@ public class SKSignShopObject extends AbstractBlockShopObject implements SignSho
 
 	// TICKING
 
+	/**
+	 * Requests a check of the sign during the next tick of this shop object.
+	 * <p>
+	 * This is used if event-driven checks are enabled, in order to react to block changes at the sign's position.
+	 */
+	void requestCheck() {
+		checkRequested = true;
+	}
+
 	@Override
 	public void tick() {
 		super.tick();
-		if (!checkLimiter.request()) {
+		boolean checkRequested = this.checkRequested;
+		this.checkRequested = false;
+		if (!checkLimiter.request() && !checkRequested) {
 			return;
 		}
 
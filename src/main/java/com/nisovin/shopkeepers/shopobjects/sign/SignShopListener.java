@@ -14,6 +14,7 @@ import org.bukkit.event.HandlerList;
 import org.bukkit.event.Listener;
 import org.bukkit.event.block.Action;
 import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockBurnEvent;
 import org.bukkit.event.block.BlockExplodeEvent;
 import org.bukkit.event.block.BlockPhysicsEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
@@ -42,12 +43,14 @@ class SignShopListener implements Listener {
 	private static final BlockFace[] BLOCK_SIDES = BlockFaceUtils.getBlockSides().toArray(new BlockFace[0]);
 
 	private final SKShopkeepersPlugin plugin;
+	private final SignShops signShops;
 	private final SKSignShopObjectType signShopObjectType;
 
 	private final MutableBlockLocation cancelNextBlockPhysics = new MutableBlockLocation();
 
 	SignShopListener(SKShopkeepersPlugin plugin, SignShops signShops) {
 		this.plugin = plugin;
+		this.signShops = signShops;
 		this.signShopObjectType = signShops.getSignShopObjectType();
 	}
 
@@ -189,6 +192,11 @@ class SignShopListener implements Listener {
 		int blockX = block.getX();
 		int blockY = block.getY();
 		int blockZ = block.getZ();
+		// Quickly skip physics updates in chunks without any nearby sign shops. The block of a sign that is currently
+		// being spawned is not yet tracked.
+		if (!cancelNextBlockPhysics.hasWorldName() && !signShops.isSignShopChunkNearby(worldName, blockX, blockZ)) {
+			return;
+		}
 		if (this.checkCancelPhysics(worldName, blockX, blockY, blockZ)) {
 			event.setCancelled(true);
 			return;
@@ -237,4 +245,49 @@ class SignShopListener implements Listener {
 			}
 		}
 	}
+
+	// Event-driven checks:
+	// If enabled, we request a check of the affected sign shops when we detect block changes that we were not able
+	// to prevent (eg. because other plugins un-cancelled the event at a later event priority).
+
+	private void requestCheck(Block block) {
+		AbstractShopkeeper shopkeeper = signShopObjectType.getShopkeeper(block);
+		if (shopkeeper == null) return;
+		SKSignShopObject signObject = (SKSignShopObject) shopkeeper.getShopObject();
+		signObject.requestCheck();
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onBlockBreakMonitor(BlockBreakEvent event) {
+		if (!Settings.eventDrivenShopObjectChecks) return;
+		this.requestCheck(event.getBlock());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onBlockPlaceMonitor(BlockPlaceEvent event) {
+		if (!Settings.eventDrivenShopObjectChecks) return;
+		this.requestCheck(event.getBlock());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onBlockBurnMonitor(BlockBurnEvent event) {
+		if (!Settings.eventDrivenShopObjectChecks) return;
+		this.requestCheck(event.getBlock());
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onEntityExplosionMonitor(EntityExplodeEvent event) {
+		if (!Settings.eventDrivenShopObjectChecks) return;
+		for (Block block : event.blockList()) {
+			this.requestCheck(block);
+		}
+	}
+
+	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+	void onBlockExplosionMonitor(BlockExplodeEvent event) {
+		if (!Settings.eventDrivenShopObjectChecks) return;
+		for (Block block : event.blockList()) {
+			this.requestCheck(block);
+		}
+	}
 }
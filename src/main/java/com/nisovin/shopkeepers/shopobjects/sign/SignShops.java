@@ -1,14 +1,23 @@
 package com.nisovin.shopkeepers.shopobjects.sign;
 
+import java.util.HashMap;
+import java.util.Map;
+
 import org.bukkit.block.Block;
 
 import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.config.Settings;
+import com.nisovin.shopkeepers.util.LongObjectHashMap;
+import com.nisovin.shopkeepers.util.MutableLong;
+import com.nisovin.shopkeepers.util.PackedCoordinates;
 
 public class SignShops {
 
 	private final SKSignShopObjectType signShopObjectType = new SKSignShopObjectType(this);
 	private final SignShopListener signShopListener;
+	// World name -> chunk key -> number of spawned sign shops in that chunk
+	// Used to quickly filter block events in chunks without any sign shops.
+	private final Map<String, LongObjectHashMap<MutableLong>> signShopChunks = new HashMap<>();
 
 	public SignShops(SKShopkeepersPlugin plugin) {
 		this.signShopListener = new SignShopListener(plugin, this);
@@ -22,6 +31,7 @@ public class SignShops {
 
 	public void onDisable() {
 		signShopListener.onDisable();
+		signShopChunks.clear();
 	}
 
 	public SKSignShopObjectType getSignShopObjectType() {
@@ -31,4 +41,65 @@ public class SignShops {
 	void cancelNextBlockPhysics(Block block) {
 		signShopListener.cancelNextBlockPhysics(block);
 	}
+
+	// SIGN SHOP CHUNKS
+
+	void onSignSpawned(Block block) {
+		LongObjectHashMap<MutableLong> worldChunks = signShopChunks.computeIfAbsent(block.getWorld().getName(), k -> new LongObjectHashMap<>());
+		long chunkKey = PackedCoordinates.chunkKeyOfBlock(block.getX(), block.getZ());
+		MutableLong count = worldChunks.get(chunkKey);
+		if (count == null) {
+			count = new MutableLong();
+			worldChunks.put(chunkKey, count);
+		}
+		count.increment(1L);
+	}
+
+	void onSignDespawned(Block block) {
+		String worldName = block.getWorld().getName();
+		LongObjectHashMap<MutableLong> worldChunks = signShopChunks.get(worldName);
+		if (worldChunks == null) return; // Not expected
+		long chunkKey = PackedCoordinates.chunkKeyOfBlock(block.getX(), block.getZ());
+		MutableLong count = worldChunks.get(chunkKey);
+		if (count == null) return; // Not expected
+		count.decrement(1L);
+		if (count.getValue() <= 0L) {
+			worldChunks.remove(chunkKey);
+			if (worldChunks.isEmpty()) {
+				signShopChunks.remove(worldName);
+			}
+		}
+	}
+
+	/**
+	 * Quickly checks if there might be spawned sign shops at or next to the specified block position, without
+	 * accessing the block or looking up any shopkeepers.
+	 * <p>
+	 * This returns <code>true</code> if the chunk of the specified block position, or the adjacent chunk of a block
+	 * position at the chunk border, contains spawned sign shops.
+	 * 
+	 * @param worldName
+	 *            the world name
+	 * @param blockX
+	 *            the block x coordinate
+	 * @param blockZ
+	 *            the block z coordinate
+	 * @return <code>true</code> if there might be sign shops at or next to the block position
+	 */
+	boolean isSignShopChunkNearby(String worldName, int blockX, int blockZ) {
+		LongObjectHashMap<MutableLong> worldChunks = signShopChunks.get(worldName);
+		if (worldChunks == null) return false;
+		int chunkX = blockX >> 4;
+		int chunkZ = blockZ >> 4;
+		if (worldChunks.containsKey(PackedCoordinates.chunkKey(chunkX, chunkZ))) return true;
+
+		// Adjacent block positions might be located in adjacent chunks:
+		int localX = blockX & 15;
+		int localZ = blockZ & 15;
+		if (localX == 0 && worldChunks.containsKey(PackedCoordinates.chunkKey(chunkX - 1, chunkZ))) return true;
+		if (localX == 15 && worldChunks.containsKey(PackedCoordinates.chunkKey(chunkX + 1, chunkZ))) return true;
+		if (localZ == 0 && worldChunks.containsKey(PackedCoordinates.chunkKey(chunkX, chunkZ - 1))) return true;
+		if (localZ == 15 && worldChunks.containsKey(PackedCoordinates.chunkKey(chunkX, chunkZ + 1))) return true;
+		return false;
+	}
 }
@@ -1,6 +1,8 @@
 package com.nisovin.shopkeepers.spigot.text;
 
 import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
 
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
@@ -14,6 +16,7 @@ import com.nisovin.shopkeepers.text.InsertionText;
 import com.nisovin.shopkeepers.text.PlaceholderText;
 import com.nisovin.shopkeepers.text.PlainText;
 import com.nisovin.shopkeepers.text.Text;
+import com.nisovin.shopkeepers.text.TextBuilder;
 import com.nisovin.shopkeepers.text.TranslatableText;
 import com.nisovin.shopkeepers.util.Log;
 import com.nisovin.shopkeepers.util.StringUtils;
@@ -52,7 +55,7 @@ public class SpigotText {
 
 		public static void sendMessage(CommandSender recipient, Text message) {
 			assert recipient != null && message != null;
-			BaseComponent component = toSpigot(message);
+			BaseComponent component = getComponent(message);
 			if (debugging) {
 				Log.info("Text: " + message);
 				Log.info("Plain text: " + message.toPlainText());
@@ -63,6 +66,20 @@ public class SpigotText {
 			recipient.spigot().sendMessage(component);
 		}
 
+		// CACHING
+
+		// The converted components of static Texts (i.e. Texts whose contents can no longer change):
+		private static final Map<Text, BaseComponent> STATIC_COMPONENTS = new WeakHashMap<>();
+
+		// Note: The returned components are reused and must not be modified.
+		private static BaseComponent getComponent(Text text) {
+			assert text != null;
+			if (text instanceof TextBuilder && ((TextBuilder) text).isStatic()) {
+				return STATIC_COMPONENTS.computeIfAbsent(text, Internal::toSpigot);
+			}
+			return toSpigot(text);
+		}
+
 		// CONVERSION
 
 		private static final class TextStyle {
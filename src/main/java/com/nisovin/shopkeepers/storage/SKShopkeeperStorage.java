@@ -9,6 +9,7 @@ import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
 
 import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
@@ -27,6 +28,8 @@ import com.nisovin.shopkeepers.api.shopkeeper.ShopkeeperRegistry;
 import com.nisovin.shopkeepers.api.storage.ShopkeeperStorage;
 import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.config.Settings.DerivedSettings;
+import com.nisovin.shopkeepers.debug.FlightRecorder.Outcome;
+import com.nisovin.shopkeepers.debug.FlightRecorder.Phase;
 import com.nisovin.shopkeepers.shopkeeper.AbstractShopType;
 import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
 import com.nisovin.shopkeepers.shopkeeper.SKShopkeeperRegistry;
@@ -40,6 +43,8 @@ import com.nisovin.shopkeepers.util.SingletonTask;
 import com.nisovin.shopkeepers.util.ThrowableUtils;
 import com.nisovin.shopkeepers.util.Validate;
 import com.nisovin.shopkeepers.util.VoidCallable;
+import com.nisovin.shopkeepers.util.timer.Timer;
+import com.nisovin.shopkeepers.util.timer.Timings;
 
 /**
  * Storage responsible for the shopkeepers data.
@@ -128,6 +133,14 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 
 	/* Saving */
 	private final SaveTask saveTask;
+	// The synchronous preparation of saves (transferring the shopkeeper data into the storage's memory):
+	private final Timer savePreparationTimings = new Timer();
+	// The total durations of saves, from preparation until completion:
+	private final Timer saveTimings = new Timer();
+	// The size of the save file written by the last successful save:
+	private long lastSaveBytes = 0L;
+	// The total number of bytes written by successful saves:
+	private long totalSavedBytes = 0L;
 	// Flag to (temporarily) turn off saving. This can for example be set if there is an issue with loading the
 	// shopkeeper data, so that the save file doesn't get overwritten by any subsequent save requests.
 	private boolean savingDisabled = false;
@@ -626,6 +639,42 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		}
 	}
 
+	/**
+	 * Gets the timings of the synchronous preparation of saves.
+	 * 
+	 * @return the save preparation timings
+	 */
+	public Timings getSavePreparationTimings() {
+		return savePreparationTimings;
+	}
+
+	/**
+	 * Gets the timings of the total durations of saves, from their preparation until their completion.
+	 * 
+	 * @return the save timings
+	 */
+	public Timings getSaveTimings() {
+		return saveTimings;
+	}
+
+	/**
+	 * Gets the size of the save file that was written by the last successful save.
+	 * 
+	 * @return the size of the last save in bytes
+	 */
+	public long getLastSaveBytes() {
+		return lastSaveBytes;
+	}
+
+	/**
+	 * Gets the total number of bytes that were written by all successful saves so far.
+	 * 
+	 * @return the total number of saved bytes
+	 */
+	public long getTotalSavedBytes() {
+		return totalSavedBytes;
+	}
+
 	/**
 	 * Gets the number of shopkeepers that were deleted, but whose deletions have not yet been persisted.
 	 * <p>
@@ -786,6 +835,7 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		// before they are used, either by the Bukkit Scheduler (when starting the async task and when going back to the
 		// main thread by starting a sync task), or/and via synchronization with the save task's lock.
 		private boolean savingSucceeded = false;
+		private long savedBytes = 0L;
 		private long lastSavingErrorMsgTimestamp = 0L;
 
 		SaveTask(Plugin plugin) {
@@ -798,6 +848,9 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 
 		@Override
 		protected void prepare() {
+			savePreparationTimings.start();
+			plugin.getFlightRecorder().record(Phase.SAVE_START, null, -1, Outcome.SUCCESS);
+
 			// Stop any active delayed save task:
 			if (delayedSaveTask != null) {
 				delayedSaveTask.cancel();
@@ -823,6 +876,8 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 			// Store the data of dirty shopkeepers into the memory configuration:
 			assert failedToSave.isEmpty();
 			savingDirtyShopkeepers.forEach(this::saveShopkeeper);
+
+			savePreparationTimings.stop();
 		}
 
 		private void saveShopkeeper(AbstractShopkeeper shopkeeper) {
@@ -938,6 +993,14 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 				throw new ShopkeeperStorageSaveException("Could not write the shopkeeper data to the temporary save file ("
 						+ pluginDataRelative(tempSaveFile) + "): " + ThrowableUtils.getDescription(e), e);
 			}
+			// Only used for metrics: A failure to determine the file size does not fail the save.
+			try {
+				savedBytes = Files.size(tempSaveFile);
+			} catch (IOException e) {
+				Log.debug(() -> "Could not determine the size of the temporary save file ("
+						+ pluginDataRelative(tempSaveFile) + "): " + ThrowableUtils.getDescription(e));
+				savedBytes = -1L; // Unknown
+			}
 
 			// Fsync the temporary save file and the containing directory (ensures that the data is actually persisted
 			// to disk):
@@ -1013,6 +1076,14 @@ public class SKShopkeeperStorage implements ShopkeeperStorage {
 		protected void syncCallback() {
 			// Print debug info:
 			printDebugInfo();
+			saveTimings.addTiming(TimeUnit.MILLISECONDS.toNanos(this.getTotalDuration()));
+			if (savingSucceeded) {
+				if (savedBytes >= 0L) {
+					lastSaveBytes = savedBytes;
+					totalSavedBytes += savedBytes;
+				} // Else: Keep the previous value.
+			}
+			plugin.getFlightRecorder().record(Phase.SAVE_END, null, -1, savingSucceeded ? Outcome.SUCCESS : Outcome.FAILURE);
 
 			if (savingSucceeded) {
 				// Saving succeeded:
@@ -24,9 +24,6 @@ public abstract class AbstractText implements Text {
 	private Text child = null;
 	private Text next = null;
 
-	// TODO Cache plain text? Requires childs to inform parents on changes to their translation or placeholder
-	// arguments. -> Might not even be worth it in the presence of dynamic arguments.
-
 	protected AbstractText() {
 	}
 
@@ -170,6 +167,31 @@ public abstract class AbstractText implements Text {
 		return this;
 	}
 
+	// DYNAMIC CONTENT
+
+	/**
+	 * Checks if this Text, or any of its child, subsequent, or otherwise contained Texts, have contents that can
+	 * change even after the Text has been built, such as placeholders or translation arguments.
+	 * <p>
+	 * Internal method that is meant to only be used by Text implementations!
+	 * 
+	 * @return <code>true</code> if this Text contains dynamic content
+	 */
+	protected boolean containsDynamicContent() {
+		// Child:
+		Text child = this.getChild();
+		if (child != null && ((AbstractText) child).containsDynamicContent()) {
+			return true;
+		}
+
+		// Next:
+		Text next = this.getNext();
+		if (next != null && ((AbstractText) next).containsDynamicContent()) {
+			return true;
+		}
+		return false;
+	}
+
 	// PLAIN TEXT
 
 	@Override
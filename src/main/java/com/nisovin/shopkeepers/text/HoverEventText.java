@@ -79,6 +79,13 @@ public class HoverEventText extends TextBuilder {
 		return this;
 	}
 
+	// DYNAMIC CONTENT
+
+	@Override
+	protected boolean containsDynamicContent() {
+		return super.containsDynamicContent() || ((AbstractText) value).containsDynamicContent();
+	}
+
 	// PLAIN TEXT
 
 	@Override
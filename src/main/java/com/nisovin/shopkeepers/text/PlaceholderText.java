@@ -155,6 +155,13 @@ public class PlaceholderText extends TextBuilder {
 		throw unsupportedPlaceholderOperation();
 	}
 
+	// DYNAMIC CONTENT
+
+	@Override
+	protected boolean containsDynamicContent() {
+		return true;
+	}
+
 	// PLAIN TEXT
 
 	@Override
@@ -442,6 +442,48 @@ public abstract class TextBuilder extends AbstractText {
 		return this.next(Text.insertion(insertion));
 	}
 
+	// CACHING
+
+	// Only the plain texts of static Texts are cached. The contents of Texts with placeholders or translations can
+	// change at any time by changes to the arguments of the contained placeholder or translatable Texts, which have no
+	// reference to the Texts they are contained in.
+	private Boolean staticText = null; // Lazily determined once built
+	private String cachedPlainText = null;
+	private String cachedPlainFormatText = null;
+
+	/**
+	 * Checks if this {@link Text} is built and static, i.e. if its contents can no longer change.
+	 * <p>
+	 * This is the case if it does not contain any placeholders or translations.
+	 * 
+	 * @return <code>true</code> if this Text is static
+	 */
+	public boolean isStatic() {
+		if (!built) return false;
+		if (staticText == null) {
+			staticText = !this.containsDynamicContent();
+		}
+		return staticText;
+	}
+
+	@Override
+	public String toPlainText() {
+		if (!this.isStatic()) return super.toPlainText();
+		if (cachedPlainText == null) {
+			cachedPlainText = super.toPlainText();
+		}
+		return cachedPlainText;
+	}
+
+	@Override
+	public String toPlainFormatText() {
+		if (!this.isStatic()) return super.toPlainFormatText();
+		if (cachedPlainFormatText == null) {
+			cachedPlainFormatText = super.toPlainFormatText();
+		}
+		return cachedPlainFormatText;
+	}
+
 	// COPY
 
 	@Override
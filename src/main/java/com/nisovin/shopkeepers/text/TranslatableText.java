@@ -83,6 +83,13 @@ public class TranslatableText extends TextBuilder {
 		return this;
 	}
 
+	// DYNAMIC CONTENT
+
+	@Override
+	protected boolean containsDynamicContent() {
+		return true;
+	}
+
 	// PLAIN TEXT
 
 	@Override
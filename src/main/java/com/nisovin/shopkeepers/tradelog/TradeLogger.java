@@ -15,6 +15,13 @@ public interface TradeLogger {
 	 */
 	public void logTrade(TradeRecord trade);
 
+	/**
+	 * Gets the number of {@link TradeRecord trade records} that have been logged, but not yet been written to storage.
+	 * 
+	 * @return the number of pending trade records
+	 */
+	public int getPendingTradesCount();
+
 	/**
 	 * Writes any buffered {@link TradeRecord trade records} to storage and waits (blocking!) for any pending writes to
 	 * complete.
@@ -68,6 +68,19 @@ public class TradeLoggers implements Listener {
 		loggers.clear();
 	}
 
+	/**
+	 * Gets the number of logged trade records that have not yet been written to storage.
+	 * 
+	 * @return the number of pending trade records
+	 */
+	public int getPendingTradesCount() {
+		int count = 0;
+		for (TradeLogger logger : loggers) {
+			count += logger.getPendingTradesCount();
+		}
+		return count;
+	}
+
 	@EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
 	void onTradeCompleted(ShopkeeperTradeEvent event) {
 		if (loggers.isEmpty()) return; // Nothing to log
@@ -101,6 +101,12 @@ public class CsvTradeLogger implements TradeLogger {
 		this.savePendingDelayed();
 	}
 
+	@Override
+	public int getPendingTradesCount() {
+		// Note: The trades that are currently being saved are not modified while the save is in progress.
+		return pending.size() + saveTask.saving.size();
+	}
+
 	@Override
 	public void flush() {
 		this.savePending();
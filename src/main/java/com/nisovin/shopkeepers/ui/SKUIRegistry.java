@@ -4,6 +4,7 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
@@ -12,7 +13,9 @@ import org.bukkit.Bukkit;
 import org.bukkit.entity.Player;
 import org.bukkit.event.HandlerList;
 import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.inventory.InventoryView;
 
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.events.PlayerOpenUIEvent;
 import com.nisovin.shopkeepers.api.events.ShopkeeperOpenUIEvent;
@@ -20,11 +23,16 @@ import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
 import com.nisovin.shopkeepers.api.ui.UIRegistry;
 import com.nisovin.shopkeepers.api.ui.UISession;
 import com.nisovin.shopkeepers.api.ui.UIType;
+import com.nisovin.shopkeepers.debug.FlightRecorder;
+import com.nisovin.shopkeepers.debug.FlightRecorder.Outcome;
+import com.nisovin.shopkeepers.debug.FlightRecorder.Phase;
 import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
 import com.nisovin.shopkeepers.types.AbstractTypeRegistry;
 import com.nisovin.shopkeepers.util.Log;
 import com.nisovin.shopkeepers.util.SchedulerUtils;
 import com.nisovin.shopkeepers.util.Validate;
+import com.nisovin.shopkeepers.util.timer.Timer;
+import com.nisovin.shopkeepers.util.timer.Timings;
 
 public class SKUIRegistry extends AbstractTypeRegistry<AbstractUIType> implements UIRegistry<AbstractUIType> {
 
@@ -34,6 +42,12 @@ public class SKUIRegistry extends AbstractTypeRegistry<AbstractUIType> implement
 	// Player id -> UI session
 	private final Map<UUID, SKUISession> uiSessions = new HashMap<>();
 	private final Collection<SKUISession> uiSessionsView = Collections.unmodifiableCollection(uiSessions.values());
+	// Inventory view -> UI session
+	// This allows inventory events to quickly determine if they involve an inventory view that got opened by us.
+	// Inventory views do not override equals and hashCode, and are compared by identity.
+	private final Map<InventoryView, SKUISession> uiSessionsByView = new IdentityHashMap<>();
+
+	private final Timer uiOpenTimings = new Timer();
 
 	public SKUIRegistry(ShopkeepersPlugin plugin) {
 		this.plugin = plugin;
@@ -48,6 +62,11 @@ public class SKUIRegistry extends AbstractTypeRegistry<AbstractUIType> implement
 		// Close all open UIs:
 		this.abortUISessions();
 		HandlerList.unregisterAll(uiListener);
+		uiOpenTimings.reset();
+	}
+
+	public Timings getUIOpenTimings() {
+		return uiOpenTimings;
 	}
 
 	@Override
@@ -86,6 +105,7 @@ public class SKUIRegistry extends AbstractTypeRegistry<AbstractUIType> implement
 		String playerName = player.getName();
 		if (!uiHandler.canOpen(player, silentRequest)) {
 			Log.debug(() -> "The player '" + playerName + "' cannot open UI '" + uiIdentifier + "'.");
+			this.getFlightRecorder().record(Phase.UI_OPEN, player, shopkeeper, Outcome.ABORTED);
 			return false;
 		}
 
@@ -106,6 +126,7 @@ public class SKUIRegistry extends AbstractTypeRegistry<AbstractUIType> implement
 		Bukkit.getPluginManager().callEvent(openUIEvent);
 		if (openUIEvent.isCancelled()) {
 			Log.debug(() -> "Opening of UI '" + uiIdentifier + "' for player '" + playerName + "' got cancelled by a plugin.");
+			this.getFlightRecorder().record(Phase.UI_OPEN, player, shopkeeper, Outcome.CANCELLED);
 			return false;
 		}
 
@@ -119,19 +140,34 @@ public class SKUIRegistry extends AbstractTypeRegistry<AbstractUIType> implement
 		}
 
 		Log.debug(() -> "Opening UI '" + uiIdentifier + "' ...");
-		boolean isOpen = uiHandler.openWindow(player);
+		uiOpenTimings.start();
+		boolean isOpen;
+		try {
+			isOpen = uiHandler.openWindow(player);
+		} finally {
+			uiOpenTimings.stop();
+		}
 		if (isOpen) {
 			assert uiSessions.get(player.getUniqueId()) == null;
 			SKUISession session = new SKUISession(uiHandler, player, shopkeeper);
 			uiSessions.put(player.getUniqueId(), session);
+			InventoryView view = player.getOpenInventory();
+			session.setView(view);
+			uiSessionsByView.put(view, session);
 			this.onSessionStart(session);
+			this.getFlightRecorder().record(Phase.UI_OPEN, player, shopkeeper, Outcome.SUCCESS);
 			return true;
 		} else {
 			Log.debug(() -> "UI '" + uiIdentifier + "' NOT opened!");
+			this.getFlightRecorder().record(Phase.UI_OPEN, player, shopkeeper, Outcome.FAILURE);
 			return false;
 		}
 	}
 
+	private FlightRecorder getFlightRecorder() {
+		return SKShopkeepersPlugin.getInstance().getFlightRecorder();
+	}
+
 	@Override
 	public Collection<? extends SKUISession> getUISessions() {
 		return uiSessionsView;
@@ -180,6 +216,25 @@ public class SKUIRegistry extends AbstractTypeRegistry<AbstractUIType> implement
 		return uiSessions.get(player.getUniqueId());
 	}
 
+	/**
+	 * Gets the {@link SKUISession} whose inventory view is the given inventory view.
+	 * <p>
+	 * This is a cheap identity-based lookup. However, it does not find UI sessions whose player has a different
+	 * inventory view open than the one that got opened for the session.
+	 * 
+	 * @param view
+	 *            the inventory view, not <code>null</code>
+	 * @return the UI session, or <code>null</code>
+	 */
+	SKUISession getUISessionByView(InventoryView view) {
+		assert view != null;
+		return uiSessionsByView.get(view);
+	}
+
+	boolean hasUISessions() {
+		return !uiSessions.isEmpty();
+	}
+
 	@Deprecated
 	@Override
 	public SKUISession getSession(Player player) {
@@ -213,6 +268,7 @@ public class SKUIRegistry extends AbstractTypeRegistry<AbstractUIType> implement
 		assert player != null;
 		SKUISession session = uiSessions.remove(player.getUniqueId());
 		if (session == null) return;
+		uiSessionsByView.remove(session.getView(), session);
 
 		this.onSessionEnd(session, closeEvent);
 	}
@@ -226,6 +282,7 @@ public class SKUIRegistry extends AbstractTypeRegistry<AbstractUIType> implement
 		Log.debug(() -> "UI '" + session.getUIType().getIdentifier() + "' session ended for player '" + session.getPlayer().getName() + "'.");
 		session.getUIHandler().onInventoryClose(session.getPlayer(), closeEvent); // Inform UI handler
 		session.onSessionEnd(); // Inform session
+		this.getFlightRecorder().record(Phase.UI_CLOSE, session.getPlayer(), session.getShopkeeper(), Outcome.SUCCESS);
 	}
 
 	// Called by SKUISession.
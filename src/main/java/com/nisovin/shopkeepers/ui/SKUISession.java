@@ -1,6 +1,7 @@
 package com.nisovin.shopkeepers.ui;
 
 import org.bukkit.entity.Player;
+import org.bukkit.inventory.InventoryView;
 
 import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
@@ -17,6 +18,8 @@ public final class SKUISession implements UISession {
 	private final AbstractShopkeeper shopkeeper;
 	private boolean uiActive = true;
 	private boolean valid = true;
+	// The inventory view that got opened for this session:
+	private InventoryView view = null;
 
 	public SKUISession(UIHandler uiHandler, Player player, AbstractShopkeeper shopkeeper) {
 		Validate.notNull(uiHandler, "uiHandler is null");
@@ -60,6 +63,14 @@ public final class SKUISession implements UISession {
 		uiActive = true;
 	}
 
+	final InventoryView getView() {
+		return view;
+	}
+
+	final void setView(InventoryView view) {
+		this.view = view;
+	}
+
 	final void onSessionEnd() {
 		valid = false;
 	}
@@ -26,28 +26,22 @@ class UIListener implements Listener {
 	private final SKUIRegistry uiRegistry;
 
 	// The relation between early and late event handling are maintained via stacks, in case something (a plugin) is
-	// calling these inventory interaction events recursively from within an event handler. The DUMMY_UI_HANDLER on the
-	// stack indicates that the event is not being processed by any UI handler.
-	private static final AbstractUIType DUMMY_UI_TYPE = new AbstractUIType("dummy", null) {
-	};
-	private static final UIHandler DUMMY_UI_HANDLER = new UIHandler(DUMMY_UI_TYPE) {
-		@Override
-		protected boolean openWindow(Player player) {
-			return false;
-		}
+	// calling these inventory interaction events recursively from within an event handler. Only events that are
+	// processed by some UI handler are pushed onto the stacks. The late event handling therefore compares the event
+	// on top of the stack with the handled event.
+	private static final class ProcessedEvent {
 
-		@Override
-		public boolean isWindow(InventoryView view) {
-			return false;
-		}
+		private final InventoryInteractEvent event;
+		private final UIHandler uiHandler;
 
-		@Override
-		public boolean canOpen(Player player, boolean silent) {
-			return false;
+		ProcessedEvent(InventoryInteractEvent event, UIHandler uiHandler) {
+			this.event = event;
+			this.uiHandler = uiHandler;
 		}
-	};
-	private final Deque<UIHandler> clickHandlerStack = new ArrayDeque<>();
-	private final Deque<UIHandler> dragHandlerStack = new ArrayDeque<>();
+	}
+
+	private final Deque<ProcessedEvent> clickHandlerStack = new ArrayDeque<>();
+	private final Deque<ProcessedEvent> dragHandlerStack = new ArrayDeque<>();
 
 	UIListener(SKUIRegistry uiRegistry) {
 		this.uiRegistry = uiRegistry;
@@ -59,6 +53,26 @@ class UIListener implements Listener {
 		return uiRegistry.getUISession(player);
 	}
 
+	private SKUISession getUISession(InventoryInteractEvent event) {
+		// Fast path: Most inventory interactions involve inventory views that have not been opened by us.
+		SKUISession session = uiRegistry.getUISessionByView(event.getView());
+		if (session != null) return session;
+		if (!uiRegistry.hasUISessions()) return null;
+
+		// The player might have an active UI session, but some other inventory view open (this is handled during the
+		// validation of the session):
+		return this.getUISession(event.getWhoClicked());
+	}
+
+	// Returns the UI handler that was determined during the early handling of the given event, or null if the event is
+	// not processed by any UI handler.
+	private static UIHandler popUIHandler(Deque<ProcessedEvent> stack, InventoryInteractEvent event) {
+		ProcessedEvent processedEvent = stack.peek();
+		if (processedEvent == null || processedEvent.event != event) return null;
+		stack.pop();
+		return processedEvent.uiHandler;
+	}
+
 	private boolean validateSession(InventoryInteractEvent event, Player player, SKUISession session) {
 		InventoryView view = event.getView();
 		UIHandler uiHandler = session.getUIHandler();
@@ -107,45 +121,39 @@ class UIListener implements Listener {
 
 	@EventHandler(priority = EventPriority.LOW, ignoreCancelled = false)
 	void onInventoryEarly(InventoryClickEvent event) {
-		// The UI handler processing this click, or DUMMY_UI_HANDLER if none is processing the event:
-		UIHandler uiHandler = DUMMY_UI_HANDLER;
-		Player player = null; // The player, or null if there is no session
-		SKUISession session = this.getUISession(event.getWhoClicked());
-		if (session != null) {
-			player = (Player) event.getWhoClicked();
-			Player finalPlayer = player;
-			assert player.equals(session.getPlayer());
-			// Validate session:
-			if (this.validateSession(event, player, session)) {
-				uiHandler = session.getUIHandler();
-
-				// Debug information:
-				InventoryView view = event.getView();
-				Log.debug(() -> "Inventory click: player=" + finalPlayer.getName()
-						+ ", view-type=" + view.getType() + ", view-title=" + view.getTitle()
-						+ ", raw-slot-id=" + event.getRawSlot() + ", slot-id=" + event.getSlot() + ", slot-type=" + event.getSlotType()
-						+ ", shift=" + event.isShiftClick() + ", hotbar key=" + event.getHotbarButton()
-						+ ", left-or-right=" + (event.isLeftClick() ? "left" : (event.isRightClick() ? "right" : "unknown"))
-						+ ", click-type=" + event.getClick() + ", action=" + event.getAction()
-						+ ", time: " + (System.nanoTime() / 1000000L));
-			}
-		}
+		SKUISession session = this.getUISession(event);
+		if (session == null) return; // Not processed by any UI handler
 
-		// Keep track of the processing UI handler (can be dummy):
-		clickHandlerStack.push(uiHandler);
+		Player player = (Player) event.getWhoClicked();
+		assert player.equals(session.getPlayer());
+		// Validate session:
+		if (!this.validateSession(event, player, session)) return;
 
-		if (uiHandler != DUMMY_UI_HANDLER) {
-			// Let the UIHandler handle the click:
-			uiHandler.informOnInventoryClickEarly(event, player);
-		}
+		UIHandler uiHandler = session.getUIHandler();
+
+		// Debug information:
+		InventoryView view = event.getView();
+		Log.debug(() -> "Inventory click: player=" + player.getName()
+				+ ", view-type=" + view.getType() + ", view-title=" + view.getTitle()
+				+ ", raw-slot-id=" + event.getRawSlot() + ", slot-id=" + event.getSlot() + ", slot-type=" + event.getSlotType()
+				+ ", shift=" + event.isShiftClick() + ", hotbar key=" + event.getHotbarButton()
+				+ ", left-or-right=" + (event.isLeftClick() ? "left" : (event.isRightClick() ? "right" : "unknown"))
+				+ ", click-type=" + event.getClick() + ", action=" + event.getAction()
+				+ ", time: " + (System.nanoTime() / 1000000L));
+
+		// Keep track of the processing UI handler:
+		clickHandlerStack.push(new ProcessedEvent(event, uiHandler));
+
+		// Let the UIHandler handle the click:
+		uiHandler.informOnInventoryClickEarly(event, player);
 	}
 
 	// Priority HIGH instead of HIGHEST, since we might cancel the event and other plugins might want to react to that
 	// (see TradingHandler).
 	@EventHandler(priority = EventPriority.HIGH, ignoreCancelled = false)
 	void onInventoryClickLate(InventoryClickEvent event) {
-		UIHandler uiHandler = clickHandlerStack.pop(); // Not expected to be empty
-		if (uiHandler == DUMMY_UI_HANDLER) return; // Ignore
+		UIHandler uiHandler = popUIHandler(clickHandlerStack, event);
+		if (uiHandler == null) return; // Ignore
 		// It is expected that the session and UI handler determined at the beginning of the event processing are still
 		// valid at this point.
 
@@ -156,41 +164,35 @@ class UIListener implements Listener {
 
 	@EventHandler(priority = EventPriority.LOW)
 	void onInventoryDragEarly(InventoryDragEvent event) {
-		// The UI handler processing this click, or DUMMY_UI_HANDLER if none is processing the event:
-		UIHandler uiHandler = DUMMY_UI_HANDLER;
-		Player player = null; // The player, or null if there is no session
-		SKUISession session = this.getUISession(event.getWhoClicked());
-		if (session != null) {
-			player = (Player) event.getWhoClicked();
-			Player finalPlayer = player;
-			assert player.equals(session.getPlayer());
-			// Validate session:
-			if (this.validateSession(event, player, session)) {
-				uiHandler = session.getUIHandler();
-
-				// Debug information:
-				InventoryView view = event.getView();
-				Log.debug(() -> "Inventory dragging: player=" + finalPlayer.getName()
-						+ ", view-type=" + view.getType() + ", view-title=" + view.getTitle()
-						+ ", drag-type=" + event.getType());
-			}
-		}
+		SKUISession session = this.getUISession(event);
+		if (session == null) return; // Not processed by any UI handler
 
-		// Keep track of the processing UI handler (can be dummy):
-		dragHandlerStack.push(uiHandler);
+		Player player = (Player) event.getWhoClicked();
+		assert player.equals(session.getPlayer());
+		// Validate session:
+		if (!this.validateSession(event, player, session)) return;
 
-		if (uiHandler != DUMMY_UI_HANDLER) {
-			// Let the UIHandler handle the click:
-			uiHandler.informOnInventoryDragEarly(event, player);
-		}
+		UIHandler uiHandler = session.getUIHandler();
+
+		// Debug information:
+		InventoryView view = event.getView();
+		Log.debug(() -> "Inventory dragging: player=" + player.getName()
+				+ ", view-type=" + view.getType() + ", view-title=" + view.getTitle()
+				+ ", drag-type=" + event.getType());
+
+		// Keep track of the processing UI handler:
+		dragHandlerStack.push(new ProcessedEvent(event, uiHandler));
+
+		// Let the UIHandler handle the dragging:
+		uiHandler.informOnInventoryDragEarly(event, player);
 	}
 
 	// Priority HIGH instead of HIGHEST, since we might cancel the event and other plugins might want to react to that
 	// (see TradingHandler).
 	@EventHandler(priority = EventPriority.HIGH)
 	void onInventoryDragLate(InventoryDragEvent event) {
-		UIHandler uiHandler = dragHandlerStack.pop(); // Not expected to be empty
-		if (uiHandler == DUMMY_UI_HANDLER) return; // Ignore
+		UIHandler uiHandler = popUIHandler(dragHandlerStack, event);
+		if (uiHandler == null) return; // Ignore
 		// It is expected that the session and UI handler determined at the beginning of the event processing are still
 		// valid at this point.
 
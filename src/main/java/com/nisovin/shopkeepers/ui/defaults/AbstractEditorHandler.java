@@ -345,13 +345,21 @@ public abstract class AbstractEditorHandler extends UIHandler {
 
 	protected void setTradeColumn(Inventory inventory, int column, TradingRecipeDraft recipe) {
 		if (inventory == null) return;
-		// The inventory implementations create NMS copies of the items, so we do not need to copy them ourselves here:
-		inventory.setItem(column + RESULT_ITEM_OFFSET, ItemUtils.asItemStackOrNull(recipe.getResultItem()));
-		inventory.setItem(column + ITEM_1_OFFSET, ItemUtils.asItemStackOrNull(recipe.getItem1()));
-		inventory.setItem(column + ITEM_2_OFFSET, ItemUtils.asItemStackOrNull(recipe.getItem2()));
+		// The inventory implementations create NMS copies of the items, so we do not need to copy them ourselves here.
+		// Slots that already contain the same items are skipped.
+		ItemUtils.setItemIfChanged(inventory, column + RESULT_ITEM_OFFSET, ItemUtils.asItemStackOrNull(recipe.getResultItem()));
+		ItemUtils.setItemIfChanged(inventory, column + ITEM_1_OFFSET, ItemUtils.asItemStackOrNull(recipe.getItem1()));
+		ItemUtils.setItemIfChanged(inventory, column + ITEM_2_OFFSET, ItemUtils.asItemStackOrNull(recipe.getItem2()));
+	}
+
+	// Checks if the given trade column still contains the items of the given recipe.
+	protected boolean isTradeColumnUnchanged(Inventory inventory, int column, TradingRecipeDraft recipe) {
+		ItemStack resultItem = inventory.getItem(column + RESULT_ITEM_OFFSET);
+		ItemStack item1 = inventory.getItem(column + ITEM_1_OFFSET);
+		ItemStack item2 = inventory.getItem(column + ITEM_2_OFFSET);
+		return recipe.areItemsEqual(resultItem, item1, item2);
 	}
 
-	// TODO Avoid creating new TradingRecipeDraft objects here and instead update the drafts of the session?
 	protected TradingRecipeDraft getTradingRecipe(Inventory inventory, int column) {
 		ItemStack resultItem = inventory.getItem(column + RESULT_ITEM_OFFSET);
 		ItemStack item1 = inventory.getItem(column + ITEM_1_OFFSET);
@@ -403,7 +411,7 @@ public abstract class AbstractEditorHandler extends UIHandler {
 		protected final void updateIcon() {
 			if (slot != NO_SLOT && editorHandler != null) {
 				for (Session session : editorHandler.sessions.values()) {
-					session.inventory.setItem(slot, this.getIcon(session));
+					ItemUtils.setItemIfChanged(session.inventory, slot, this.getIcon(session));
 					session.player.updateInventory();
 				}
 			}
@@ -528,9 +536,10 @@ public abstract class AbstractEditorHandler extends UIHandler {
 				if (newPage == session.currentPage) return false; // Page has not changed
 
 				// Update page:
+				// Only the changed slots are updated. These are sent to the player by the regular inventory
+				// synchronization, so we do not need to resend the complete inventory.
 				session.setPage(newPage);
 				setupPage(player, session.currentPage);
-				player.updateInventory();
 				return true;
 			}
 		};
@@ -568,9 +577,10 @@ public abstract class AbstractEditorHandler extends UIHandler {
 				if (newPage == session.currentPage) return false; // Page has not changed
 
 				// Update page:
+				// Only the changed slots are updated. These are sent to the player by the regular inventory
+				// synchronization, so we do not need to resend the complete inventory.
 				session.setPage(newPage);
 				setupPage(player, session.currentPage);
-				player.updateInventory();
 				return true;
 			}
 		};
@@ -832,25 +842,15 @@ public abstract class AbstractEditorHandler extends UIHandler {
 		assert session != null;
 		Inventory inventory = session.inventory;
 
-		// clear trades area:
-		for (int i = TRADES_ROW_1_START; i <= TRADES_ROW_1_END; ++i) {
-			inventory.setItem(i, null);
-		}
-		for (int i = TRADES_ROW_2_START; i <= TRADES_ROW_2_END; ++i) {
-			inventory.setItem(i, null);
-		}
-		for (int i = TRADES_ROW_3_START; i <= TRADES_ROW_3_END; ++i) {
-			inventory.setItem(i, null);
-		}
-
-		// Insert trades:
+		// Insert trades, and clear the columns without trades:
+		// Each slot is only updated if its contents change.
 		int page = session.currentPage;
 		assert page >= 1;
 		List<TradingRecipeDraft> recipes = session.recipes;
 		int recipesPerPage = COLUMNS_PER_ROW;
 		int startIndex = (page - 1) * recipesPerPage;
-		for (int column = 0, i = startIndex; column < COLUMNS_PER_ROW && i < recipes.size(); ++column, ++i) {
-			TradingRecipeDraft recipe = recipes.get(i);
+		for (int column = 0, i = startIndex; column < TRADES_COLUMNS; ++column, ++i) {
+			TradingRecipeDraft recipe = (i < recipes.size()) ? recipes.get(i) : TradingRecipeDraft.EMPTY;
 			this.setTradeColumn(inventory, column, recipe);
 		}
 	}
@@ -858,19 +858,12 @@ public abstract class AbstractEditorHandler extends UIHandler {
 	protected void setupTradesPageBar(Session session) {
 		assert session != null;
 		Inventory inventory = session.inventory;
-		// Clear page bar area:
-		for (int i = TRADES_PAGE_BAR_START; i <= TRADES_PAGE_BAR_END; ++i) {
-			inventory.setItem(i, null);
-		}
-
-		// Insert buttons:
+		// Insert buttons, and clear the slots without buttons or icons:
 		Button[] buttons = this.getTradesPageBarButtons();
 		for (int i = 0; i < buttons.length; ++i) {
 			Button button = buttons[i];
-			if (button == null) continue;
-			ItemStack icon = button.getIcon(session);
-			if (icon == null) continue;
-			inventory.setItem(button.slot, icon);
+			ItemStack icon = (button != null) ? button.getIcon(session) : null;
+			ItemUtils.setItemIfChanged(inventory, TRADES_PAGE_BAR_START + i, icon);
 		}
 	}
 
@@ -894,8 +887,8 @@ public abstract class AbstractEditorHandler extends UIHandler {
 				icon = button.getIcon(session);
 			}
 			// Null will clear the slot (required if this is called to refresh the buttons in an already setup
-			// inventory):
-			inventory.setItem(slot, icon);
+			// inventory). Unchanged icons are skipped:
+			ItemUtils.setItemIfChanged(inventory, slot, icon);
 		}
 	}
 
@@ -1051,10 +1044,14 @@ public abstract class AbstractEditorHandler extends UIHandler {
 			recipes.add(TradingRecipeDraft.EMPTY);
 		}
 
-		// Replace recipes:
+		// Replace the recipes of the edited columns:
+		// The recipe drafts of unchanged columns are reused.
 		for (int column = 0; column < TRADES_COLUMNS; column++) {
-			TradingRecipeDraft recipeDraft = this.getTradingRecipe(inventory, column);
 			int recipeIndex = startIndex + column;
+			TradingRecipeDraft previousRecipeDraft = recipes.get(recipeIndex);
+			if (this.isTradeColumnUnchanged(inventory, column, previousRecipeDraft)) continue;
+
+			TradingRecipeDraft recipeDraft = this.getTradingRecipe(inventory, column);
 			recipes.set(recipeIndex, recipeDraft);
 		}
 	}
@@ -19,6 +19,7 @@ import org.bukkit.inventory.MerchantInventory;
 import org.bukkit.inventory.MerchantRecipe;
 import org.bukkit.inventory.PlayerInventory;
 
+import com.nisovin.shopkeepers.SKShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.ShopkeepersPlugin;
 import com.nisovin.shopkeepers.api.events.ShopkeeperTradeEvent;
 import com.nisovin.shopkeepers.api.shopkeeper.Shopkeeper;
@@ -27,6 +28,9 @@ import com.nisovin.shopkeepers.api.util.UnmodifiableItemStack;
 import com.nisovin.shopkeepers.compat.NMSManager;
 import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.debug.Debug;
+import com.nisovin.shopkeepers.debug.FlightRecorder;
+import com.nisovin.shopkeepers.debug.FlightRecorder.Outcome;
+import com.nisovin.shopkeepers.debug.FlightRecorder.Phase;
 import com.nisovin.shopkeepers.lang.Messages;
 import com.nisovin.shopkeepers.shopkeeper.AbstractShopkeeper;
 import com.nisovin.shopkeepers.ui.AbstractShopkeeperUIHandler;
@@ -38,6 +42,8 @@ import com.nisovin.shopkeepers.util.Log;
 import com.nisovin.shopkeepers.util.MerchantUtils;
 import com.nisovin.shopkeepers.util.PermissionUtils;
 import com.nisovin.shopkeepers.util.TextUtils;
+import com.nisovin.shopkeepers.util.timer.Timer;
+import com.nisovin.shopkeepers.util.timer.Timings;
 
 public class TradingHandler extends AbstractShopkeeperUIHandler {
 
@@ -121,9 +127,22 @@ public class TradingHandler extends AbstractShopkeeperUIHandler {
 	protected static final int BUY_ITEM_2_SLOT_ID = 1;
 	protected static final int RESULT_ITEM_SLOT_ID = 2;
 
+	// Shared by all trading handlers: The handling of clicks on the result slot, including all triggered trades.
+	private static final Timer TRADE_TIMINGS = new Timer();
+
+	public static Timings getTradeTimings() {
+		return TRADE_TIMINGS;
+	}
+
 	// Counts the trades triggered by the last click-event:
 	protected int tradeCounter = 0;
 
+	// The merchant recipes that are shared by all players, if enabled (see #isSharingMerchantRecipes()), and the trading
+	// recipes they have been created from. Trading recipes are immutable, so we can detect changes to the shopkeeper's
+	// recipes by comparing the identities of these trading recipes.
+	private final List<TradingRecipe> sharedRecipesSource = new ArrayList<>();
+	private List<MerchantRecipe> sharedMerchantRecipes = null; // Unmodifiable, null if not yet created
+
 	public TradingHandler(AbstractUIType uiType, AbstractShopkeeper shopkeeper) {
 		super(uiType, shopkeeper);
 	}
@@ -171,12 +190,58 @@ public class TradingHandler extends AbstractShopkeeperUIHandler {
 	}
 
 	protected void setupMerchantRecipes(Merchant merchant, List<? extends TradingRecipe> recipes) {
-		// Create list of merchant recipes:
-		List<MerchantRecipe> merchantRecipes = this.createMerchantRecipes(recipes);
+		// Get list of merchant recipes:
+		List<MerchantRecipe> merchantRecipes = this.getMerchantRecipes(recipes);
 		// Set merchant's recipes:
+		// This copies the merchant recipes, so the merchant does not affect shared merchant recipes.
 		merchant.setRecipes(merchantRecipes);
 	}
 
+	/**
+	 * Whether the merchant recipes created by this handler only depend on the shopkeeper's trading recipes, and not on
+	 * the trading player or any other state, and can therefore be shared among all players that use this handler.
+	 * <p>
+	 * This is disabled by default.
+	 * 
+	 * @return <code>true</code> if the merchant recipes can be shared
+	 */
+	protected boolean isSharingMerchantRecipes() {
+		return false;
+	}
+
+	/**
+	 * Gets the merchant recipes for the given trading recipes.
+	 * <p>
+	 * If {@link #isSharingMerchantRecipes() enabled}, this reuses the merchant recipes that have previously been created
+	 * for the same trading recipes. The returned list is then unmodifiable and shared with other players, and neither
+	 * the list nor its merchant recipes are allowed to be modified. Otherwise this creates new merchant recipes.
+	 * 
+	 * @param recipes
+	 *            the trading recipes, not <code>null</code>
+	 * @return the merchant recipes
+	 */
+	protected List<MerchantRecipe> getMerchantRecipes(List<? extends TradingRecipe> recipes) {
+		if (!this.isSharingMerchantRecipes()) {
+			return this.createMerchantRecipes(recipes);
+		}
+
+		if (sharedMerchantRecipes == null || !this.isSameRecipes(sharedRecipesSource, recipes)) {
+			sharedRecipesSource.clear();
+			sharedRecipesSource.addAll(recipes);
+			sharedMerchantRecipes = Collections.unmodifiableList(this.createMerchantRecipes(recipes));
+		}
+		return sharedMerchantRecipes;
+	}
+
+	private boolean isSameRecipes(List<? extends TradingRecipe> recipes, List<? extends TradingRecipe> otherRecipes) {
+		int size = recipes.size();
+		if (size != otherRecipes.size()) return false;
+		for (int i = 0; i < size; ++i) {
+			if (recipes.get(i) != otherRecipes.get(i)) return false;
+		}
+		return true;
+	}
+
 	protected List<MerchantRecipe> createMerchantRecipes(List<? extends TradingRecipe> recipes) {
 		List<MerchantRecipe> merchantRecipes = new ArrayList<>();
 		for (TradingRecipe recipe : recipes) {
@@ -209,7 +274,7 @@ public class TradingHandler extends AbstractShopkeeperUIHandler {
 
 		Shopkeeper shopkeeper = this.getShopkeeper();
 		List<? extends TradingRecipe> recipes = shopkeeper.getTradingRecipes(player);
-		List<MerchantRecipe> newMerchantRecipes = this.createMerchantRecipes(recipes);
+		List<MerchantRecipe> newMerchantRecipes = this.getMerchantRecipes(recipes);
 		if (MerchantUtils.MERCHANT_RECIPES_IGNORE_USES_EXCEPT_BLOCKED.equals(oldMerchantRecipes, newMerchantRecipes)) {
 			Log.debug(() -> "Trades are still up-to-date for player " + player.getName());
 			return; // Recipes did not change
@@ -217,7 +282,11 @@ public class TradingHandler extends AbstractShopkeeperUIHandler {
 		Log.debug(() -> "Updating trades for player " + player.getName());
 
 		// It is not safe to reduce the number of trading recipes for the player, so we may need to add dummy recipes:
-		this.ensureNoFewerRecipes(oldMerchantRecipes, newMerchantRecipes);
+		if (newMerchantRecipes.size() < oldMerchantRecipes.size()) {
+			// Copy the (possibly shared) merchant recipes before we modify them for this player:
+			newMerchantRecipes = new ArrayList<>(newMerchantRecipes);
+			this.ensureNoFewerRecipes(oldMerchantRecipes, newMerchantRecipes);
+		}
 
 		// Set merchant's recipes:
 		merchant.setRecipes(newMerchantRecipes);
@@ -357,6 +426,18 @@ public class TradingHandler extends AbstractShopkeeperUIHandler {
 		clickEvent.setCancelled(true);
 		ItemUtils.updateInventoryLater(player);
 
+		TRADE_TIMINGS.start();
+		try {
+			this.handleResultSlotClick(clickEvent, player, resultItem, cursor);
+		} finally {
+			TRADE_TIMINGS.stop();
+		}
+	}
+
+	private void handleResultSlotClick(	InventoryClickEvent clickEvent, Player player,
+										UnmodifiableItemStack resultItem, ItemStack cursor) {
+		InventoryAction action = clickEvent.getAction();
+
 		// Check for a trade and prepare trade data:
 		TradeData tradeData = this.checkForTrade(clickEvent, false);
 		if (tradeData == null) {
@@ -513,6 +594,7 @@ public class TradingHandler extends AbstractShopkeeperUIHandler {
 		if (ItemUtils.isEmpty(resultItem)) {
 			if (!silent) {
 				Log.debug("Not handling trade: There is no item in the clicked result slot (no trade available).");
+				this.getFlightRecorder().record(Phase.TRADE_CHECK, tradingPlayer, this.getShopkeeper(), Outcome.NO_RESULT_ITEM);
 			}
 			return null; // No trade available
 		}
@@ -524,6 +606,7 @@ public class TradingHandler extends AbstractShopkeeperUIHandler {
 			if (!silent) {
 				TextUtils.sendMessage(tradingPlayer, Messages.cannotTradeUnexpectedTrade);
 				Log.debug("Not handling trade: Could not find the used trading recipe!");
+				this.getFlightRecorder().recordAbortedTrade(Phase.TRADE_CHECK, tradingPlayer, this.getShopkeeper(), Outcome.UNKNOWN_RECIPE);
 			}
 			this.clearResultSlotForInvalidTrade(merchantInventory);
 			return null;
@@ -543,6 +626,7 @@ public class TradingHandler extends AbstractShopkeeperUIHandler {
 					Log.debug(recipeResultItemYaml);
 					Log.debug(resultItemYaml);
 				}
+				this.getFlightRecorder().recordAbortedTrade(Phase.TRADE_CHECK, tradingPlayer, this.getShopkeeper(), Outcome.RESULT_ITEM_MISMATCH);
 			}
 			this.clearResultSlotForInvalidTrade(merchantInventory);
 			return null;
@@ -575,6 +659,7 @@ public class TradingHandler extends AbstractShopkeeperUIHandler {
 			if (!silent) {
 				TextUtils.sendMessage(tradingPlayer, Messages.cannotTradeUnexpectedTrade);
 				Log.debug("Not handling trade: Could not match the offered items to the used trading recipe!");
+				this.getFlightRecorder().recordAbortedTrade(Phase.TRADE_CHECK, tradingPlayer, this.getShopkeeper(), Outcome.OFFERED_ITEMS_MISMATCH);
 			}
 			this.clearResultSlotForInvalidTrade(merchantInventory);
 			return null;
@@ -590,6 +675,7 @@ public class TradingHandler extends AbstractShopkeeperUIHandler {
 				if (!slientStrictItemComparison) {
 					// Feedback message:
 					TextUtils.sendMessage(tradingPlayer, Messages.cannotTradeItemsNotStrictlyMatching);
+					this.getFlightRecorder().record(Phase.TRADE_CHECK, tradingPlayer, this.getShopkeeper(), Outcome.ITEMS_NOT_STRICTLY_MATCHING);
 
 					// Additional debug output:
 					if (Debug.isDebugging()) {
@@ -639,6 +725,10 @@ public class TradingHandler extends AbstractShopkeeperUIHandler {
 				&& NMSManager.getProvider().matches(offeredItem2, requiredItem2));
 	}
 
+	private FlightRecorder getFlightRecorder() {
+		return SKShopkeepersPlugin.getInstance().getFlightRecorder();
+	}
+
 	protected final void debugPreventedTrade(Player player, String reason) {
 		Log.debug(() -> "Prevented trade by " + player.getName() + " with shopkeeper at "
 				+ this.getShopkeeper().getPositionString() + ": " + reason);
@@ -678,6 +768,7 @@ public class TradingHandler extends AbstractShopkeeperUIHandler {
 		// Check and prepare the trade:
 		if (!this.prepareTrade(tradeData)) {
 			// The trade got cancelled for some shopkeeper-specific reason:
+			this.getFlightRecorder().record(Phase.TRADE_PREPARE, tradeData.tradingPlayer, this.getShopkeeper(), Outcome.ABORTED);
 			this.onTradeAborted(tradeData);
 			return false;
 		}
@@ -699,6 +790,7 @@ public class TradingHandler extends AbstractShopkeeperUIHandler {
 		Bukkit.getPluginManager().callEvent(tradeEvent);
 		if (tradeEvent.isCancelled()) {
 			Log.debug("The trade got cancelled by some other plugin.");
+			this.getFlightRecorder().record(Phase.TRADE_EVENT, tradeData.tradingPlayer, this.getShopkeeper(), Outcome.CANCELLED);
 			this.onTradeAborted(tradeData);
 			return false;
 		}
@@ -739,6 +831,7 @@ public class TradingHandler extends AbstractShopkeeperUIHandler {
 
 		// Shopkeeper-specific application of the trade:
 		this.onTradeApplied(tradeData);
+		this.getFlightRecorder().record(Phase.TRADE_APPLY, tradeData.tradingPlayer, this.getShopkeeper(), Outcome.SUCCESS);
 
 		// Log trade:
 		Log.debug(() -> "Trade (#" + tradeCounter + ") by " + tradeData.tradingPlayer.getName() + " with shopkeeper at "
@@ -0,0 +1,217 @@
+package com.nisovin.shopkeepers.util;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import org.bukkit.block.Block;
+import org.bukkit.entity.Entity;
+import org.bukkit.entity.Player;
+import org.bukkit.event.Event;
+import org.bukkit.event.entity.EntityDamageByEntityEvent;
+import org.bukkit.event.player.PlayerInteractEntityEvent;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.plugin.RegisteredListener;
+
+import com.nisovin.shopkeepers.debug.Debug;
+import com.nisovin.shopkeepers.debug.DebugOptions;
+import com.nisovin.shopkeepers.util.timer.Timer;
+import com.nisovin.shopkeepers.util.timer.Timings;
+
+/**
+ * Caches and times the results of the interaction checks that call synthetic test events (such as
+ * {@link Utils#checkBlockInteract(Player, Block)}).
+ * <p>
+ * The test events are dispatched to the listeners of all plugins, which can be costly, especially when protection
+ * plugins need to look up regions or claims. The results are therefore cached for a short duration per player, target
+ * and type of check. Since there is no general way to get informed about changes to the regions or permissions of other
+ * plugins, the cache duration is kept short. The cached results of a player are also discarded when the player quits.
+ */
+public final class InteractionChecks {
+
+	public enum CheckType {
+		BLOCK_INTERACT(PlayerInteractEvent.class),
+		ENTITY_INTERACT(PlayerInteractEntityEvent.class),
+		ENTITY_DAMAGE(EntityDamageByEntityEvent.class);
+
+		private final Class<? extends Event> eventClass;
+
+		private CheckType(Class<? extends Event> eventClass) {
+			this.eventClass = eventClass;
+		}
+	}
+
+	private static final long CACHE_DURATION_MILLIS = 1000L;
+	// The expired cache entries are removed once the cache exceeds this size:
+	private static final int CLEANUP_THRESHOLD = 256;
+
+	private static final class CacheKey {
+
+		private final UUID playerId;
+		private final CheckType checkType;
+		private final Object target; // Block location or entity unique id
+
+		CacheKey(UUID playerId, CheckType checkType, Object target) {
+			this.playerId = playerId;
+			this.checkType = checkType;
+			this.target = target;
+		}
+
+		@Override
+		public int hashCode() {
+			int result = playerId.hashCode();
+			result = 31 * result + checkType.hashCode();
+			result = 31 * result + target.hashCode();
+			return result;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) return true;
+			if (!(obj instanceof CacheKey)) return false;
+			CacheKey other = (CacheKey) obj;
+			return playerId.equals(other.playerId)
+					&& checkType == other.checkType
+					&& target.equals(other.target);
+		}
+	}
+
+	private static final class CachedResult {
+
+		private final boolean result;
+		private final long timestampMillis;
+
+		CachedResult(boolean result, long timestampMillis) {
+			this.result = result;
+			this.timestampMillis = timestampMillis;
+		}
+	}
+
+	private static final Map<CacheKey, CachedResult> cachedResults = new HashMap<>();
+	private static final Map<CheckType, Timer> timings = new EnumMap<>(CheckType.class);
+	static {
+		for (CheckType checkType : CheckType.values()) {
+			timings.put(checkType, new Timer());
+		}
+	}
+
+	private InteractionChecks() {
+	}
+
+	/**
+	 * Gets the {@link Timings} of the test events that are called for the specified type of check.
+	 * <p>
+	 * Checks whose result is retrieved from the cache are not included.
+	 * 
+	 * @param checkType
+	 *            the type of check, not <code>null</code>
+	 * @return the timings
+	 */
+	public static Timings getTimings(CheckType checkType) {
+		Validate.notNull(checkType, "checkType is null");
+		return timings.get(checkType);
+	}
+
+	/**
+	 * Checks if the given player can interact with the given block, reusing a recent result of this check if
+	 * available.
+	 * 
+	 * @param player
+	 *            the player, not <code>null</code>
+	 * @param block
+	 *            the block, not <code>null</code>
+	 * @param check
+	 *            performs the actual check, not <code>null</code>
+	 * @return the result of the check
+	 */
+	static boolean checkBlock(Player player, Block block, BooleanSupplier check) {
+		return check(player, CheckType.BLOCK_INTERACT, new BlockLocation(block), check);
+	}
+
+	/**
+	 * Checks if the given player can interact with or damage the given entity, reusing a recent result of this check if
+	 * available.
+	 * 
+	 * @param player
+	 *            the player, not <code>null</code>
+	 * @param checkType
+	 *            the type of check, not <code>null</code>
+	 * @param entity
+	 *            the entity, not <code>null</code>
+	 * @param check
+	 *            performs the actual check, not <code>null</code>
+	 * @return the result of the check
+	 */
+	public static boolean checkEntity(Player player, CheckType checkType, Entity entity, BooleanSupplier check) {
+		return check(player, checkType, entity.getUniqueId(), check);
+	}
+
+	private static boolean check(Player player, CheckType checkType, Object target, BooleanSupplier check) {
+		assert player != null && checkType != null && target != null && check != null;
+		CacheKey key = new CacheKey(player.getUniqueId(), checkType, target);
+		long now = System.currentTimeMillis();
+		CachedResult cachedResult = cachedResults.get(key);
+		if (cachedResult != null && now - cachedResult.timestampMillis < CACHE_DURATION_MILLIS) {
+			return cachedResult.result;
+		}
+
+		long startNanos = System.nanoTime();
+		boolean result = check.getAsBoolean();
+		long durationNanos = System.nanoTime() - startNanos;
+		timings.get(checkType).addTiming(durationNanos);
+		if (Debug.isDebugging(DebugOptions.interactionChecks)) {
+			double durationMillis = TimeUtils.convert(durationNanos, TimeUnit.NANOSECONDS, TimeUnit.MILLISECONDS);
+			Log.debug(() -> "Interaction check " + checkType + " of player " + player.getName() + " for " + target
+					+ ": result=" + result + ", duration=" + TextUtils.DECIMAL_FORMAT_PRECISE.format(durationMillis)
+					+ " ms, listening plugins=" + getListeningPlugins(checkType));
+		}
+
+		if (cachedResults.size() >= CLEANUP_THRESHOLD) {
+			removeExpired(now);
+		}
+		cachedResults.put(key, new CachedResult(result, now));
+		return result;
+	}
+
+	private static Set<String> getListeningPlugins(CheckType checkType) {
+		Set<String> pluginNames = new LinkedHashSet<>();
+		for (RegisteredListener listener : EventUtils.getHandlerList(checkType.eventClass).getRegisteredListeners()) {
+			pluginNames.add(listener.getPlugin().getName());
+		}
+		return pluginNames;
+	}
+
+	private static void removeExpired(long now) {
+		Iterator<CachedResult> iterator = cachedResults.values().iterator();
+		while (iterator.hasNext()) {
+			if (now - iterator.next().timestampMillis >= CACHE_DURATION_MILLIS) {
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Discards the cached check results of the given player.
+	 * 
+	 * @param player
+	 *            the player, not <code>null</code>
+	 */
+	public static void invalidate(Player player) {
+		Validate.notNull(player, "player is null");
+		UUID playerId = player.getUniqueId();
+		cachedResults.keySet().removeIf(key -> key.playerId.equals(playerId));
+	}
+
+	/**
+	 * Discards all cached check results.
+	 */
+	public static void invalidateAll() {
+		cachedResults.clear();
+	}
+}
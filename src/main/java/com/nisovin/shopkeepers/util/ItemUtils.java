@@ -5,6 +5,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
 
 import org.bukkit.Bukkit;
 import org.bukkit.Color;
@@ -864,14 +865,31 @@ public final class ItemUtils {
 	}
 
 	public static int convertItems(@ReadWrite ItemStack @ReadOnly [] contents, Predicate<@ReadOnly ItemStack> filter) {
+		return convertItems(contents, filter, ItemUtils::convertItem);
+	}
+
+	/**
+	 * Converts the given items using the given item converter.
+	 * 
+	 * @param contents
+	 *            the items, not <code>null</code>
+	 * @param filter
+	 *            only items accepted by this filter are converted, can be <code>null</code> to convert all items
+	 * @param converter
+	 *            the item converter, not <code>null</code>, expected to behave like {@link #convertItem(ItemStack)}
+	 * @return the number of converted item stacks
+	 */
+	public static int convertItems(	@ReadWrite ItemStack @ReadOnly [] contents, Predicate<@ReadOnly ItemStack> filter,
+									UnaryOperator<@ReadOnly ItemStack> converter) {
 		Validate.notNull(contents, "contents is null");
+		Validate.notNull(converter, "converter is null");
 		filter = PredicateUtils.orAlwaysTrue(filter);
 		int convertedStacks = 0;
 		for (int slot = 0; slot < contents.length; slot++) {
 			ItemStack slotItem = contents[slot];
 			if (isEmpty(slotItem)) continue;
 			if (!filter.test(slotItem)) continue;
-			ItemStack convertedItem = convertItem(slotItem);
+			ItemStack convertedItem = converter.apply(slotItem);
 			if (!slotItem.isSimilar(convertedItem)) {
 				contents[slot] = convertedItem;
 				convertedStacks += 1;
@@ -881,12 +899,18 @@ public final class ItemUtils {
 	}
 
 	public static int convertItems(Inventory inventory, Predicate<@ReadOnly ItemStack> filter, boolean updateViewers) {
+		return convertItems(inventory, filter, ItemUtils::convertItem, updateViewers);
+	}
+
+	public static int convertItems(	Inventory inventory, Predicate<@ReadOnly ItemStack> filter,
+									UnaryOperator<@ReadOnly ItemStack> converter, boolean updateViewers) {
 		Validate.notNull(inventory, "inventory is null");
+		Validate.notNull(converter, "converter is null");
 		filter = PredicateUtils.orAlwaysTrue(filter);
 
 		// Convert inventory contents (includes armor and off hand slots for player inventories):
 		ItemStack[] contents = inventory.getContents();
-		int convertedStacks = convertItems(contents, filter);
+		int convertedStacks = convertItems(contents, filter, converter);
 		if (convertedStacks > 0) {
 			// Apply changes back to the inventory:
 			setContents(inventory, contents);
@@ -897,7 +921,7 @@ public final class ItemUtils {
 			Player player = (Player) ((PlayerInventory) inventory).getHolder();
 			ItemStack cursor = player.getItemOnCursor();
 			if (!ItemUtils.isEmpty(cursor) && filter.test(cursor)) {
-				ItemStack convertedCursor = ItemUtils.convertItem(cursor);
+				ItemStack convertedCursor = converter.apply(cursor);
 				if (!cursor.isSimilar(convertedCursor)) {
 					convertedStacks += 1;
 				}
@@ -1430,6 +1454,58 @@ public final class ItemUtils {
 		}
 	}
 
+	/**
+	 * Sets the item of the specified slot, unless the slot already contains an equal item.
+	 * <p>
+	 * This avoids that the inventory creates a copy of the given item, and that the slot is marked as changed, if its
+	 * contents remain the same.
+	 * 
+	 * @param inventory
+	 *            the inventory, not <code>null</code>
+	 * @param slot
+	 *            the slot
+	 * @param item
+	 *            the new item, can be <code>null</code>
+	 */
+	public static void setItemIfChanged(Inventory inventory, int slot, @ReadOnly ItemStack item) {
+		ItemStack currentItem = inventory.getItem(slot); // Null if empty
+		if (Objects.equals(getNullIfEmpty(item), currentItem)) return;
+		inventory.setItem(slot, item); // This copies the item internally
+	}
+
+	/**
+	 * Writes the slots that have been changed in the given new contents, compared to the given original contents, to
+	 * the inventory.
+	 * <p>
+	 * This expects that the new contents are a copy of the original contents array, and that changed slots have been
+	 * assigned new item stack instances, instead of modifying the original item stacks. Slots are compared by identity,
+	 * so that unchanged slots are neither read from nor written to the inventory.
+	 * 
+	 * @param inventory
+	 *            the inventory, not <code>null</code>
+	 * @param originalContents
+	 *            the original contents, not <code>null</code>
+	 * @param newContents
+	 *            the new contents, not <code>null</code>, of the same length as the original contents
+	 * @return the number of written slots
+	 */
+	public static int setChangedContents(	Inventory inventory, @ReadOnly ItemStack @ReadOnly [] originalContents,
+											@ReadOnly ItemStack @ReadOnly [] newContents) {
+		Validate.notNull(inventory, "inventory is null");
+		Validate.notNull(originalContents, "originalContents is null");
+		Validate.notNull(newContents, "newContents is null");
+		Validate.isTrue(originalContents.length == newContents.length, "originalContents and newContents differ in length");
+		int changedSlots = 0;
+		final int length = newContents.length;
+		for (int slot = 0; slot < length; ++slot) {
+			ItemStack newItem = newContents[slot];
+			if (newItem == originalContents[slot]) continue; // Unchanged
+			inventory.setItem(slot, newItem); // This copies the item internally
+			changedSlots++;
+		}
+		return changedSlots;
+	}
+
 	public static void updateInventoryLater(Inventory inventory) {
 		// If the inventory belongs to a player, always update it for that player:
 		Player owner = null;
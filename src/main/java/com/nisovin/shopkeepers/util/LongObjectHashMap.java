@@ -0,0 +1,229 @@
+package com.nisovin.shopkeepers.util;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * A hash map with primitive {@code long} keys.
+ * <p>
+ * Unlike a {@link java.util.HashMap} with {@link Long} keys, this map does not need to box its keys, neither for
+ * insertions nor for lookups. This makes it suited for frequent lookups of packed coordinates (see
+ * {@link PackedCoordinates}) in performance critical code.
+ * <p>
+ * The map uses open addressing with linear probing. <code>null</code> values are not supported: {@link #get(long)}
+ * returns <code>null</code> to indicate that there is no mapping for a key.
+ * <p>
+ * Not thread-safe.
+ *
+ * @param <V>
+ *            the type of values
+ */
+public final class LongObjectHashMap<V> {
+
+	private static final int DEFAULT_CAPACITY = 16;
+	private static final float LOAD_FACTOR = 0.5F;
+
+	private long[] keys;
+	private Object[] values; // null indicates an empty slot
+	private int mask;
+	private int size = 0;
+	private int resizeThreshold;
+
+	/**
+	 * Creates a new empty {@link LongObjectHashMap}.
+	 */
+	public LongObjectHashMap() {
+		this(DEFAULT_CAPACITY);
+	}
+
+	/**
+	 * Creates a new empty {@link LongObjectHashMap}.
+	 *
+	 * @param expectedSize
+	 *            the expected number of mappings
+	 */
+	public LongObjectHashMap(int expectedSize) {
+		Validate.isTrue(expectedSize >= 0, "expectedSize cannot be negative");
+		this.allocate(tableSizeFor(expectedSize));
+	}
+
+	private static int tableSizeFor(int expectedSize) {
+		int minTableSize = Math.max(2, (int) Math.ceil(expectedSize / LOAD_FACTOR));
+		int tableSize = Integer.highestOneBit(minTableSize - 1) << 1;
+		if (tableSize <= 0) {
+			throw new IllegalStateException("Map too large: " + expectedSize);
+		}
+		return tableSize;
+	}
+
+	private void allocate(int tableSize) {
+		keys = new long[tableSize];
+		values = new Object[tableSize];
+		mask = tableSize - 1;
+		resizeThreshold = (int) (tableSize * LOAD_FACTOR);
+	}
+
+	private static int hash(long key) {
+		// Mixes the bits of the key in order to spread packed coordinates evenly across the table:
+		long hash = key * 0x9E3779B97F4A7C15L;
+		hash ^= (hash >>> 32);
+		return (int) (hash ^ (hash >>> 16));
+	}
+
+	// Returns the index of the slot of the given key, or the index of the empty slot at which the key would be
+	// inserted.
+	private int indexOf(long key) {
+		int index = hash(key) & mask;
+		while (values[index] != null && keys[index] != key) {
+			index = (index + 1) & mask;
+		}
+		return index;
+	}
+
+	/**
+	 * Gets the number of mappings.
+	 *
+	 * @return the number of mappings
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Checks if this map contains no mappings.
+	 *
+	 * @return <code>true</code> if this map is empty
+	 */
+	public boolean isEmpty() {
+		return (size == 0);
+	}
+
+	/**
+	 * Checks if there is a mapping for the given key.
+	 *
+	 * @param key
+	 *            the key
+	 * @return <code>true</code> if there is a mapping for the key
+	 */
+	public boolean containsKey(long key) {
+		return (this.get(key) != null);
+	}
+
+	/**
+	 * Gets the value mapped to the given key.
+	 *
+	 * @param key
+	 *            the key
+	 * @return the value, or <code>null</code> if there is no mapping for the key
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		if (size == 0) return null;
+		return (V) values[this.indexOf(key)];
+	}
+
+	/**
+	 * Maps the given value to the given key.
+	 *
+	 * @param key
+	 *            the key
+	 * @param value
+	 *            the value, not <code>null</code>
+	 * @return the previous value mapped to the key, or <code>null</code> if there was no mapping for the key
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(long key, V value) {
+		Validate.notNull(value, "value is null");
+		int index = this.indexOf(key);
+		Object previousValue = values[index];
+		if (previousValue != null) {
+			values[index] = value;
+			return (V) previousValue;
+		}
+
+		keys[index] = key;
+		values[index] = value;
+		size++;
+		if (size > resizeThreshold) {
+			this.resize(keys.length << 1);
+		}
+		return null;
+	}
+
+	/**
+	 * Removes the mapping for the given key.
+	 *
+	 * @param key
+	 *            the key
+	 * @return the removed value, or <code>null</code> if there was no mapping for the key
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(long key) {
+		if (size == 0) return null;
+		int index = this.indexOf(key);
+		Object previousValue = values[index];
+		if (previousValue == null) return null;
+
+		size--;
+		// Shift back subsequent entries of the same probe sequence, so that lookups do not stop at the removed slot:
+		int emptyIndex = index;
+		int nextIndex = (emptyIndex + 1) & mask;
+		while (values[nextIndex] != null) {
+			int homeIndex = hash(keys[nextIndex]) & mask;
+			// Move the entry if its home slot is not located cyclically in (emptyIndex, nextIndex]:
+			if (((nextIndex - homeIndex) & mask) >= ((nextIndex - emptyIndex) & mask)) {
+				keys[emptyIndex] = keys[nextIndex];
+				values[emptyIndex] = values[nextIndex];
+				emptyIndex = nextIndex;
+			}
+			nextIndex = (nextIndex + 1) & mask;
+		}
+		values[emptyIndex] = null;
+		return (V) previousValue;
+	}
+
+	/**
+	 * Removes all mappings.
+	 */
+	public void clear() {
+		if (size == 0) return;
+		Arrays.fill(values, null);
+		size = 0;
+	}
+
+	/**
+	 * Invokes the given action for each value of this map.
+	 * <p>
+	 * The map must not be modified during the iteration.
+	 *
+	 * @param action
+	 *            the action, not <code>null</code>
+	 */
+	@SuppressWarnings("unchecked")
+	public void forEachValue(Consumer<? super V> action) {
+		Validate.notNull(action, "action is null");
+		Object[] values = this.values;
+		for (int i = 0; i < values.length; i++) {
+			Object value = values[i];
+			if (value != null) {
+				action.accept((V) value);
+			}
+		}
+	}
+
+	private void resize(int newTableSize) {
+		if (newTableSize <= 0) {
+			throw new IllegalStateException("Map too large: " + size);
+		}
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		this.allocate(newTableSize);
+		for (int i = 0; i < oldValues.length; i++) {
+			Object value = oldValues[i];
+			if (value == null) continue;
+			int index = this.indexOf(oldKeys[i]);
+			keys[index] = oldKeys[i];
+			values[index] = value;
+		}
+	}
+}
@@ -0,0 +1,120 @@
+package com.nisovin.shopkeepers.util;
+
+/**
+ * Utilities for packing chunk and block coordinates into primitive {@code long} keys.
+ * <p>
+ * Packed keys do not include the world. They are meant to be used as keys of per-world primitive maps (see
+ * {@link LongObjectHashMap}), which avoids the allocation of coordinate objects during lookups.
+ */
+public final class PackedCoordinates {
+
+	// Block keys: 26 bits for x and z each, 12 bits for y.
+	private static final int XZ_BITS = 26;
+	private static final int Y_BITS = 12;
+	private static final long XZ_MASK = (1L << XZ_BITS) - 1;
+	private static final long Y_MASK = (1L << Y_BITS) - 1;
+	private static final int Z_SHIFT = Y_BITS;
+	private static final int X_SHIFT = Y_BITS + XZ_BITS;
+
+	private PackedCoordinates() {
+	}
+
+	/**
+	 * Packs the given chunk coordinates into a {@code long} key.
+	 *
+	 * @param chunkX
+	 *            the chunk x coordinate
+	 * @param chunkZ
+	 *            the chunk z coordinate
+	 * @return the packed key
+	 */
+	public static long chunkKey(int chunkX, int chunkZ) {
+		return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+	}
+
+	/**
+	 * Gets the chunk x coordinate of the given packed chunk key.
+	 *
+	 * @param chunkKey
+	 *            the packed chunk key
+	 * @return the chunk x coordinate
+	 */
+	public static int getChunkX(long chunkKey) {
+		return (int) (chunkKey >> 32);
+	}
+
+	/**
+	 * Gets the chunk z coordinate of the given packed chunk key.
+	 *
+	 * @param chunkKey
+	 *            the packed chunk key
+	 * @return the chunk z coordinate
+	 */
+	public static int getChunkZ(long chunkKey) {
+		return (int) chunkKey;
+	}
+
+	/**
+	 * Packs the chunk coordinates of the chunk that contains the given block coordinates into a {@code long} key.
+	 *
+	 * @param blockX
+	 *            the block x coordinate
+	 * @param blockZ
+	 *            the block z coordinate
+	 * @return the packed chunk key
+	 */
+	public static long chunkKeyOfBlock(int blockX, int blockZ) {
+		return chunkKey(blockX >> 4, blockZ >> 4);
+	}
+
+	/**
+	 * Packs the given block coordinates into a {@code long} key.
+	 * <p>
+	 * The x and z coordinates are limited to the range of the Minecraft world border (26 bits each), and the y
+	 * coordinate to the range {@code [-2048, 2047]} (12 bits).
+	 *
+	 * @param x
+	 *            the block x coordinate
+	 * @param y
+	 *            the block y coordinate
+	 * @param z
+	 *            the block z coordinate
+	 * @return the packed key
+	 */
+	public static long blockKey(int x, int y, int z) {
+		return ((x & XZ_MASK) << X_SHIFT) | ((z & XZ_MASK) << Z_SHIFT) | (y & Y_MASK);
+	}
+
+	/**
+	 * Gets the block x coordinate of the given packed block key.
+	 *
+	 * @param blockKey
+	 *            the packed block key
+	 * @return the block x coordinate
+	 */
+	public static int getBlockX(long blockKey) {
+		return (int) (blockKey >> X_SHIFT);
+	}
+
+	/**
+	 * Gets the block y coordinate of the given packed block key.
+	 *
+	 * @param blockKey
+	 *            the packed block key
+	 * @return the block y coordinate
+	 */
+	public static int getBlockY(long blockKey) {
+		return (int) (blockKey << (64 - Y_BITS) >> (64 - Y_BITS));
+	}
+
+	/**
+	 * Gets the block z coordinate of the given packed block key.
+	 *
+	 * @param blockKey
+	 *            the packed block key
+	 * @return the block z coordinate
+	 */
+	public static int getBlockZ(long blockKey) {
+		return (int) (blockKey << (64 - X_SHIFT) >> (64 - XZ_BITS));
+	}
+}
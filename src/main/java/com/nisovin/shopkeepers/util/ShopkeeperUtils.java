@@ -26,6 +26,7 @@ import com.nisovin.shopkeepers.api.shopkeeper.admin.AdminShopkeeper;
 import com.nisovin.shopkeepers.api.shopkeeper.player.PlayerShopkeeper;
 import com.nisovin.shopkeepers.container.ShopContainers;
 import com.nisovin.shopkeepers.lang.Messages;
+import com.nisovin.shopkeepers.shopkeeper.SKShopkeeperRegistry;
 import com.nisovin.shopkeepers.text.Text;
 
 /**
@@ -242,37 +243,33 @@ public class ShopkeeperUtils {
 		Map<UUID, String> matchingShopOwners = new LinkedHashMap<>();
 
 		// Search for shops owned by the specified player:
+		SKShopkeeperRegistry shopkeeperRegistry = SKShopkeepersPlugin.getInstance().getShopkeeperRegistry();
 		List<PlayerShopkeeper> shops = new ArrayList<>();
-		for (Shopkeeper shopkeeper : ShopkeepersAPI.getShopkeeperRegistry().getAllShopkeepers()) {
-			if (shopkeeper instanceof PlayerShopkeeper) {
-				PlayerShopkeeper playerShop = (PlayerShopkeeper) shopkeeper;
+		if (targetPlayerUUID != null) {
+			// We search for shops with matching owner uuid:
+			for (PlayerShopkeeper playerShop : shopkeeperRegistry.getPlayerShopkeepersByOwner(targetPlayerUUID)) {
+				shops.add(playerShop);
+
+				// The input target player name may be missing or differ in case.
+				// Keep track of the owner's actual name:
+				targetPlayerName = playerShop.getOwnerName();
+			}
+		} else {
+			assert targetPlayerName != null;
+			// Search for shops with matching owner name (ignores case):
+			for (PlayerShopkeeper playerShop : shopkeeperRegistry.getPlayerShopkeepersByOwnerName(targetPlayerName)) {
 				UUID shopOwnerUUID = playerShop.getOwnerUUID(); // Not null
 				String shopOwnerName = playerShop.getOwnerName(); // Not null
-				if (targetPlayerUUID != null) {
-					// We search for shops with matching owner uuid:
-					if (targetPlayerUUID.equals(shopOwnerUUID)) {
-						shops.add(playerShop);
-
-						// The input target player name may be missing or differ in case.
-						// Keep track of the owner's actual name:
-						targetPlayerName = shopOwnerName;
-					}
-				} else {
-					assert targetPlayerName != null;
-					// Check for matching name:
-					if (shopOwnerName.equalsIgnoreCase(targetPlayerName)) {
-						// Note: If there exist multiple players which match the given name, the result will include the
-						// shops of all of them.
-						shops.add(playerShop);
-
-						// The input target player name may differ in case.
-						// Keep track of the owner's actual name:
-						targetPlayerName = shopOwnerName;
-
-						// Keep track of players with matching name:
-						matchingShopOwners.putIfAbsent(shopOwnerUUID, shopOwnerName);
-					}
-				}
+				// Note: If there exist multiple players which match the given name, the result will include the shops
+				// of all of them.
+				shops.add(playerShop);
+
+				// The input target player name may differ in case.
+				// Keep track of the owner's actual name:
+				targetPlayerName = shopOwnerName;
+
+				// Keep track of players with matching name:
+				matchingShopOwners.putIfAbsent(shopOwnerUUID, shopOwnerName);
 			}
 		}
 		return new OwnedPlayerShopsResult(targetPlayerUUID, targetPlayerName, matchingShopOwners, shops);
@@ -10,6 +10,7 @@ import java.util.function.Supplier;
 import java.util.regex.Pattern;
 
 import com.nisovin.shopkeepers.util.text.MessageArguments;
+import com.nisovin.shopkeepers.util.text.MessageTemplate;
 
 /**
  * Utility functions related to Strings.
@@ -343,7 +344,12 @@ public class StringUtils {
 		return replaceArguments(source, MessageArguments.ofMap(arguments));
 	}
 
+	// Uses the compiled MessageTemplate if the source has been compiled (eg. for messages).
 	public static String replaceArguments(String source, MessageArguments arguments) {
+		MessageTemplate template = MessageTemplate.getCompiled(source); // Null if the source is null
+		if (template != null) {
+			return template.format(arguments); // Checks arguments
+		}
 		return ARGUMENTS_REPLACER.replaceArguments(source, arguments); // Checks arguments
 	}
 
@@ -208,6 +208,12 @@ public class TextUtils {
 		// Skip sending if message is empty: Allows disabling of messages.
 		if (message.isEmpty()) return;
 
+		// Skip splitting the message if it only consists of a single line:
+		if (!StringUtils.containsNewline(message) && message.indexOf("\\n") < 0) {
+			recipient.sendMessage(message);
+			return;
+		}
+
 		// Send (potentially multi-line) message:
 		for (String line : StringUtils.splitLines(message, true)) {
 			recipient.sendMessage(line);
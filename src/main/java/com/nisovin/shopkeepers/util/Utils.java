@@ -219,6 +219,8 @@ public final class Utils {
 	 * <p>
 	 * Since this involves calling a dummy PlayerInteractEvent, plugins reacting to the event might cause all kinds of
 	 * side effects. Therefore, this should only be used in very specific situations, such as for specific blocks.
+	 * <p>
+	 * The result is cached for a short duration (see {@link InteractionChecks}).
 	 * 
 	 * @param player
 	 *            the player
@@ -227,6 +229,10 @@ public final class Utils {
 	 * @return <code>true</code> if no plugin denied block interaction
 	 */
 	public static boolean checkBlockInteract(Player player, Block block) {
+		return InteractionChecks.checkBlock(player, block, () -> callBlockInteractTestEvent(player, block));
+	}
+
+	private static boolean callBlockInteractTestEvent(Player player, Block block) {
 		// Simulating right click on the block to check if access is denied:
 		// Making sure that block access is really denied, and that the event is not cancelled because of denying
 		// usage with the items in hands:
@@ -255,6 +261,8 @@ public final class Utils {
 	 * Since this involves calling a dummy PlayerInteractEntityEvent, plugins reacting to the event might cause all
 	 * kinds of side effects. Therefore, this should only be used in very specific situations, such as for specific
 	 * entities, and its usage should be optional (i.e. guarded by a config setting).
+	 * <p>
+	 * The result is cached for a short duration (see {@link InteractionChecks}).
 	 * 
 	 * @param player
 	 *            the player
@@ -263,6 +271,11 @@ public final class Utils {
 	 * @return <code>true</code> if no plugin denied interaction
 	 */
 	public static boolean checkEntityInteract(Player player, Entity entity) {
+		return InteractionChecks.checkEntity(player, InteractionChecks.CheckType.ENTITY_INTERACT, entity,
+				() -> callEntityInteractTestEvent(player, entity));
+	}
+
+	private static boolean callEntityInteractTestEvent(Player player, Entity entity) {
 		// Simulating right click on the entity to check if access is denied:
 		// Making sure that entity access is really denied, and that the event is not cancelled because of denying usage
 		// with the items in hands:
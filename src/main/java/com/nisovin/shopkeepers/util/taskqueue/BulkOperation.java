@@ -0,0 +1,186 @@
+package com.nisovin.shopkeepers.util.taskqueue;
+
+import java.util.List;
+
+import org.bukkit.Bukkit;
+import org.bukkit.plugin.Plugin;
+import org.bukkit.scheduler.BukkitTask;
+
+import com.nisovin.shopkeepers.util.Validate;
+
+/**
+ * Processes a fixed list of work units, spread across several ticks.
+ * <p>
+ * In contrast to a {@link TaskQueue}, which continuously processes newly added work units, a {@link BulkOperation}
+ * processes a predetermined list of work units once, and then stops. Each task execution processes at most a certain
+ * number of work units, and stops early if it exceeds its time budget. The operation can be cancelled, in which case
+ * the remaining work units are skipped.
+ * <p>
+ * The first batch of work units is processed immediately when the operation is {@link #start() started}. Operations
+ * with only a few work units are therefore completed immediately.
+ *
+ * @param <T>
+ *            the type of work units
+ */
+public abstract class BulkOperation<T> {
+
+	private final Plugin plugin;
+	private final List<? extends T> workUnits;
+	private final int workUnitsPerExecution;
+	private final long budgetNanos;
+
+	private int processed = 0;
+	private boolean cancelled = false;
+	private BukkitTask task = null;
+
+	/**
+	 * Creates a new {@link BulkOperation}.
+	 *
+	 * @param plugin
+	 *            the plugin, not <code>null</code>
+	 * @param workUnits
+	 *            the work units, not <code>null</code>, not modified during processing
+	 * @param workUnitsPerExecution
+	 *            the maximum number of work units that are processed per task execution
+	 * @param budgetMillis
+	 *            the time budget per task execution in milliseconds
+	 */
+	public BulkOperation(Plugin plugin, List<? extends T> workUnits, int workUnitsPerExecution, double budgetMillis) {
+		Validate.notNull(plugin, "plugin is null");
+		Validate.notNull(workUnits, "workUnits is null");
+		Validate.isTrue(workUnitsPerExecution > 0, "workUnitsPerExecution has to be positive");
+		Validate.isTrue(budgetMillis > 0.0D, "budgetMillis has to be positive");
+		this.plugin = plugin;
+		this.workUnits = workUnits;
+		this.workUnitsPerExecution = workUnitsPerExecution;
+		this.budgetNanos = (long) (budgetMillis * 1000000.0D);
+	}
+
+	/**
+	 * Gets the total number of work units.
+	 *
+	 * @return the total number of work units
+	 */
+	public final int getTotalCount() {
+		return workUnits.size();
+	}
+
+	/**
+	 * Gets the number of work units that have been processed so far.
+	 *
+	 * @return the number of processed work units
+	 */
+	public final int getProcessedCount() {
+		return processed;
+	}
+
+	/**
+	 * Checks if this operation has been started and has not yet completed.
+	 *
+	 * @return <code>true</code> if this operation is running
+	 */
+	public final boolean isRunning() {
+		return (task != null);
+	}
+
+	/**
+	 * Checks if this operation has been cancelled.
+	 *
+	 * @return <code>true</code> if cancelled
+	 */
+	public final boolean isCancelled() {
+		return cancelled;
+	}
+
+	/**
+	 * Starts this operation and processes the first batch of work units.
+	 */
+	public final void start() {
+		Validate.State.isTrue(task == null && !cancelled && processed == 0, "The operation has already been started!");
+		task = Bukkit.getScheduler().runTaskTimer(plugin, this::execute, 1L, 1L);
+		this.execute();
+	}
+
+	/**
+	 * Cancels this operation.
+	 * <p>
+	 * The remaining work units are skipped, and {@link #onCompleted()} is invoked. Has no effect if the operation is
+	 * not running.
+	 */
+	public final void cancel() {
+		if (task == null) return; // Not running
+		cancelled = true;
+		this.complete();
+	}
+
+	private void complete() {
+		assert task != null;
+		task.cancel();
+		task = null;
+		this.onCompleted();
+	}
+
+	private void execute() {
+		if (task == null) return; // No longer running
+		int total = workUnits.size();
+		long startNanos = System.nanoTime();
+		int localWorkUnitsPerExecution = workUnitsPerExecution;
+		for (int i = 0; i < localWorkUnitsPerExecution && processed < total; ++i) {
+			T workUnit = workUnits.get(processed);
+			// Each execution processes at least one work unit:
+			if (i > 0 && !this.canProcessInCurrentExecution(workUnit)) {
+				// Continue during the next execution:
+				break;
+			}
+			processed++;
+			this.process(workUnit);
+			if (task == null) return; // Cancelled during processing
+
+			if (System.nanoTime() - startNanos >= budgetNanos) {
+				// Continue during the next execution:
+				break;
+			}
+		}
+
+		if (processed >= total) {
+			this.complete();
+		} else {
+			this.onProgress();
+		}
+	}
+
+	/**
+	 * Processes the given work unit.
+	 *
+	 * @param workUnit
+	 *            the work unit
+	 */
+	protected abstract void process(T workUnit);
+
+	/**
+	 * Checks if the given work unit can still be processed during the current task execution, or if its processing
+	 * should be deferred to the next task execution.
+	 * <p>
+	 * This can be used to limit the number of particularly expensive work units that are processed per task execution.
+	 * This is not invoked for the first work unit of each task execution, which is always processed.
+	 *
+	 * @param workUnit
+	 *            the work unit
+	 * @return <code>true</code> if the work unit can be processed during the current task execution
+	 */
+	protected boolean canProcessInCurrentExecution(T workUnit) {
+		return true;
+	}
+
+	/**
+	 * This is called after each task execution that did not complete this operation.
+	 */
+	protected void onProgress() {
+	}
+
+	/**
+	 * This is called once, when either all work units have been processed or this operation got
+	 * {@link #isCancelled() cancelled}.
+	 */
+	protected abstract void onCompleted();
+}
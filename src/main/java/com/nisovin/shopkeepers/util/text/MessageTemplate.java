@@ -0,0 +1,190 @@
+package com.nisovin.shopkeepers.util.text;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import com.nisovin.shopkeepers.util.StringUtils;
+import com.nisovin.shopkeepers.util.StringUtils.ArgumentsReplacer;
+import com.nisovin.shopkeepers.util.Validate;
+
+/**
+ * A message with pre-parsed placeholder positions.
+ * <p>
+ * Placeholders use the format <code>{key}</code>. The result of {@link #format(MessageArguments)} matches the result
+ * of {@link ArgumentsReplacer#replaceArguments(String, MessageArguments)}, but the message only needs to be scanned
+ * for placeholders once.
+ * <p>
+ * Compiled templates are registered for reuse via {@link #compile(String)}. {@link StringUtils#replaceArguments(String,
+ * MessageArguments)} then automatically uses the compiled template for any source String that matches a registered
+ * template. This is used for the String based messages, which are compiled when the messages are loaded.
+ * <p>
+ * The registered templates can be looked up from any thread. At most {@value #MAX_COMPILED_TEMPLATES} templates are
+ * registered.
+ */
+public final class MessageTemplate {
+
+	public static final int MAX_COMPILED_TEMPLATES = 4096;
+
+	// Accessed asynchronously by StringUtils#replaceArguments.
+	private static final Map<String, MessageTemplate> COMPILED_TEMPLATES = new ConcurrentHashMap<>();
+
+	/**
+	 * Compiles the given message and registers the compiled {@link MessageTemplate} for reuse.
+	 * <p>
+	 * If the limit of {@value #MAX_COMPILED_TEMPLATES} registered templates has been reached, the compiled template is
+	 * not registered.
+	 *
+	 * @param message
+	 *            the message, not <code>null</code>
+	 * @return the compiled template
+	 */
+	public static MessageTemplate compile(String message) {
+		Validate.notNull(message, "message is null");
+		MessageTemplate template = COMPILED_TEMPLATES.get(message);
+		if (template != null) return template;
+		template = new MessageTemplate(message);
+		if (COMPILED_TEMPLATES.size() < MAX_COMPILED_TEMPLATES) {
+			MessageTemplate previous = COMPILED_TEMPLATES.putIfAbsent(message, template);
+			if (previous != null) return previous;
+		}
+		return template;
+	}
+
+	/**
+	 * Gets the compiled {@link MessageTemplate} for the given message.
+	 *
+	 * @param message
+	 *            the message
+	 * @return the compiled template, or <code>null</code> if the message has not been compiled
+	 */
+	public static MessageTemplate getCompiled(String message) {
+		if (message == null) return null;
+		return COMPILED_TEMPLATES.get(message);
+	}
+
+	/**
+	 * Removes all registered compiled templates.
+	 */
+	public static void clearCompiled() {
+		COMPILED_TEMPLATES.clear();
+	}
+
+	/**
+	 * Gets the number of registered compiled templates.
+	 *
+	 * @return the number of compiled templates
+	 */
+	public static int getCompiledCount() {
+		return COMPILED_TEMPLATES.size();
+	}
+
+	/////
+
+	private final String message;
+	// The message parts in between the placeholders. Contains one more element than there are placeholders.
+	private final String[] literals;
+	private final String[] keys;
+	private final String[] formattedKeys; // The placeholders, including their prefix and suffix characters
+	private final int literalsLength;
+
+	/**
+	 * Creates a new {@link MessageTemplate}.
+	 * <p>
+	 * Use {@link #compile(String)} to create templates that are registered for reuse.
+	 *
+	 * @param message
+	 *            the message, not <code>null</code>
+	 */
+	public MessageTemplate(String message) {
+		Validate.notNull(message, "message is null");
+		this.message = message;
+
+		// Same parsing semantics as the ArgumentsReplacer:
+		List<String> literals = new ArrayList<>();
+		List<String> keys = new ArrayList<>();
+		List<String> formattedKeys = new ArrayList<>();
+		int messageLength = message.length();
+		int literalStart = 0;
+		int searchPos = (messageLength <= 2) ? messageLength : 0;
+		while (searchPos < messageLength) {
+			int keyPrefixIndex = message.indexOf(ArgumentsReplacer.DEFAULT_KEY_PREFIX_CHAR, searchPos);
+			if (keyPrefixIndex < 0) break;
+			int keySuffixIndex = message.indexOf(ArgumentsReplacer.DEFAULT_KEY_SUFFIX_CHAR, keyPrefixIndex + 1);
+			if (keySuffixIndex < 0) break;
+
+			literals.add(message.substring(literalStart, keyPrefixIndex));
+			keys.add(message.substring(keyPrefixIndex + 1, keySuffixIndex));
+			formattedKeys.add(message.substring(keyPrefixIndex, keySuffixIndex + 1));
+			literalStart = keySuffixIndex + 1;
+			searchPos = literalStart;
+		}
+		literals.add(message.substring(literalStart));
+
+		this.literals = literals.toArray(new String[0]);
+		this.keys = keys.toArray(new String[0]);
+		this.formattedKeys = formattedKeys.toArray(new String[0]);
+		int literalsLength = 0;
+		for (String literal : this.literals) {
+			literalsLength += literal.length();
+		}
+		this.literalsLength = literalsLength;
+	}
+
+	/**
+	 * Gets the message of this template.
+	 *
+	 * @return the message
+	 */
+	public String getMessage() {
+		return message;
+	}
+
+	/**
+	 * Checks if this template contains any placeholders.
+	 *
+	 * @return <code>true</code> if this template contains placeholders
+	 */
+	public boolean hasPlaceholders() {
+		return (keys.length > 0);
+	}
+
+	/**
+	 * Replaces the placeholders of this template with the given arguments.
+	 * <p>
+	 * Placeholders without corresponding argument remain unchanged. If an argument is a {@link Supplier}, it gets
+	 * invoked to obtain the actual argument.
+	 *
+	 * @param arguments
+	 *            the arguments, not <code>null</code>
+	 * @return the resulting message
+	 */
+	public String format(MessageArguments arguments) {
+		Validate.notNull(arguments, "arguments is null");
+		if (keys.length == 0) return message;
+
+		// Heuristic: Expecting at most 25% increase in size.
+		StringBuilder result = new StringBuilder(literalsLength + literalsLength / 4 + 16);
+		for (int i = 0; i < keys.length; i++) {
+			result.append(literals[i]);
+			Object argument = arguments.get(keys[i]);
+			if (argument instanceof Supplier) {
+				argument = ((Supplier<?>) argument).get(); // Can be null
+			}
+			if (argument != null) {
+				result.append(argument.toString());
+			} else {
+				result.append(formattedKeys[i]);
+			}
+		}
+		result.append(literals[keys.length]);
+		return result.toString();
+	}
+
+	@Override
+	public String toString() {
+		return "MessageTemplate [message=" + message + "]";
+	}
+}
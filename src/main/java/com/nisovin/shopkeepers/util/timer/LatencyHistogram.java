@@ -0,0 +1,141 @@
+package com.nisovin.shopkeepers.util.timer;
+
+import java.util.Arrays;
+
+import com.nisovin.shopkeepers.util.Validate;
+
+/**
+ * A fixed-memory histogram of durations in nanoseconds.
+ * <p>
+ * The buckets of this histogram are logarithmic: Every power of two range of values is split into 8 linear
+ * sub-buckets. This limits the relative error of the reported percentiles to 12.5%, while only requiring a few hundred
+ * buckets for all durations up to about 18 minutes. Longer durations are recorded as this maximum duration.
+ * <p>
+ * Not thread-safe.
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 3;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int SUB_BUCKET_MASK = SUB_BUCKET_COUNT - 1;
+	private static final long MAX_VALUE = (1L << 40) - 1;
+	private static final int BUCKET_COUNT = getBucketIndex(MAX_VALUE) + 1;
+
+	static int getBucketIndex(long value) {
+		assert value >= 0L && value <= MAX_VALUE;
+		if (value < SUB_BUCKET_COUNT) return (int) value;
+		int highestBit = 63 - Long.numberOfLeadingZeros(value);
+		int shift = highestBit - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift) & SUB_BUCKET_MASK;
+		return ((shift + 1) << SUB_BUCKET_BITS) + subBucket;
+	}
+
+	// The largest value that is recorded into the specified bucket:
+	static long getBucketUpperBound(int bucketIndex) {
+		assert bucketIndex >= 0 && bucketIndex < BUCKET_COUNT;
+		if (bucketIndex < SUB_BUCKET_COUNT) return bucketIndex;
+		int shift = (bucketIndex >>> SUB_BUCKET_BITS) - 1;
+		long subBucket = (bucketIndex & SUB_BUCKET_MASK);
+		return ((SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+	}
+
+	private final int[] counts = new int[BUCKET_COUNT];
+	private long totalCount = 0L;
+	private long maxValue = 0L;
+
+	/**
+	 * Creates a new empty {@link LatencyHistogram}.
+	 */
+	public LatencyHistogram() {
+	}
+
+	/**
+	 * Records the given duration.
+	 *
+	 * @param durationNanos
+	 *            the duration in nanoseconds, negative durations are recorded as zero
+	 */
+	public void record(long durationNanos) {
+		long value = Math.max(0L, Math.min(durationNanos, MAX_VALUE));
+		int bucketIndex = getBucketIndex(value);
+		if (counts[bucketIndex] != Integer.MAX_VALUE) {
+			counts[bucketIndex]++;
+		}
+		totalCount++;
+		if (value > maxValue) {
+			maxValue = value;
+		}
+	}
+
+	/**
+	 * Adds the recorded durations of the given other histogram to this histogram.
+	 *
+	 * @param other
+	 *            the other histogram, not <code>null</code>
+	 */
+	public void add(LatencyHistogram other) {
+		Validate.notNull(other, "other is null");
+		if (other.totalCount == 0L) return;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			int otherCount = other.counts[i];
+			if (otherCount == 0) continue;
+			counts[i] = (int) Math.min((long) counts[i] + otherCount, Integer.MAX_VALUE);
+		}
+		totalCount += other.totalCount;
+		if (other.maxValue > maxValue) {
+			maxValue = other.maxValue;
+		}
+	}
+
+	/**
+	 * Removes all recorded durations.
+	 */
+	public void clear() {
+		if (totalCount == 0L) return;
+		Arrays.fill(counts, 0);
+		totalCount = 0L;
+		maxValue = 0L;
+	}
+
+	/**
+	 * Gets the number of recorded durations.
+	 *
+	 * @return the number of recorded durations
+	 */
+	public long getTotalCount() {
+		return totalCount;
+	}
+
+	/**
+	 * Gets the maximum recorded duration.
+	 *
+	 * @return the maximum duration in nanoseconds, or <code>0</code> if no durations have been recorded
+	 */
+	public long getMaxValue() {
+		return maxValue;
+	}
+
+	/**
+	 * Gets the duration at the given percentile.
+	 * <p>
+	 * This returns the upper bound of the bucket that contains the specified percentile, limited to the maximum
+	 * recorded duration.
+	 *
+	 * @param percentile
+	 *            the percentile, in the range [0, 100]
+	 * @return the duration in nanoseconds, or <code>0</code> if no durations have been recorded
+	 */
+	public long getValueAtPercentile(double percentile) {
+		Validate.isTrue(percentile >= 0.0D && percentile <= 100.0D, "percentile has to be in the range [0, 100]");
+		if (totalCount == 0L) return 0L;
+		long targetCount = Math.max(1L, (long) Math.ceil(percentile / 100.0D * totalCount));
+		long cumulativeCount = 0L;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			cumulativeCount += counts[i];
+			if (cumulativeCount >= targetCount) {
+				return Math.min(getBucketUpperBound(i), maxValue);
+			}
+		}
+		return maxValue;
+	}
+}
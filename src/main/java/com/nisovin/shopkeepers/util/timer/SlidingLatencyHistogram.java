@@ -0,0 +1,122 @@
+package com.nisovin.shopkeepers.util.timer;
+
+import java.util.concurrent.TimeUnit;
+
+import com.nisovin.shopkeepers.api.util.TimingStatistics;
+import com.nisovin.shopkeepers.util.Validate;
+
+/**
+ * Keeps track of the durations that have been recorded within the last {@link #MAX_WINDOW_MINUTES} minutes.
+ * <p>
+ * The recorded durations are grouped into slices of 30 seconds each, so that the durations of older slices can be
+ * discarded as time progresses. A time window of {@code n} minutes therefore covers between {@code n - 0.5} and
+ * {@code n} minutes.
+ * <p>
+ * Not thread-safe.
+ */
+public class SlidingLatencyHistogram {
+
+	/**
+	 * The maximum supported time window in minutes.
+	 */
+	public static final int MAX_WINDOW_MINUTES = TimingStatistics.MAX_WINDOW_MINUTES;
+
+	private static final int SLICES_PER_MINUTE = 2;
+	private static final long SLICE_DURATION_NANOS = TimeUnit.MINUTES.toNanos(1) / SLICES_PER_MINUTE;
+	private static final int SLICE_COUNT = MAX_WINDOW_MINUTES * SLICES_PER_MINUTE;
+
+	// Slices are lazily allocated:
+	private final LatencyHistogram[] slices = new LatencyHistogram[SLICE_COUNT];
+	private long currentSlice = Long.MIN_VALUE;
+	// Reused for queries:
+	private final LatencyHistogram windowHistogram = new LatencyHistogram();
+
+	/**
+	 * Creates a new empty {@link SlidingLatencyHistogram}.
+	 */
+	public SlidingLatencyHistogram() {
+	}
+
+	private static int getSliceIndex(long slice) {
+		return (int) Math.floorMod(slice, (long) SLICE_COUNT);
+	}
+
+	// Discards the durations of slices that have moved out of the tracked time span:
+	private void advance(long nowNanos) {
+		long slice = Math.floorDiv(nowNanos, SLICE_DURATION_NANOS);
+		if (slice == currentSlice) return;
+
+		if (currentSlice == Long.MIN_VALUE || slice - currentSlice >= SLICE_COUNT || slice < currentSlice) {
+			this.clearSlices();
+		} else {
+			for (long expiredSlice = currentSlice + 1; expiredSlice <= slice; expiredSlice++) {
+				LatencyHistogram histogram = slices[getSliceIndex(expiredSlice)];
+				if (histogram != null) {
+					histogram.clear();
+				}
+			}
+		}
+		currentSlice = slice;
+	}
+
+	private void clearSlices() {
+		for (LatencyHistogram histogram : slices) {
+			if (histogram != null) {
+				histogram.clear();
+			}
+		}
+	}
+
+	/**
+	 * Records the given duration.
+	 *
+	 * @param durationNanos
+	 *            the duration in nanoseconds
+	 * @param nowNanos
+	 *            the current {@link System#nanoTime() nano time}
+	 */
+	public void record(long durationNanos, long nowNanos) {
+		this.advance(nowNanos);
+		int sliceIndex = getSliceIndex(currentSlice);
+		LatencyHistogram histogram = slices[sliceIndex];
+		if (histogram == null) {
+			histogram = new LatencyHistogram();
+			slices[sliceIndex] = histogram;
+		}
+		histogram.record(durationNanos);
+	}
+
+	/**
+	 * Gets a histogram of the durations that have been recorded within the specified time window.
+	 * <p>
+	 * The returned histogram is reused and only valid until the next invocation of this method.
+	 *
+	 * @param windowMinutes
+	 *            the time window in minutes, in the range [1, {@link #MAX_WINDOW_MINUTES}]
+	 * @param nowNanos
+	 *            the current {@link System#nanoTime() nano time}
+	 * @return the histogram of the durations recorded within the time window
+	 */
+	public LatencyHistogram getWindow(int windowMinutes, long nowNanos) {
+		Validate.isTrue(windowMinutes >= 1 && windowMinutes <= MAX_WINDOW_MINUTES,
+				"windowMinutes has to be in the range [1, " + MAX_WINDOW_MINUTES + "]");
+		this.advance(nowNanos);
+		windowHistogram.clear();
+		int windowSlices = windowMinutes * SLICES_PER_MINUTE;
+		for (int i = 0; i < windowSlices; i++) {
+			LatencyHistogram histogram = slices[getSliceIndex(currentSlice - i)];
+			if (histogram != null) {
+				windowHistogram.add(histogram);
+			}
+		}
+		return windowHistogram;
+	}
+
+	/**
+	 * Removes all recorded durations.
+	 */
+	public void clear() {
+		this.clearSlices();
+		windowHistogram.clear();
+	}
+}
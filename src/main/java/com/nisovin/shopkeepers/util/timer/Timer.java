@@ -9,12 +9,15 @@ public class Timer implements Timings {
 	private long counter = 0L;
 	private long totalTime = 0L; // In nano seconds
 	private long maxTime = 0L; // In nano seconds
+	private final LatencyHistogram histogram = new LatencyHistogram();
+	private final SlidingLatencyHistogram slidingHistogram = new SlidingLatencyHistogram();
 
 	// Current timing:
 	private boolean started = false;
 	private boolean paused = false;
 	private long startTime; // Nano time
 	private long elapsedTime; // In nano seconds
+	private long lastTime; // Nano time of the last pause
 
 	public Timer() {
 	}
@@ -38,7 +41,8 @@ public class Timer implements Timings {
 		assert started && !paused;
 		paused = true;
 		// Update timing:
-		elapsedTime += (System.nanoTime() - startTime);
+		lastTime = System.nanoTime();
+		elapsedTime += (lastTime - startTime);
 	}
 
 	public void resume() {
@@ -55,15 +59,35 @@ public class Timer implements Timings {
 			this.pause();
 		}
 		assert paused;
+		started = false;
+		paused = false;
 
 		// Update timings:
+		this.record(elapsedTime, lastTime);
+	}
+
+	/**
+	 * Records a duration that has been measured externally.
+	 * 
+	 * @param durationNanos
+	 *            the duration in nanoseconds
+	 */
+	public void addTiming(long durationNanos) {
+		this.record(durationNanos, System.nanoTime());
+	}
+
+	private void record(long durationNanos, long nowNanos) {
 		counter++;
-		totalTime += elapsedTime;
+		totalTime += durationNanos;
 
 		// Update max timing:
-		if (elapsedTime > maxTime) {
-			maxTime = elapsedTime;
+		if (durationNanos > maxTime) {
+			maxTime = durationNanos;
 		}
+
+		// Update histograms:
+		histogram.record(durationNanos);
+		slidingHistogram.record(durationNanos, nowNanos);
 	}
 
 	// TIMINGS
@@ -73,6 +97,8 @@ public class Timer implements Timings {
 		counter = 0L;
 		totalTime = 0L;
 		maxTime = 0L;
+		histogram.clear();
+		slidingHistogram.clear();
 	}
 
 	@Override
@@ -90,4 +116,34 @@ public class Timer implements Timings {
 	public double getMaxTimeMillis() {
 		return TimeUtils.convert(maxTime, TimeUnit.NANOSECONDS, TimeUnit.MILLISECONDS);
 	}
+
+	@Override
+	public double getPercentileMillis(double percentile) {
+		return toMillis(histogram.getValueAtPercentile(percentile));
+	}
+
+	@Override
+	public long getCounter(int windowMinutes) {
+		return slidingHistogram.getWindow(windowMinutes, System.nanoTime()).getTotalCount();
+	}
+
+	@Override
+	public double getPercentileMillis(double percentile, int windowMinutes) {
+		LatencyHistogram windowHistogram = slidingHistogram.getWindow(windowMinutes, System.nanoTime());
+		return toMillis(windowHistogram.getValueAtPercentile(percentile));
+	}
+
+	@Override
+	public double[] getPercentilesMillis(int windowMinutes, double... percentiles) {
+		LatencyHistogram windowHistogram = slidingHistogram.getWindow(windowMinutes, System.nanoTime());
+		double[] result = new double[percentiles.length];
+		for (int i = 0; i < percentiles.length; i++) {
+			result[i] = toMillis(windowHistogram.getValueAtPercentile(percentiles[i]));
+		}
+		return result;
+	}
+
+	private static double toMillis(long nanos) {
+		return TimeUtils.convert(nanos, TimeUnit.NANOSECONDS, TimeUnit.MILLISECONDS);
+	}
 }
@@ -22,6 +22,8 @@ import com.nisovin.shopkeepers.config.Settings;
 import com.nisovin.shopkeepers.lang.Messages;
 import com.nisovin.shopkeepers.pluginhandlers.CitizensHandler;
 import com.nisovin.shopkeepers.ui.defaults.VillagerEditorHandler;
+import com.nisovin.shopkeepers.util.InteractionChecks;
+import com.nisovin.shopkeepers.util.InteractionChecks.CheckType;
 import com.nisovin.shopkeepers.util.ItemUtils;
 import com.nisovin.shopkeepers.util.Log;
 import com.nisovin.shopkeepers.util.TextUtils;
@@ -192,6 +194,11 @@ public class VillagerInteractionListener implements Listener {
 
 	// Returns true if the player can access (remove / attack) this entity.
 	private boolean checkEntityAccess(Player player, Entity entity) {
+		return InteractionChecks.checkEntity(player, CheckType.ENTITY_DAMAGE, entity,
+				() -> this.callEntityDamageTestEvent(player, entity));
+	}
+
+	private boolean callEntityDamageTestEvent(Player player, Entity entity) {
 		TestEntityDamageByEntityEvent fakeDamageEvent = new TestEntityDamageByEntityEvent(player, entity);
 		plugin.getServer().getPluginManager().callEvent(fakeDamageEvent);
 		return !fakeDamageEvent.isCancelled();
@@ -3,16 +3,23 @@ package com.nisovin.shopkeepers;
 import java.lang.management.ManagementFactory;
 import java.lang.management.ThreadMXBean;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.bukkit.Material;
 import org.bukkit.craftbukkit.v1_14_R1.inventory.CraftItemStack;
+import org.bukkit.craftbukkit.v1_14_R1.inventory.CraftMerchantRecipe;
 import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.MerchantRecipe;
 import org.junit.Test;
 
+import com.nisovin.shopkeepers.api.shopkeeper.TradingRecipe;
+import com.nisovin.shopkeepers.shopkeeper.SKTradingRecipe;
 import com.nisovin.shopkeepers.testutil.AbstractBukkitTest;
 import com.nisovin.shopkeepers.util.ItemData;
 import com.nisovin.shopkeepers.util.ItemUtils;
+import com.nisovin.shopkeepers.util.MerchantUtils;
 import com.nisovin.shopkeepers.util.MutableLong;
 import com.nisovin.shopkeepers.util.TestItemStacks;
 
@@ -212,4 +219,47 @@ public class PerformanceTests extends AbstractBukkitTest {
 			throw new IllegalStateException("Unexpected test outcome.");
 		}
 	}
+
+	@Test
+	public void testSharedMerchantRecipesPerformance() {
+		System.out.println("Testing trade window opening with fresh vs shared merchant recipes:");
+		int warmupCount = 100;
+		int testCount = 1000;
+		List<TradingRecipe> recipes = new ArrayList<>();
+		for (int i = 0; i < 20; ++i) {
+			recipes.add(new SKTradingRecipe(TestItemStacks.createItemStackComplete(), TestItemStacks.createItemStackBasic(), TestItemStacks.createItemStackDisplayName()));
+		}
+
+		// In order to avoid that the compiler optimizes these operations away, we increment this value during the
+		// tests:
+		MutableLong value = new MutableLong();
+
+		for (int viewers : new int[] { 1, 10, 100 }) {
+			testPerformance("  ", "fresh merchant recipes (" + viewers + " viewers)", warmupCount, testCount, () -> {
+				for (int i = 0; i < viewers; ++i) {
+					setMerchantRecipes(MerchantUtils.createMerchantRecipes(recipes), value);
+				}
+			});
+
+			testPerformance("  ", "shared merchant recipes (" + viewers + " viewers)", warmupCount, testCount, () -> {
+				List<MerchantRecipe> sharedMerchantRecipes = Collections.unmodifiableList(MerchantUtils.createMerchantRecipes(recipes));
+				for (int i = 0; i < viewers; ++i) {
+					setMerchantRecipes(sharedMerchantRecipes, value);
+				}
+			});
+		}
+
+		if (value.getValue() == 0) {
+			throw new IllegalStateException("Unexpected test outcome.");
+		}
+	}
+
+	// Mimics the conversion that takes place when the merchant recipes are set for a merchant.
+	private static void setMerchantRecipes(List<MerchantRecipe> merchantRecipes, MutableLong value) {
+		for (MerchantRecipe merchantRecipe : merchantRecipes) {
+			if (CraftMerchantRecipe.fromBukkit(merchantRecipe).toMinecraft() != null) {
+				value.increment(1);
+			}
+		}
+	}
 }
@@ -0,0 +1,106 @@
+package com.nisovin.shopkeepers.ui.defaults;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.bukkit.Material;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.MerchantRecipe;
+import org.junit.Assert;
+import org.junit.Test;
+
+import com.nisovin.shopkeepers.api.shopkeeper.offers.TradeOffer;
+import com.nisovin.shopkeepers.shopkeeper.admin.regular.SKRegularAdminShopkeeper;
+import com.nisovin.shopkeepers.shopkeeper.offers.SKTradeOffer;
+import com.nisovin.shopkeepers.testutil.AbstractBukkitTest;
+import com.nisovin.shopkeepers.util.MerchantUtils;
+
+public class TradingHandlerTests extends AbstractBukkitTest {
+
+	private static TradeOffer createOffer(Material resultType, int price) {
+		return new SKTradeOffer(new ItemStack(resultType), new ItemStack(Material.EMERALD, price), null);
+	}
+
+	private static SKRegularAdminShopkeeper createAdminShopkeeper(TradeOffer... offers) {
+		// Not initialized and not registered. Only the offers are used.
+		SKRegularAdminShopkeeper shopkeeper = new SKRegularAdminShopkeeper(1) {
+		};
+		shopkeeper.setOffers(Arrays.asList(offers));
+		return shopkeeper;
+	}
+
+	// Shares the merchant recipes in the same way as the trading handler of admin shops.
+	private static TradingHandler createSharingTradingHandler(SKRegularAdminShopkeeper shopkeeper) {
+		return new TradingHandler(new TradingUIType(), shopkeeper) {
+			@Override
+			protected boolean isSharingMerchantRecipes() {
+				return true;
+			}
+		};
+	}
+
+	private static List<MerchantRecipe> getMerchantRecipes(TradingHandler tradingHandler, SKRegularAdminShopkeeper shopkeeper) {
+		return tradingHandler.getMerchantRecipes(shopkeeper.getTradingRecipes(null));
+	}
+
+	private static void assertMatchesOffers(List<MerchantRecipe> merchantRecipes, SKRegularAdminShopkeeper shopkeeper) {
+		List<MerchantRecipe> expected = MerchantUtils.createMerchantRecipes(shopkeeper.getTradingRecipes(null));
+		Assert.assertTrue("Merchant recipes do not match the shopkeeper's offers",
+				MerchantUtils.MERCHANT_RECIPES_IGNORE_USES_EXCEPT_BLOCKED.equals(expected, merchantRecipes));
+	}
+
+	@Test
+	public void testMerchantRecipesAreShared() {
+		SKRegularAdminShopkeeper shopkeeper = createAdminShopkeeper(createOffer(Material.STONE, 1), createOffer(Material.DIRT, 2));
+		TradingHandler tradingHandler = createSharingTradingHandler(shopkeeper);
+
+		// Multiple players opening the shop:
+		List<MerchantRecipe> merchantRecipes = getMerchantRecipes(tradingHandler, shopkeeper);
+		assertMatchesOffers(merchantRecipes, shopkeeper);
+		for (int i = 0; i < 10; ++i) {
+			Assert.assertSame(merchantRecipes, getMerchantRecipes(tradingHandler, shopkeeper));
+		}
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testSharedMerchantRecipesAreUnmodifiable() {
+		SKRegularAdminShopkeeper shopkeeper = createAdminShopkeeper(createOffer(Material.STONE, 1));
+		TradingHandler tradingHandler = createSharingTradingHandler(shopkeeper);
+		getMerchantRecipes(tradingHandler, shopkeeper).clear();
+	}
+
+	@Test
+	public void testSharedMerchantRecipesInvalidatedOnOfferChanges() {
+		SKRegularAdminShopkeeper shopkeeper = createAdminShopkeeper(createOffer(Material.STONE, 1), createOffer(Material.DIRT, 2));
+		TradingHandler tradingHandler = createSharingTradingHandler(shopkeeper);
+		List<MerchantRecipe> merchantRecipes = getMerchantRecipes(tradingHandler, shopkeeper);
+
+		// Adding an offer:
+		shopkeeper.addOffer(createOffer(Material.GRAVEL, 3));
+		List<MerchantRecipe> afterAdd = getMerchantRecipes(tradingHandler, shopkeeper);
+		Assert.assertNotSame(merchantRecipes, afterAdd);
+		Assert.assertEquals(3, afterAdd.size());
+		assertMatchesOffers(afterAdd, shopkeeper);
+		Assert.assertSame(afterAdd, getMerchantRecipes(tradingHandler, shopkeeper));
+
+		// Replacing an offer, without changing the number of offers:
+		shopkeeper.setOffers(Arrays.asList(createOffer(Material.STONE, 1), createOffer(Material.DIRT, 5), createOffer(Material.GRAVEL, 3)));
+		List<MerchantRecipe> afterReplace = getMerchantRecipes(tradingHandler, shopkeeper);
+		Assert.assertNotSame(afterAdd, afterReplace);
+		assertMatchesOffers(afterReplace, shopkeeper);
+
+		// Clearing the offers:
+		shopkeeper.clearOffers();
+		List<MerchantRecipe> afterClear = getMerchantRecipes(tradingHandler, shopkeeper);
+		Assert.assertTrue(afterClear.isEmpty());
+	}
+
+	@Test
+	public void testMerchantRecipesNotSharedByDefault() {
+		SKRegularAdminShopkeeper shopkeeper = createAdminShopkeeper(createOffer(Material.STONE, 1));
+		TradingHandler tradingHandler = new TradingHandler(new TradingUIType(), shopkeeper);
+		List<MerchantRecipe> merchantRecipes = getMerchantRecipes(tradingHandler, shopkeeper);
+		assertMatchesOffers(merchantRecipes, shopkeeper);
+		Assert.assertNotSame(merchantRecipes, getMerchantRecipes(tradingHandler, shopkeeper));
+	}
+}
@@ -0,0 +1,77 @@
+package com.nisovin.shopkeepers.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LongObjectHashMapTests {
+
+	@Test
+	public void testBasicOperations() {
+		LongObjectHashMap<String> map = new LongObjectHashMap<>();
+		Assert.assertTrue(map.isEmpty());
+		Assert.assertNull(map.get(1L));
+
+		Assert.assertNull(map.put(1L, "a"));
+		Assert.assertEquals("a", map.put(1L, "b"));
+		Assert.assertEquals("b", map.get(1L));
+		Assert.assertTrue(map.containsKey(1L));
+		Assert.assertEquals(1, map.size());
+
+		Assert.assertEquals("b", map.remove(1L));
+		Assert.assertNull(map.remove(1L));
+		Assert.assertFalse(map.containsKey(1L));
+		Assert.assertTrue(map.isEmpty());
+	}
+
+	@Test
+	public void testRandomOperations() {
+		// Compares the map's behavior with that of a HashMap:
+		LongObjectHashMap<Long> map = new LongObjectHashMap<>();
+		Map<Long, Long> expected = new HashMap<>();
+		Random random = new Random(42L);
+		for (int i = 0; i < 100000; i++) {
+			// Small key range, in order to provoke collisions and removals:
+			long key = PackedCoordinates.blockKey(random.nextInt(64) - 32, random.nextInt(8), random.nextInt(64) - 32);
+			if (random.nextInt(3) == 0) {
+				Assert.assertEquals(expected.remove(key), map.remove(key));
+			} else {
+				Long value = random.nextLong();
+				Assert.assertEquals(expected.put(key, value), map.put(key, value));
+			}
+			Assert.assertEquals(expected.size(), map.size());
+		}
+		for (Map.Entry<Long, Long> entry : expected.entrySet()) {
+			Assert.assertEquals(entry.getValue(), map.get(entry.getKey()));
+		}
+
+		MutableLong count = new MutableLong();
+		map.forEachValue(value -> count.increment(1L));
+		Assert.assertEquals(expected.size(), count.getValue());
+
+		map.clear();
+		Assert.assertTrue(map.isEmpty());
+		Assert.assertNull(map.get(expected.keySet().iterator().next()));
+	}
+
+	@Test
+	public void testPackedCoordinates() {
+		int[] values = { 0, 1, -1, 15, 16, -16, -17, 2047, -2048, 29999999, -29999999 };
+		for (int x : values) {
+			for (int z : values) {
+				long chunkKey = PackedCoordinates.chunkKey(x, z);
+				Assert.assertEquals(x, PackedCoordinates.getChunkX(chunkKey));
+				Assert.assertEquals(z, PackedCoordinates.getChunkZ(chunkKey));
+				for (int y : new int[] { 0, 1, -1, -64, 319, 2047, -2048 }) {
+					long blockKey = PackedCoordinates.blockKey(x, y, z);
+					Assert.assertEquals(x, PackedCoordinates.getBlockX(blockKey));
+					Assert.assertEquals(y, PackedCoordinates.getBlockY(blockKey));
+					Assert.assertEquals(z, PackedCoordinates.getBlockZ(blockKey));
+				}
+			}
+		}
+	}
+}
@@ -1,8 +1,15 @@
 package com.nisovin.shopkeepers.util;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
 import org.junit.Assert;
 import org.junit.Test;
 
+import com.nisovin.shopkeepers.util.text.MessageArguments;
+import com.nisovin.shopkeepers.util.text.MessageTemplate;
+
 public class StringUtilsTests {
 
 	@Test
@@ -58,4 +65,21 @@ public class StringUtilsTests {
 		String expected = "Text with replacement and {key}!";
 		Assert.assertEquals(expected, result);
 	}
+
+	@Test
+	public void testMessageTemplates() {
+		Map<String, Object> arguments = new HashMap<>();
+		arguments.put("a", "A");
+		arguments.put("b", (Supplier<String>) () -> "B");
+		arguments.put("nested", "{a}");
+		MessageArguments messageArguments = MessageArguments.ofMap(arguments);
+
+		String[] messages = new String[] {
+			"", "{}", "{a", "a}", "{a}", "{a}{b}", "x{a}y{b}z", "{a}{a}", "{unknown}", "{nested}", "{{a}}", "{some{b}", "text"
+		};
+		for (String message : messages) {
+			String expected = new StringUtils.ArgumentsReplacer().replaceArguments(message, messageArguments);
+			Assert.assertEquals(expected, new MessageTemplate(message).format(messageArguments));
+		}
+	}
 }
@@ -0,0 +1,70 @@
+package com.nisovin.shopkeepers.util.timer;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LatencyHistogramTests {
+
+	@Test
+	public void testBucketBounds() {
+		long previousUpperBound = -1L;
+		for (long value = 0L; value < 100000L; value++) {
+			int bucketIndex = LatencyHistogram.getBucketIndex(value);
+			long upperBound = LatencyHistogram.getBucketUpperBound(bucketIndex);
+			Assert.assertTrue("value above bucket bound: " + value, value <= upperBound);
+			// Relative error is limited to 12.5%:
+			Assert.assertTrue("bucket too wide: " + value, (upperBound - value) <= (value / 8));
+			if (upperBound != previousUpperBound) {
+				// Buckets are contiguous:
+				Assert.assertEquals(previousUpperBound + 1, value);
+				previousUpperBound = upperBound;
+			}
+		}
+	}
+
+	@Test
+	public void testPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		Assert.assertEquals(0L, histogram.getValueAtPercentile(50.0D));
+		for (long value = 1L; value <= 1000L; value++) {
+			histogram.record(value * 1000L);
+		}
+		Assert.assertEquals(1000L, histogram.getTotalCount());
+		Assert.assertEquals(1000000L, histogram.getMaxValue());
+		Assert.assertEquals(1000000L, histogram.getValueAtPercentile(100.0D));
+		long p50 = histogram.getValueAtPercentile(50.0D);
+		Assert.assertTrue("p50: " + p50, p50 >= 500000L && p50 <= 500000L * 9 / 8);
+		long p99 = histogram.getValueAtPercentile(99.0D);
+		Assert.assertTrue("p99: " + p99, p99 >= 990000L && p99 <= 1000000L);
+
+		LatencyHistogram other = new LatencyHistogram();
+		other.record(TimeUnit.HOURS.toNanos(1)); // Clamped
+		histogram.add(other);
+		Assert.assertEquals(1001L, histogram.getTotalCount());
+		Assert.assertTrue(histogram.getMaxValue() < TimeUnit.HOURS.toNanos(1));
+
+		histogram.clear();
+		Assert.assertEquals(0L, histogram.getTotalCount());
+		Assert.assertEquals(0L, histogram.getValueAtPercentile(99.0D));
+	}
+
+	@Test
+	public void testSlidingWindows() {
+		SlidingLatencyHistogram histogram = new SlidingLatencyHistogram();
+		long now = 0L;
+		histogram.record(100L, now);
+		now += TimeUnit.MINUTES.toNanos(3);
+		histogram.record(200L, now);
+		Assert.assertEquals(1L, histogram.getWindow(1, now).getTotalCount());
+		Assert.assertEquals(2L, histogram.getWindow(5, now).getTotalCount());
+
+		now += TimeUnit.MINUTES.toNanos(14);
+		Assert.assertEquals(0L, histogram.getWindow(1, now).getTotalCount());
+		Assert.assertEquals(1L, histogram.getWindow(15, now).getTotalCount());
+
+		now += TimeUnit.MINUTES.toNanos(60);
+		Assert.assertEquals(0L, histogram.getWindow(15, now).getTotalCount());
+	}
+}